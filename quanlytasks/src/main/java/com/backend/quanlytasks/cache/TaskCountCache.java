@@ -0,0 +1,64 @@
+package com.backend.quanlytasks.cache;
+
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+import com.backend.quanlytasks.repository.TaskFilterKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache ngắn hạn cho tổng số task của một filter (totalElements/totalPages)
+ * Khi người dùng chuyển trang với cùng filter, COUNT chỉ chạy lại sau khi hết TTL
+ * Các khóa bị ảnh hưởng được xóa ngay khi có TaskChangedEvent; TTL chỉ là giới hạn an toàn
+ */
+@Component
+public class TaskCountCache {
+
+    private final Cache<TaskFilterKey, Long> cache;
+
+    public TaskCountCache(
+            @Value("${app.task-list.count-cache.enabled:true}") boolean enabled,
+            @Value("${app.task-list.count-cache.ttl:30s}") Duration ttl,
+            @Value("${app.task-list.count-cache.max-size:10000}") long maxSize) {
+        this.cache = enabled
+                ? Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build()
+                : null;
+    }
+
+    /**
+     * Lấy tổng số task từ cache, gọi loader (COUNT) nếu chưa có
+     *
+     * @param userId null nếu là ADMIN
+     */
+    public long get(TaskFilterRequest filter, Long userId, LongSupplier loader) {
+        if (cache == null) {
+            return loader.getAsLong();
+        }
+        return cache.get(TaskFilterKey.of(filter, userId), key -> loader.getAsLong());
+    }
+
+    /**
+     * Xóa tổng số đã cache của các phạm vi bị ảnh hưởng bởi một thay đổi task
+     *
+     * @param includeAdmin xóa cả các khóa của phạm vi ADMIN
+     * @param searchOnly   chỉ xóa các khóa có tìm kiếm full-text
+     */
+    public void invalidate(Collection<Long> userIds, boolean includeAdmin, boolean searchOnly) {
+        if (cache == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key ->
+                key.inScope(userIds, includeAdmin) && (!searchOnly || key.hasSearch()));
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
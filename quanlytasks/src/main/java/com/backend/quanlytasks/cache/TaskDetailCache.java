@@ -0,0 +1,71 @@
+package com.backend.quanlytasks.cache;
+
+import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache chi tiết task (TaskDetailResponse) theo (taskId, version)
+ * Mọi thay đổi task, subtask, comment đều tăng version nên entry cũ không bao giờ được đọc lại;
+ * evict theo TaskChangedEvent chỉ để giải phóng bộ nhớ sớm
+ * Nội dung không phụ thuộc người xem: quyền xem vẫn phải kiểm tra ở mỗi lần đọc
+ */
+@Component
+public class TaskDetailCache {
+
+    private final Cache<Key, TaskDetailResponse> cache;
+
+    public TaskDetailCache(
+            @Value("${app.task-detail.cache.enabled:true}") boolean enabled,
+            @Value("${app.task-detail.cache.max-size:2000}") long maxSize,
+            @Value("${app.task-detail.cache.max-age:10m}") Duration maxAge) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(maxAge)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * Lấy chi tiết task đã cache, null nếu chưa có hoặc version đã đổi
+     */
+    public TaskDetailResponse get(Long taskId, Long version) {
+        return cache != null ? cache.getIfPresent(new Key(taskId, version)) : null;
+    }
+
+    public void put(Long taskId, Long version, TaskDetailResponse response) {
+        if (cache != null) {
+            cache.put(new Key(taskId, version), response);
+        }
+    }
+
+    /**
+     * Xóa mọi version đã cache của task
+     */
+    public void evict(Long taskId) {
+        if (cache != null) {
+            cache.asMap().keySet().removeIf(key -> key.taskId().equals(taskId));
+        }
+    }
+
+    /**
+     * Thống kê hit/miss, null nếu cache bị tắt
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : null;
+    }
+
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    private record Key(Long taskId, Long version) {
+    }
+}
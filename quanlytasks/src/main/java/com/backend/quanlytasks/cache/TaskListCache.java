@@ -0,0 +1,154 @@
+package com.backend.quanlytasks.cache;
+
+import com.backend.quanlytasks.common.enums.PageMode;
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TaskSortField;
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskResponse;
+import com.backend.quanlytasks.repository.TaskFilterKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache kết quả danh sách task (TaskListResponse) theo filter đã chuẩn hóa và phạm vi người xem
+ * Không dựa vào TTL: các entry bị xóa theo TaskChangedEvent, theo user và theo task bị ảnh hưởng
+ * (max-age chỉ là giới hạn an toàn cho thay đổi ngoài các luồng ghi của ứng dụng, ví dụ đổi tên user)
+ */
+@Component
+public class TaskListCache {
+
+    private final Cache<Key, Entry> cache;
+
+    /**
+     * Tăng mỗi lần xóa cache; kết quả được nạp trong lúc có thay đổi sẽ không được giữ lại
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public TaskListCache(
+            @Value("${app.task-list.result-cache.enabled:true}") boolean enabled,
+            @Value("${app.task-list.result-cache.max-size:5000}") long maxSize,
+            @Value("${app.task-list.result-cache.max-age:10m}") Duration maxAge) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(maxAge)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    /**
+     * Lấy danh sách task từ cache, gọi loader nếu chưa có
+     *
+     * @param userId null nếu là ADMIN (mọi ADMIN dùng chung kết quả)
+     */
+    public TaskListResponse get(TaskFilterRequest filter, Long userId, Supplier<TaskListResponse> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        Key key = Key.of(filter, userId);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.response();
+        }
+
+        long before = generation.get();
+        TaskListResponse response = loader.get();
+        cache.put(key, Entry.of(response));
+        // Có thay đổi xảy ra trong lúc nạp: kết quả có thể đã cũ
+        if (generation.get() != before) {
+            cache.invalidate(key);
+        }
+        return response;
+    }
+
+    /**
+     * Field của task thay đổi: xóa mọi trang chứa task và mọi trang của những người xem được task
+     * (tập kết quả có thể thay đổi, ví dụ task chuyển sang status khác)
+     */
+    public void invalidateTask(Long taskId, Collection<Long> userIds) {
+        invalidateIf((key, entry) -> key.filter().inScope(userIds, true) || entry.taskIds().contains(taskId));
+    }
+
+    /**
+     * Quyền xem thay đổi: chỉ các trang của những user được/mất quyền
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        invalidateIf((key, entry) -> key.filter().inScope(userIds, false));
+    }
+
+    /**
+     * Nội dung tìm kiếm thay đổi: chỉ các trang có từ khóa của những người xem được task
+     */
+    public void invalidateSearch(Collection<Long> userIds) {
+        invalidateIf((key, entry) -> key.filter().hasSearch() && key.filter().inScope(userIds, true));
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Thống kê hit/miss, null nếu cache bị tắt
+     */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : null;
+    }
+
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    private void invalidateIf(BiPredicate<Key, Entry> predicate) {
+        if (cache == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue()));
+    }
+
+    /**
+     * Khóa cache: tập kết quả (TaskFilterKey) cộng với vị trí trang và cách sắp xếp
+     */
+    private record Key(TaskFilterKey filter, PageMode mode, int page, int size,
+            TaskSortField sort, SortDirection direction, String cursor) {
+
+        static Key of(TaskFilterRequest filter, Long userId) {
+            PageMode mode = filter.getCursor() != null ? PageMode.CURSOR
+                    : filter.getMode() != null ? filter.getMode() : PageMode.OFFSET;
+            return new Key(TaskFilterKey.of(filter, userId), mode,
+                    mode == PageMode.CURSOR || filter.getPage() == null ? 0 : filter.getPage(),
+                    filter.getSize() != null ? filter.getSize() : 8,
+                    filter.getSort() != null ? filter.getSort() : TaskSortField.CREATED_AT,
+                    filter.getDirection() != null ? filter.getDirection() : SortDirection.DESC,
+                    filter.getCursor());
+        }
+    }
+
+    /**
+     * Kết quả đã cache kèm ID các task trong trang (để xóa theo task)
+     */
+    private record Entry(TaskListResponse response, Set<Long> taskIds) {
+
+        static Entry of(TaskListResponse response) {
+            return new Entry(response, response.getTasks().stream()
+                    .map(TaskResponse::getId)
+                    .collect(Collectors.toUnmodifiableSet()));
+        }
+    }
+}
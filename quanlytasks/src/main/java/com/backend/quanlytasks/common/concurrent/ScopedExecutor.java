@@ -0,0 +1,121 @@
+package com.backend.quanlytasks.common.concurrent;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Thread pool giới hạn để chạy song song các phần độc lập của một request (fan-out)
+ * Mỗi request mở một Scope: các việc con có chung deadline, và việc chưa xong bị hủy khi đóng scope
+ * (tương tự StructuredTaskScope nhưng chạy được trên Java 17)
+ * Pool và hàng đợi đầy thì từ chối ngay thay vì chạy trên thread của request,
+ * vì khi đó deadline không còn được áp dụng và fan-out thành tuần tự không giới hạn thời gian
+ * Mỗi việc con đọc DB giữ một connection: số connection fan-out dùng cùng lúc không vượt quá số thread,
+ * nên app.fan-out.threads phải nhỏ hơn kích thước connection pool (xem FanOutPoolSizeCheck)
+ */
+@Component
+public class ScopedExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration timeout;
+
+    public ScopedExecutor(
+            @Value("${app.fan-out.threads:8}") int threads,
+            @Value("${app.fan-out.queue-size:200}") int queueSize,
+            @Value("${app.fan-out.timeout:3s}") Duration timeout) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fan-out-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Mở scope mới với deadline = bây giờ + timeout cấu hình
+     */
+    public Scope open() {
+        return new Scope(System.nanoTime() + timeout.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Phạm vi fan-out của một request, dùng trong try-with-resources
+     */
+    public class Scope implements AutoCloseable {
+
+        private final long deadline;
+
+        private final List<Future<?>> forks = new ArrayList<>();
+
+        private Scope(long deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Chạy việc con trên thread pool
+         * Pool quá tải thì hủy các việc con đã fork và báo lỗi cho request
+         */
+        public <T> Future<T> fork(Supplier<T> task) {
+            Future<T> future;
+            try {
+                future = executor.submit(task::get);
+            } catch (RejectedExecutionException e) {
+                close();
+                throw new RuntimeException("Hệ thống đang quá tải, vui lòng thử lại");
+            }
+            forks.add(future);
+            return future;
+        }
+
+        /**
+         * Chờ kết quả việc con trong thời gian còn lại của scope
+         * Lỗi của việc con được ném lại nguyên vẹn; hết thời gian thì hủy mọi việc con
+         */
+        public <T> T join(Future<T> future) {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                close();
+                throw new RuntimeException("Quá thời gian xử lý yêu cầu");
+            } catch (ExecutionException e) {
+                close();
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Yêu cầu bị gián đoạn");
+            }
+        }
+
+        /**
+         * Hủy các việc con chưa xong (kết quả không còn cần nữa)
+         * Việc còn trong hàng đợi sẽ không chạy; việc đang chạy không bị interrupt vì có thể
+         * đang ở giữa transaction read-only hoặc lệnh JDBC, nó chạy xong và kết quả bị bỏ đi
+         */
+        @Override
+        public void close() {
+            forks.forEach(future -> future.cancel(false));
+        }
+    }
+}
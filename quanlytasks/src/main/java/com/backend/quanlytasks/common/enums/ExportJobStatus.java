@@ -0,0 +1,11 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Trạng thái của một yêu cầu export bất đồng bộ
+ */
+public enum ExportJobStatus {
+    QUEUED, // Đang chờ worker
+    RUNNING, // Đang ghi file
+    DONE, // File đã sẵn sàng để tải
+    FAILED // Lỗi, xem error
+}
@@ -0,0 +1,10 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Chế độ phân trang cho danh sách task
+ */
+public enum PageMode {
+    OFFSET, // Phân trang theo số trang (page/size), có đếm tổng số bản ghi
+    CURSOR, // Phân trang keyset theo (createdAt, id), không đếm tổng
+    SLICE // Phân trang theo số trang nhưng không đếm tổng, chỉ trả hasNext
+}
@@ -1,7 +1,20 @@
 package com.backend.quanlytasks.common.enums;
 
 public enum Priority {
-    LOW,
-    MEDIUM,
-    HIGH
+    LOW(1),
+    MEDIUM(2),
+    HIGH(3);
+
+    private final int rank;
+
+    Priority(int rank) {
+        this.rank = rank;
+    }
+
+    /**
+     * Thứ tự nghiệp vụ dùng để sắp xếp (lưu vào cột tasks.priority_rank)
+     */
+    public int getRank() {
+        return rank;
+    }
 }
@@ -0,0 +1,9 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Chiều sắp xếp
+ */
+public enum SortDirection {
+    ASC, // Tăng dần
+    DESC // Giảm dần
+}
@@ -0,0 +1,9 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Cách kết hợp nhiều tag khi lọc danh sách task
+ */
+public enum TagMatchMode {
+    ANY, // Task có ít nhất một trong các tag
+    ALL // Task có đủ tất cả các tag
+}
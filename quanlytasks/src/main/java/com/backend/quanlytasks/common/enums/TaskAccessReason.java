@@ -0,0 +1,10 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Lý do một user được nhìn thấy task (bảng user_task_access)
+ */
+public enum TaskAccessReason {
+    CREATOR, // Người tạo task
+    ASSIGNEE, // Người được giao task
+    SUBTASK_ASSIGNEE // Người được giao ít nhất một subtask còn hoạt động
+}
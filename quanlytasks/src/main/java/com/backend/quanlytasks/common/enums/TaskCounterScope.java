@@ -0,0 +1,9 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Phạm vi của bộ đếm task theo status (bảng task_status_counters)
+ */
+public enum TaskCounterScope {
+    GLOBAL, // Tất cả task chưa xóa (thống kê của ADMIN), user_id = 0
+    USER // Task chưa xóa mà một user được xem (theo user_task_access)
+}
@@ -0,0 +1,26 @@
+package com.backend.quanlytasks.common.enums;
+
+/**
+ * Các trường được phép sắp xếp danh sách task (whitelist)
+ * Mỗi trường có index (cột, id) tương ứng trên bảng tasks
+ */
+public enum TaskSortField {
+    CREATED_AT("createdAt"), // Mặc định
+    DUE_DATE("dueDate"), // Task không có deadline được coi là nhỏ nhất
+    PRIORITY("priorityRank"), // Theo thứ tự nghiệp vụ LOW < MEDIUM < HIGH
+    UPDATED_AT("updatedAt"),
+    STATUS("status");
+
+    private final String property;
+
+    TaskSortField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Tên thuộc tính trên entity Task
+     */
+    public String getProperty() {
+        return property;
+    }
+}
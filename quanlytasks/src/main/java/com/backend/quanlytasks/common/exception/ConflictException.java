@@ -0,0 +1,11 @@
+package com.backend.quanlytasks.common.exception;
+
+/**
+ * Dữ liệu đã bị người khác thay đổi kể từ lần client đọc (trả về HTTP 409)
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
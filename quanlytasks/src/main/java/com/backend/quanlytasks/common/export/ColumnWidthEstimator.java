@@ -0,0 +1,116 @@
+package com.backend.quanlytasks.common.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Ước lượng độ rộng cột Excel theo số ký tự dài nhất của mỗi cột, đo ngay khi ghi từng dòng
+ * Thay cho autoSizeColumn (đo từng ô bằng font metrics của AWT, chậm hơn cả việc ghi dữ liệu
+ * với file lớn và cần font trên server): chỉ đếm ký tự, chỉ đo sampleRows dòng đầu
+ * Dùng được với SXSSF vì không cần đọc lại các dòng đã flush, độ rộng được set một lần khi ghi xong
+ */
+public class ColumnWidthEstimator {
+
+    /**
+     * Số ký tự thêm vào mỗi cột cho lề và font đậm của dòng tiêu đề
+     */
+    private static final int PADDING_CHARS = 2;
+
+    /**
+     * Giới hạn độ rộng để cột nội dung dài (mô tả, comment) không chiếm cả màn hình
+     * (Excel cho tối đa 255 ký tự)
+     */
+    private static final int MAX_WIDTH_CHARS = 100;
+
+    private final int[] maxLengths;
+
+    private final int sampleRows;
+
+    private int measuredRows;
+
+    /**
+     * @param headers    tên cột, dùng làm độ rộng tối thiểu
+     * @param sampleRows số dòng dữ liệu được đo, các dòng sau bỏ qua
+     */
+    public ColumnWidthEstimator(String[] headers, int sampleRows) {
+        this.maxLengths = new int[headers.length];
+        this.sampleRows = sampleRows;
+        for (int i = 0; i < headers.length; i++) {
+            maxLengths[i] = displayLength(headers[i]);
+        }
+    }
+
+    /**
+     * Đo các ô của một dòng vừa ghi (không làm gì khi đã đo đủ sampleRows dòng)
+     */
+    public void measure(Row row) {
+        if (measuredRows >= sampleRows) {
+            return;
+        }
+        measuredRows++;
+        for (Cell cell : row) {
+            int column = cell.getColumnIndex();
+            if (column < maxLengths.length) {
+                maxLengths[column] = Math.max(maxLengths[column], cellLength(cell));
+            }
+        }
+    }
+
+    /**
+     * Độ rộng ước lượng của cột, theo đơn vị 1/256 ký tự của Excel
+     */
+    public int width(int column) {
+        return Math.min(maxLengths[column] + PADDING_CHARS, MAX_WIDTH_CHARS) * 256;
+    }
+
+    /**
+     * Set độ rộng cho tất cả các cột của sheet
+     */
+    public void applyTo(Sheet sheet) {
+        for (int i = 0; i < maxLengths.length; i++) {
+            sheet.setColumnWidth(i, width(i));
+        }
+    }
+
+    private int cellLength(Cell cell) {
+        return switch (cell.getCellType()) {
+            case STRING -> displayLength(cell.getStringCellValue());
+            case NUMERIC -> numericLength(cell);
+            case BOOLEAN -> cell.getBooleanCellValue() ? 4 : 5;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Ô số có định dạng (ngày giờ) hiển thị đúng độ dài của mẫu định dạng, ô số thường theo số chữ số
+     */
+    private int numericLength(Cell cell) {
+        if (cell.getCellStyle().getDataFormat() != 0) {
+            return cell.getCellStyle().getDataFormatString().replace("\"", "").length();
+        }
+        double value = cell.getNumericCellValue();
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value).length()
+                : Double.toString(value).length();
+    }
+
+    /**
+     * Độ dài hiển thị của dòng dài nhất trong chuỗi: dấu kết hợp không chiếm chỗ, chữ CJK/Hangul chiếm 2
+     */
+    static int displayLength(String value) {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint == '\n') {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else if (Character.getType(codePoint) != Character.NON_SPACING_MARK && codePoint != '\r') {
+                current += Character.isIdeographic(codePoint) || (codePoint >= 0xAC00 && codePoint <= 0xD7A3) ? 2 : 1;
+            }
+        }
+        return Math.max(longest, current);
+    }
+}
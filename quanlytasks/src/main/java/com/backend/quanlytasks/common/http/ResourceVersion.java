@@ -0,0 +1,23 @@
+package com.backend.quanlytasks.common.http;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Validator cho HTTP conditional request (ETag / Last-Modified)
+ * Được tính từ timestamp trong DB, không cần dựng DTO đầy đủ
+ */
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+
+    /**
+     * Giá trị ETag (chưa có dấu ngoặc kép)
+     */
+    private final String etag;
+
+    /**
+     * Thời điểm sửa đổi cuối (epoch millis), -1 nếu không dùng Last-Modified
+     */
+    private final long lastModified;
+}
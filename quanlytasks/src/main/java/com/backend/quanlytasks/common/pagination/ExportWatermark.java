@@ -0,0 +1,40 @@
+package com.backend.quanlytasks.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Mốc của export thay đổi (delta): các task có updatedAt từ mốc này trở đi chưa được export
+ * Mỗi lần export delta lấy nửa khoảng [mốc cũ, mốc mới) nên không bỏ sót và không trùng dòng
+ * Client chỉ nhận chuỗi Base64 mờ (opaque), gửi lại nguyên văn ở lần export sau
+ */
+@Getter
+@AllArgsConstructor
+public class ExportWatermark {
+
+    private final LocalDateTime updatedAt;
+
+    /**
+     * Mã hóa watermark thành chuỗi an toàn cho URL
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(updatedAt.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã watermark từ chuỗi client gửi lên
+     */
+    public static ExportWatermark decode(String watermark) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            return new ExportWatermark(LocalDateTime.parse(raw));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Watermark không hợp lệ");
+        }
+    }
+}
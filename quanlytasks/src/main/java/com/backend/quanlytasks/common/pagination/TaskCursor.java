@@ -0,0 +1,84 @@
+package com.backend.quanlytasks.common.pagination;
+
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TaskSortField;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor cho phân trang keyset của danh sách task
+ * Lưu cách sắp xếp và vị trí của bản ghi cuối cùng trên trang trước: (giá trị trường sắp xếp, id)
+ * Client chỉ nhận chuỗi Base64 mờ (opaque), không cần biết cấu trúc bên trong
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final TaskSortField sort;
+
+    private final SortDirection direction;
+
+    /**
+     * Giá trị trường sắp xếp của bản ghi cuối: LocalDateTime, Integer (priority rank) hoặc TaskStatus
+     * Có thể null (ví dụ task không có dueDate)
+     */
+    private final Comparable<?> value;
+
+    private final Long id;
+
+    /**
+     * Mã hóa cursor thành chuỗi an toàn cho URL
+     */
+    public String encode() {
+        String raw = sort + SEPARATOR + direction + SEPARATOR
+                + (value != null ? valueToString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã cursor từ chuỗi client gửi lên
+     * Trả về null nếu cursor rỗng (trang đầu tiên)
+     */
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length == 2) {
+                // Cursor cũ dạng (createdAt, id)
+                return new TaskCursor(TaskSortField.CREATED_AT, SortDirection.DESC,
+                        LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            }
+            TaskSortField sort = TaskSortField.valueOf(parts[0]);
+            return new TaskCursor(
+                    sort,
+                    SortDirection.valueOf(parts[1]),
+                    parts[2].isEmpty() ? null : parseValue(sort, parts[2]),
+                    Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor không hợp lệ");
+        }
+    }
+
+    private String valueToString() {
+        return value instanceof TaskStatus status ? status.name() : value.toString();
+    }
+
+    private static Comparable<?> parseValue(TaskSortField sort, String value) {
+        return switch (sort) {
+            case CREATED_AT, DUE_DATE, UPDATED_AT -> LocalDateTime.parse(value);
+            case PRIORITY -> Integer.valueOf(value);
+            case STATUS -> TaskStatus.valueOf(value);
+        };
+    }
+}
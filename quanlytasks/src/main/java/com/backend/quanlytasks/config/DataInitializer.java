@@ -3,6 +3,7 @@ package com.backend.quanlytasks.config;
 import com.backend.quanlytasks.common.enums.RoleName;
 import com.backend.quanlytasks.entity.Role;
 import com.backend.quanlytasks.repository.RoleRepository;
+import com.backend.quanlytasks.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class DataInitializer implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
+    private final TaskRepository taskRepository;
 
     @Override
     public void run(String... args) {
@@ -19,5 +21,10 @@ public class DataInitializer implements CommandLineRunner {
             roleRepository.save(Role.builder().name(RoleName.USER).build());
             roleRepository.save(Role.builder().name(RoleName.ADMIN).build());
         }
+
+        // Task cũ chưa có priority_rank (dùng để sắp xếp theo priority)
+        taskRepository.backfillPriorityRank();
+        // Task cũ chưa có version (optimistic locking, khóa cache chi tiết task)
+        taskRepository.backfillVersion();
     }
 }
@@ -0,0 +1,32 @@
+package com.backend.quanlytasks.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cảnh báo khi thread pool fan-out có thể chiếm hết connection pool
+ * Một request chi tiết task giữ tới 4 connection cùng lúc: 1 trên thread của request (open-in-view)
+ * và 3 trên pool fan-out (subtasks, comments, history); toàn bộ fan-out giữ tối đa app.fan-out.threads connection
+ */
+@Component
+@Slf4j
+public class FanOutPoolSizeCheck {
+
+    @Value("${app.fan-out.threads:8}")
+    private int fanOutThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maxPoolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (fanOutThreads >= maxPoolSize) {
+            log.warn("app.fan-out.threads ({}) không nhỏ hơn spring.datasource.hikari.maximum-pool-size ({}): "
+                    + "chi tiết task có thể chiếm hết connection, các request khác phải chờ tới timeout",
+                    fanOutThreads, maxPoolSize);
+        }
+    }
+}
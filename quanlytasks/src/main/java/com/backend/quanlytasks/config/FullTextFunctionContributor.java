@@ -0,0 +1,22 @@
+package com.backend.quanlytasks.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Đăng ký hàm match_against cho HQL/Criteria
+ * match_against(col1, col2, query) -> MATCH(col1, col2) AGAINST(query IN BOOLEAN MODE)
+ * Được nạp qua META-INF/services/org.hibernate.boot.model.FunctionContributor
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                "match_against",
+                "match(?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
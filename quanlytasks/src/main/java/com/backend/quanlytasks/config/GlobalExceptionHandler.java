@@ -1,6 +1,8 @@
 package com.backend.quanlytasks.config;
 
+import com.backend.quanlytasks.common.exception.ConflictException;
 import com.backend.quanlytasks.dto.response.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +13,19 @@ import java.time.LocalDateTime;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(ConflictException ex) {
+        return conflict(ex.getMessage());
+    }
+
+    /**
+     * Ghi đè entity có @Version trong lúc người khác vừa cập nhật
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return conflict("Dữ liệu đã được người khác cập nhật, vui lòng tải lại");
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
 
@@ -22,4 +37,14 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.badRequest().body(error);
     }
+
+    private ResponseEntity<ErrorResponse> conflict(String message) {
+        ErrorResponse error = ErrorResponse.builder()
+                .message(message)
+                .status(HttpStatus.CONFLICT.value())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
 }
@@ -0,0 +1,24 @@
+package com.backend.quanlytasks.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Bật Hibernate second-level cache (JCache + Caffeine) cho User, Role, Tag
+ * Thuộc tính nằm trong hibernate-cache.properties để không phụ thuộc application.properties của từng máy
+ */
+@Configuration
+@PropertySource("classpath:hibernate-cache.properties")
+public class HibernateCacheConfig {
+
+    /**
+     * Tên các region, khớp với application.conf
+     */
+    public static final String USERS = "users";
+    public static final String USERS_NATURAL_ID = "users-natural-id";
+    public static final String USER_ROLES = "user-roles";
+    public static final String ROLES = "roles";
+    public static final String ROLES_NATURAL_ID = "roles-natural-id";
+    public static final String TAGS = "tags";
+    public static final String TAGS_NATURAL_ID = "tags-natural-id";
+}
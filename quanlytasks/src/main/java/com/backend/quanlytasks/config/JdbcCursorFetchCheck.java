@@ -0,0 +1,28 @@
+package com.backend.quanlytasks.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cảnh báo khi JDBC URL MySQL thiếu useCursorFetch=true
+ * Export task và job tổng hợp báo cáo đọc dạng stream với fetch size cố định; thiếu tham số này
+ * Connector/J bỏ qua fetch size và nạp toàn bộ kết quả vào heap
+ */
+@Component
+@Slf4j
+public class JdbcCursorFetchCheck {
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (datasourceUrl.startsWith("jdbc:mysql:") && !datasourceUrl.contains("useCursorFetch=true")) {
+            log.warn("JDBC URL thiếu useCursorFetch=true: export task và job báo cáo sẽ nạp toàn bộ kết quả "
+                    + "query vào bộ nhớ thay vì đọc theo từng phần");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.backend.quanlytasks.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,6 +38,10 @@ public class SecurityConfig {
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(auth -> auth
+                                                // Dispatch ASYNC chỉ hoàn tất response đã được xác thực ở
+                                                // request gốc (export ghi bằng StreamingResponseBody);
+                                                // JWT filter không chạy lại nên phải cho qua
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 .requestMatchers(
                                                                 "/api/auth/register",
                                                                 "/api/auth/login",
@@ -0,0 +1,85 @@
+package com.backend.quanlytasks.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Chuẩn bị index tìm kiếm full-text khi ứng dụng start (chỉ với MySQL)
+ * - Tạo FULLTEXT index (parser ngram, phù hợp từ ngắn tiếng Việt) nếu chưa có
+ * - Backfill task_search_index cho các task cũ theo từng khoảng ID
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSearchIndexInitializer {
+
+    private static final String FULLTEXT_INDEX = "ft_task_search";
+    private static final long BATCH_SIZE = 10_000;
+
+    /**
+     * INSERT IGNORE: backfill chạy khi server đã nhận request, task tạo trong lúc đó
+     * có thể được indexTask thêm giữa NOT EXISTS và INSERT
+     */
+    private static final String BACKFILL_SQL = "INSERT IGNORE INTO task_search_index (task_id, task_text, comment_text, updated_at) "
+            + "SELECT t.id, CONCAT_WS(' ', t.title, t.description), "
+            + "(SELECT GROUP_CONCAT(c.content ORDER BY c.created_at SEPARATOR ' ') FROM comments c WHERE c.task_id = t.id), "
+            + "NOW() FROM tasks t WHERE t.id > ? AND t.id <= ? "
+            + "AND NOT EXISTS (SELECT 1 FROM task_search_index s WHERE s.task_id = t.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(database)) {
+            log.warn("Tìm kiếm full-text chỉ hỗ trợ MySQL, bỏ qua khởi tạo index ({})", database);
+            return;
+        }
+
+        createFullTextIndexIfMissing();
+        int inserted = backfill();
+        log.info("Index tìm kiếm task sẵn sàng, backfill {} task", inserted);
+    }
+
+    private void createFullTextIndexIfMissing() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() " +
+                        "AND table_name = 'task_search_index' AND index_name = ?",
+                Integer.class, FULLTEXT_INDEX);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("ALTER TABLE task_search_index ADD FULLTEXT INDEX " + FULLTEXT_INDEX +
+                    " (task_text, comment_text) WITH PARSER ngram");
+            log.info("Đã tạo FULLTEXT index {}", FULLTEXT_INDEX);
+        }
+    }
+
+    /**
+     * Backfill trên cùng một connection để giữ group_concat_max_len của session
+     */
+    private int backfill() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION group_concat_max_len = 16777216");
+            }
+            int inserted = 0;
+            try (PreparedStatement statement = connection.prepareStatement(BACKFILL_SQL)) {
+                for (long from = 0; from < maxId; from += BATCH_SIZE) {
+                    statement.setLong(1, from);
+                    statement.setLong(2, from + BATCH_SIZE);
+                    inserted += statement.executeUpdate();
+                }
+            }
+            return inserted;
+        });
+    }
+}
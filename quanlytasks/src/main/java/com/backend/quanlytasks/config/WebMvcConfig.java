@@ -0,0 +1,27 @@
+package com.backend.quanlytasks.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Cấu hình Spring MVC
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Thời gian tối đa của request bất đồng bộ (export ghi dần bằng StreamingResponseBody)
+     * Mặc định của servlet container (30 giây với Tomcat) quá ngắn cho export lớn
+     */
+    @Value("${app.export.request-timeout:30m}")
+    private Duration exportRequestTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(exportRequestTimeout.toMillis());
+    }
+}
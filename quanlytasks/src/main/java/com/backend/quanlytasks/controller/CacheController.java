@@ -0,0 +1,31 @@
+package com.backend.quanlytasks.controller;
+
+import com.backend.quanlytasks.dto.response.Cache.CacheStatsResponse;
+import com.backend.quanlytasks.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * API quản trị cache
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    /**
+     * Xem thống kê hit/miss của second-level cache (User, Role, Tag)
+     * Chỉ ADMIN
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsResponse> getStats() {
+        return ResponseEntity.ok(cacheStatsService.getStats());
+    }
+}
@@ -0,0 +1,94 @@
+package com.backend.quanlytasks.controller;
+
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.dto.response.Export.ExportJobResponse;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.UserRepository;
+import com.backend.quanlytasks.service.ExportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller export bất đồng bộ: tạo yêu cầu, xem tiến độ, tải file khi xong
+ * Dùng cho export lớn thay vì GET /api/tasks/export (giữ request và connection DB suốt lúc ghi)
+ */
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportJobService exportJobService;
+    private final UserRepository userRepository;
+
+    /**
+     * Tạo yêu cầu export, trả về ngay với status QUEUED
+     * Nhận cùng các filter với danh sách task, kèm format (XLSX, CSV, NDJSON), gzip
+     * và includeSubtasks/includeComments/includeHistory
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<ExportJobResponse> submit(@ModelAttribute TaskExportRequest request,
+            Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        return ResponseEntity.accepted().body(exportJobService.submit(request, currentUser, isAdmin(authentication)));
+    }
+
+    /**
+     * Trạng thái và tiến độ (số task đã ghi) của yêu cầu export
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<ExportJobResponse> getJob(@PathVariable String id, Authentication authentication) {
+        return ResponseEntity.ok(exportJobService.getJob(id, getCurrentUser(authentication)));
+    }
+
+    /**
+     * Tải file của yêu cầu export đã xong
+     * Hỗ trợ header Range (tải tiếp khi bị ngắt): Spring trả 206 với phần file được yêu cầu,
+     * nội dung được đọc thẳng từ file theo buffer cố định, không nạp cả file vào heap
+     */
+    @GetMapping("/{id}/file")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<Resource> download(@PathVariable String id, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        Resource file = exportJobService.getArtifact(id, currentUser);
+        ExportJobResponse job = exportJobService.getJob(id, currentUser);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(job.getFileName())
+                        .build().toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(file);
+    }
+
+    /**
+     * Helper: Lấy user hiện tại từ authentication
+     */
+    private User getCurrentUser(Authentication authentication) {
+        String email = authentication.getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy user"));
+    }
+
+    /**
+     * Helper: Kiểm tra user có phải ADMIN không
+     */
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities()
+                .contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.backend.quanlytasks.controller;
+
+import com.backend.quanlytasks.dto.response.Report.CycleTimeReportResponse;
+import com.backend.quanlytasks.dto.response.Report.OverdueReportResponse;
+import com.backend.quanlytasks.dto.response.Report.ThroughputReportResponse;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.UserRepository;
+import com.backend.quanlytasks.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller báo cáo cycle time, throughput, task quá hạn
+ * Đọc từ bảng rollup do TaskReportRollupJob tổng hợp, không quét task_history theo request
+ * ADMIN xem số liệu của tất cả người được giao, USER chỉ xem của mình
+ */
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final ReportService reportService;
+    private final UserRepository userRepository;
+
+    /**
+     * Cycle time trung bình (tạo task → DONE) theo người được giao
+     */
+    @GetMapping("/cycle-time")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<CycleTimeReportResponse>> getCycleTime(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+
+        User currentUser = getCurrentUser(authentication);
+        return ResponseEntity.ok(reportService.getCycleTime(from, to, currentUser, isAdmin(authentication)));
+    }
+
+    /**
+     * Số task hoàn thành theo tuần
+     */
+    @GetMapping("/throughput")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<ThroughputReportResponse>> getThroughput(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+
+        User currentUser = getCurrentUser(authentication);
+        return ResponseEntity.ok(reportService.getThroughput(from, to, currentUser, isAdmin(authentication)));
+    }
+
+    /**
+     * Số task quá hạn theo ngày
+     */
+    @GetMapping("/overdue")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<OverdueReportResponse>> getOverdue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+
+        User currentUser = getCurrentUser(authentication);
+        return ResponseEntity.ok(reportService.getOverdue(from, to, currentUser, isAdmin(authentication)));
+    }
+
+    /**
+     * Helper: Lấy user hiện tại từ authentication
+     */
+    private User getCurrentUser(Authentication authentication) {
+        String email = authentication.getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy user"));
+    }
+
+    /**
+     * Helper: Kiểm tra user có phải ADMIN không
+     */
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities()
+                .contains(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    }
+}
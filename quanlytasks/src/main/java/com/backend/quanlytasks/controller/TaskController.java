@@ -1,22 +1,30 @@
 package com.backend.quanlytasks.controller;
 
+import com.backend.quanlytasks.common.pagination.ExportWatermark;
 import com.backend.quanlytasks.common.enums.RoleName;
+import com.backend.quanlytasks.common.http.ResourceVersion;
 import com.backend.quanlytasks.dto.request.Task.*;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskStatsResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
 import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.User;
 import com.backend.quanlytasks.repository.UserRepository;
-import com.backend.quanlytasks.service.TaskHistoryService;
+import com.backend.quanlytasks.service.TaskExportService;
 import com.backend.quanlytasks.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -29,8 +37,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskController {
 
+    /**
+     * Client được lưu response nhưng phải hỏi lại server (kèm ETag) trước khi dùng
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TaskService taskService;
-    private final TaskHistoryService taskHistoryService;
+    private final TaskExportService taskExportService;
     private final UserRepository userRepository;
 
     /**
@@ -89,12 +102,21 @@ public class TaskController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<TaskListResponse> getTaskList(
             @ModelAttribute TaskFilterRequest filter,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
 
         User currentUser = getCurrentUser(authentication);
         boolean isAdmin = isAdmin(authentication);
+
+        // Trang lấy từ TaskListCache nếu có; ETag tính từ chính trang đó
+        // 304 nếu client gửi If-None-Match khớp: không trả body
         TaskListResponse response = taskService.getTaskList(filter, currentUser, isAdmin);
-        return ResponseEntity.ok(response);
+        ResourceVersion version = taskService.getTaskListVersion(response);
+        if (webRequest.checkNotModified(version.getEtag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
     }
 
     /**
@@ -105,12 +127,20 @@ public class TaskController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<TaskDetailResponse> getTaskDetail(
             @PathVariable Long id,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
 
         User currentUser = getCurrentUser(authentication);
         boolean isAdmin = isAdmin(authentication);
+
+        // Kiểm tra quyền xem nằm trong getTaskDetailVersion, trước khi có thể trả 304
+        ResourceVersion version = taskService.getTaskDetailVersion(id, currentUser, isAdmin);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
+
         TaskDetailResponse response = taskService.getTaskDetail(id, currentUser, isAdmin);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
     }
 
     /**
@@ -147,40 +177,94 @@ public class TaskController {
     }
 
     /**
-     * API #17: Xem lịch sử task
-     * ADMIN và USER đều có thể xem
+     * Xem comments của task theo trang, từ mới đến cũ (phân trang keyset)
+     * Không có cursor: trang mới nhất; tiếp tục bằng nextCursor của trang trước
      */
-    @GetMapping("/{id}/history")
+    @GetMapping("/{id}/comments")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<CommentListResponse> getTaskComments(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+
+        User currentUser = getCurrentUser(authentication);
+        boolean isAdmin = isAdmin(authentication);
+        return ResponseEntity.ok(taskService.getTaskComments(id, cursor, size, currentUser, isAdmin));
+    }
+
+    /**
+     * API #17: Xem lịch sử task (toàn bộ, dạng mảng như trước khi có phân trang)
+     * Dùng khi request không có cursor và size
+     * ADMIN và USER đều có thể xem (USER chỉ xem được task của mình)
+     */
+    @GetMapping(value = "/{id}/history", params = { "!cursor", "!size" })
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<List<TaskHistoryResponse>> getTaskHistory(
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            Authentication authentication) {
 
-        List<TaskHistoryResponse> history = taskHistoryService.getTaskHistory(id);
-        return ResponseEntity.ok(history);
+        User currentUser = getCurrentUser(authentication);
+        boolean isAdmin = isAdmin(authentication);
+        return ResponseEntity.ok(taskService.getTaskHistory(id, currentUser, isAdmin));
     }
 
     /**
-     * API #18: Xuất danh sách task ra file Excel
-     * ADMIN xuất tất cả task, USER xuất task của mình
+     * API #17: Xem lịch sử task theo trang, từ mới đến cũ (phân trang keyset)
+     * Dùng khi request có cursor hoặc size
+     * ADMIN và USER đều có thể xem (USER chỉ xem được task của mình)
      */
-    @GetMapping("/export")
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<TaskHistoryListResponse> getTaskHistoryPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+
+        User currentUser = getCurrentUser(authentication);
+        boolean isAdmin = isAdmin(authentication);
+        return ResponseEntity.ok(taskService.getTaskHistory(id, cursor, size, currentUser, isAdmin));
+    }
+
+    /**
+     * Thống kê số task theo trạng thái (dashboard)
+     * ADMIN: tất cả task chưa xóa, USER: task mình được xem
+     */
+    @GetMapping("/stats")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    public ResponseEntity<byte[]> exportTasksToExcel(Authentication authentication) {
+    public ResponseEntity<TaskStatsResponse> getTaskStats(Authentication authentication) {
         User currentUser = getCurrentUser(authentication);
         boolean isAdmin = isAdmin(authentication);
+        return ResponseEntity.ok(taskService.getTaskStats(currentUser, isAdmin));
+    }
 
-        byte[] excelData = taskService.exportTasksToExcel(currentUser, isAdmin);
+    /**
+     * API #18: Xuất danh sách task ra file Excel, CSV hoặc NDJSON (format), có thể nén gzip
+     * Nhận cùng các filter với danh sách task, kèm includeSubtasks/includeComments/includeHistory (chỉ Excel)
+     * File được ghi thẳng vào response (không biết trước Content-Length)
+     * Export delta (updatedSince/watermark) trả watermark cho lần sau trong header X-Export-Watermark
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@ModelAttribute TaskExportRequest request,
+            Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        boolean isAdmin = isAdmin(authentication);
+        // Kiểm tra và chốt mốc delta trước khi bắt đầu ghi (lỗi vẫn trả được 400)
+        ExportWatermark changedBefore = taskExportService.resolveWatermark(request, isAdmin);
 
-        String filename = "tasks_report_" + java.time.LocalDate.now().format(
-                java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+        StreamingResponseBody body = out -> taskExportService.exportTasks(request, currentUser, isAdmin,
+                changedBefore, out);
 
         org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-        headers.setContentType(org.springframework.http.MediaType.parseMediaType(
-                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-        headers.setContentDispositionFormData("attachment", filename);
-        headers.setContentLength(excelData.length);
+        if (changedBefore != null) {
+            headers.set("X-Export-Watermark", changedBefore.encode());
+        }
+        headers.setContentType(org.springframework.http.MediaType.parseMediaType(request.contentType()));
+        headers.setContentDispositionFormData("attachment", request.fileName(java.time.LocalDate.now()));
 
-        return new ResponseEntity<>(excelData, headers, org.springframework.http.HttpStatus.OK);
+        return new ResponseEntity<>(body, headers, org.springframework.http.HttpStatus.OK);
     }
 
     /**
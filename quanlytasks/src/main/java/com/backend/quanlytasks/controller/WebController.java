@@ -1,14 +1,22 @@
 package com.backend.quanlytasks.controller;
 
+import com.backend.quanlytasks.common.enums.PageMode;
 import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TagMatchMode;
+import com.backend.quanlytasks.common.enums.TaskSortField;
 import com.backend.quanlytasks.common.enums.TaskStatus;
 import com.backend.quanlytasks.dto.request.Task.CreateTaskRequest;
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
 import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
 import com.backend.quanlytasks.dto.request.Task.UpdateTaskRequest;
 import com.backend.quanlytasks.dto.request.Task.UpdateTaskStatusRequest;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Notification.NotificationListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskStatsResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
 import com.backend.quanlytasks.entity.Tag;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
@@ -18,6 +26,7 @@ import com.backend.quanlytasks.repository.UserRepository;
 import com.backend.quanlytasks.service.CommentService;
 import com.backend.quanlytasks.service.NotificationService;
 import com.backend.quanlytasks.service.SubTaskService;
+import com.backend.quanlytasks.service.TaskExportService;
 import com.backend.quanlytasks.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -25,11 +34,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -42,6 +51,7 @@ import java.util.stream.Collectors;
 public class WebController {
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
     private final TaskRepository taskRepository;
     private final NotificationService notificationService;
     private final CommentService commentService;
@@ -92,13 +102,19 @@ public class WebController {
     }
 
     @GetMapping("/tasks")
-    public String taskList(@RequestParam(required = false) String status,
+    public String taskList(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
             @RequestParam(required = false) String priority,
-            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) String tagMode,
             @RequestParam(required = false) String dueDateFrom,
             @RequestParam(required = false) String dueDateTo,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "8") int size,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
             Model model,
             Authentication authentication) {
         User currentUser = getCurrentUser(authentication);
@@ -108,27 +124,19 @@ public class WebController {
         TaskFilterRequest filter = new TaskFilterRequest();
         filter.setPage(page);
         filter.setSize(size);
-        if (status != null && !status.isEmpty()) {
-            filter.setStatus(TaskStatus.valueOf(status));
+        if (mode != null && !mode.isEmpty()) {
+            filter.setMode(PageMode.valueOf(mode));
         }
-        if (priority != null && !priority.isEmpty()) {
-            filter.setPriority(Priority.valueOf(priority));
-        }
-        if (tag != null && !tag.isEmpty()) {
-            filter.setTags(java.util.Arrays.asList(tag));
-        }
-        if (dueDateFrom != null && !dueDateFrom.isEmpty()) {
-            filter.setDueDateFrom(LocalDateTime.parse(dueDateFrom + "T00:00:00"));
-        }
-        if (dueDateTo != null && !dueDateTo.isEmpty()) {
-            filter.setDueDateTo(LocalDateTime.parse(dueDateTo + "T23:59:59"));
+        if (cursor != null && !cursor.isEmpty()) {
+            filter.setCursor(cursor);
         }
+        applyFilter(filter, q, status, priority, tag, tagMode, dueDateFrom, dueDateTo, sort, direction);
 
         // Get tasks
         TaskListResponse tasks = taskService.getTaskList(filter, currentUser, isAdmin);
 
-        // Calculate stats
-        Map<String, Long> stats = calculateStats(currentUser, isAdmin);
+        // Calculate stats (1 query GROUP BY status)
+        TaskStatsResponse stats = taskService.getTaskStats(currentUser, isAdmin);
 
         // Get unread notifications count
         NotificationListResponse notifResponse = notificationService.getNotifications(currentUser, 0, 1);
@@ -171,6 +179,28 @@ public class WebController {
         return "task/detail";
     }
 
+    /**
+     * Nạp thêm comments cũ hơn cho trang chi tiết (gọi bằng fetch, trả JSON)
+     */
+    @GetMapping("/tasks/{id}/comments")
+    @ResponseBody
+    public CommentListResponse taskComments(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication) {
+        return taskService.getTaskComments(id, cursor, null, getCurrentUser(authentication), isAdmin(authentication));
+    }
+
+    /**
+     * Nạp thêm lịch sử cũ hơn cho trang chi tiết (gọi bằng fetch, trả JSON)
+     */
+    @GetMapping("/tasks/{id}/history")
+    @ResponseBody
+    public TaskHistoryListResponse taskHistory(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            Authentication authentication) {
+        return taskService.getTaskHistory(id, cursor, null, getCurrentUser(authentication), isAdmin(authentication));
+    }
+
     @GetMapping("/tasks/new")
     public String newTaskForm(Model model) {
         model.addAttribute("task", null);
@@ -322,12 +352,15 @@ public class WebController {
     @PostMapping("/tasks/{id}/status")
     public String updateTaskStatus(@PathVariable Long id,
             @RequestParam String status,
+            @RequestParam String expectedStatus,
             Authentication authentication) {
         User currentUser = getCurrentUser(authentication);
         boolean isAdmin = isAdmin(authentication);
 
         UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
         request.setStatus(TaskStatus.valueOf(status));
+        // Trạng thái hiển thị trên trang lúc người dùng chọn, để phát hiện thay đổi đồng thời
+        request.setExpectedStatus(TaskStatus.valueOf(expectedStatus));
 
         taskService.updateTaskStatus(id, request, currentUser, isAdmin);
 
@@ -495,20 +528,41 @@ public class WebController {
 
     // ================ EXPORT ================
 
+    /**
+     * Xuất Excel theo bộ lọc đang áp dụng trên trang danh sách
+     */
     @GetMapping("/tasks/export")
-    public org.springframework.http.ResponseEntity<byte[]> exportTasksToExcel(Authentication authentication) {
+    public org.springframework.http.ResponseEntity<StreamingResponseBody> exportTasksToExcel(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) String tagMode,
+            @RequestParam(required = false) String dueDateFrom,
+            @RequestParam(required = false) String dueDateTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = "false") boolean includeSubtasks,
+            @RequestParam(defaultValue = "false") boolean includeComments,
+            @RequestParam(defaultValue = "false") boolean includeHistory,
+            Authentication authentication) {
         User currentUser = getCurrentUser(authentication);
         boolean isAdmin = isAdmin(authentication);
 
-        byte[] excelData = taskService.exportTasksToExcel(currentUser, isAdmin);
+        TaskExportRequest request = new TaskExportRequest();
+        applyFilter(request, q, status, priority, tag, tagMode, dueDateFrom, dueDateTo, sort, direction);
+        request.setIncludeSubtasks(includeSubtasks);
+        request.setIncludeComments(includeComments);
+        request.setIncludeHistory(includeHistory);
+
+        StreamingResponseBody body = out -> taskExportService.exportTasks(request, currentUser, isAdmin, out);
 
         org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
         headers.setContentType(org.springframework.http.MediaType.parseMediaType(
                 "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
         headers.setContentDispositionFormData("attachment", "tasks_report.xlsx");
-        headers.setContentLength(excelData.length);
 
-        return new org.springframework.http.ResponseEntity<>(excelData, headers,
+        return new org.springframework.http.ResponseEntity<>(body, headers,
                 org.springframework.http.HttpStatus.OK);
     }
 
@@ -535,6 +589,41 @@ public class WebController {
 
     // ================ HELPERS ================
 
+    /**
+     * Helper: Đọc các tham số lọc của trang danh sách (chuỗi rỗng coi như không lọc)
+     */
+    private void applyFilter(TaskFilterRequest filter, String q, String status, String priority,
+            List<String> tag, String tagMode, String dueDateFrom, String dueDateTo,
+            String sort, String direction) {
+        if (sort != null && !sort.isEmpty()) {
+            filter.setSort(TaskSortField.valueOf(sort));
+        }
+        if (direction != null && !direction.isEmpty()) {
+            filter.setDirection(SortDirection.valueOf(direction));
+        }
+        if (q != null && !q.isBlank()) {
+            filter.setQ(q.trim());
+        }
+        if (status != null && !status.isEmpty()) {
+            filter.setStatus(TaskStatus.valueOf(status));
+        }
+        if (priority != null && !priority.isEmpty()) {
+            filter.setPriority(Priority.valueOf(priority));
+        }
+        if (tag != null && !tag.isEmpty()) {
+            filter.setTags(tag);
+        }
+        if (tagMode != null && !tagMode.isEmpty()) {
+            filter.setTagMode(TagMatchMode.valueOf(tagMode));
+        }
+        if (dueDateFrom != null && !dueDateFrom.isEmpty()) {
+            filter.setDueDateFrom(LocalDateTime.parse(dueDateFrom + "T00:00:00"));
+        }
+        if (dueDateTo != null && !dueDateTo.isEmpty()) {
+            filter.setDueDateTo(LocalDateTime.parse(dueDateTo + "T23:59:59"));
+        }
+    }
+
     private User getCurrentUser(Authentication authentication) {
         String email = authentication.getName();
         return userRepository.findByEmail(email)
@@ -546,27 +635,6 @@ public class WebController {
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
     }
 
-    private Map<String, Long> calculateStats(User currentUser, boolean isAdmin) {
-        Map<String, Long> stats = new HashMap<>();
-
-        if (isAdmin) {
-            // Admin sees all tasks
-            stats.put("todo", taskRepository.countByStatusAndIsDelete(TaskStatus.TODO, 0));
-            stats.put("inProgress", taskRepository.countByStatusAndIsDelete(TaskStatus.IN_PROGRESS, 0));
-            stats.put("done", taskRepository.countByStatusAndIsDelete(TaskStatus.DONE, 0));
-            stats.put("cancelled", taskRepository.countByStatusAndIsDelete(TaskStatus.CANCELLED, 0));
-        } else {
-            // User sees only their own tasks (created, assigned, or subtask assigned)
-            Long userId = currentUser.getId();
-            stats.put("todo", taskRepository.countByStatusForUser(TaskStatus.TODO, userId));
-            stats.put("inProgress", taskRepository.countByStatusForUser(TaskStatus.IN_PROGRESS, userId));
-            stats.put("done", taskRepository.countByStatusForUser(TaskStatus.DONE, userId));
-            stats.put("cancelled", taskRepository.countByStatusForUser(TaskStatus.CANCELLED, userId));
-        }
-
-        return stats;
-    }
-
     /**
      * Wrapper class to make TaskListResponse work with Thymeleaf pagination
      */
@@ -577,14 +645,22 @@ public class WebController {
         private final long totalElements;
         private final boolean first;
         private final boolean last;
+        private final boolean cursorMode;
+        private final boolean sliceMode;
+        private final String nextCursor;
 
         public PageWrapper(TaskListResponse response) {
             this.content = response.getTasks();
-            this.number = response.getCurrentPage();
-            this.totalPages = response.getTotalPages();
-            this.totalElements = response.getTotalElements();
+            // Mode CURSOR không có số trang và tổng số bản ghi
+            this.cursorMode = response.getCurrentPage() == null;
+            // Mode SLICE có số trang nhưng không có tổng
+            this.sliceMode = !cursorMode && response.getTotalPages() == null;
+            this.number = cursorMode ? 0 : response.getCurrentPage();
+            this.totalPages = cursorMode || sliceMode ? 0 : response.getTotalPages();
+            this.totalElements = cursorMode || sliceMode ? 0 : response.getTotalElements();
             this.first = !response.getHasPrevious();
             this.last = !response.getHasNext();
+            this.nextCursor = response.getNextCursor();
         }
 
         public PageWrapper(NotificationListResponse response) {
@@ -594,6 +670,9 @@ public class WebController {
             this.totalElements = response.getTotalElements();
             this.first = !response.getHasPrevious();
             this.last = !response.getHasNext();
+            this.cursorMode = false;
+            this.sliceMode = false;
+            this.nextCursor = null;
         }
 
         public Object getContent() {
@@ -619,5 +698,17 @@ public class WebController {
         public boolean isLast() {
             return last;
         }
+
+        public boolean isCursorMode() {
+            return cursorMode;
+        }
+
+        public boolean isSliceMode() {
+            return sliceMode;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
     }
 }
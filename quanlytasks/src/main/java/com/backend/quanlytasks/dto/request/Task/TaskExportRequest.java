@@ -0,0 +1,93 @@
+package com.backend.quanlytasks.dto.request.Task;
+
+import com.backend.quanlytasks.common.enums.ExportFormat;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * DTO cho request xuất task ra file
+ * Dùng chung các filter của danh sách task (bỏ qua phân trang), kèm định dạng file và lựa chọn các sheet dữ liệu con
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TaskExportRequest extends TaskFilterRequest {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * Định dạng file, mặc định XLSX
+     */
+    private ExportFormat format = ExportFormat.XLSX;
+
+    /**
+     * Nén gzip (chỉ áp dụng cho CSV, NDJSON; file XLSX vốn đã nén)
+     */
+    private boolean gzip;
+
+    /**
+     * Export delta: chỉ task có updatedAt từ thời điểm này, kèm tombstone cho task đã xóa mềm
+     * Bỏ qua filter, chỉ ADMIN và chỉ CSV/NDJSON
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedSince;
+
+    /**
+     * Export delta tiếp từ watermark của lần export trước (ưu tiên hơn updatedSince)
+     */
+    private String watermark;
+
+    /**
+     * Thêm sheet Subtasks (chỉ XLSX)
+     */
+    private boolean includeSubtasks;
+
+    /**
+     * Thêm sheet Comments (chỉ XLSX)
+     */
+    private boolean includeComments;
+
+    /**
+     * Thêm sheet History - lịch sử thay đổi (chỉ XLSX)
+     */
+    private boolean includeHistory;
+
+    /**
+     * Định dạng file, XLSX nếu client gửi tham số rỗng
+     */
+    public ExportFormat getFormat() {
+        return format != null ? format : ExportFormat.XLSX;
+    }
+
+    /**
+     * Có phải export delta (chỉ task thay đổi) không
+     */
+    public boolean isDelta() {
+        return updatedSince != null || (watermark != null && !watermark.isBlank());
+    }
+
+    /**
+     * File có được nén gzip không
+     */
+    public boolean isCompressed() {
+        return gzip && getFormat() != ExportFormat.XLSX;
+    }
+
+    /**
+     * Tên file tải về, ví dụ tasks_report_20260301.csv.gz
+     */
+    public String fileName(LocalDate date) {
+        return "tasks_report_" + date.format(FILE_DATE) + "." + getFormat().getExtension() + (isCompressed() ? ".gz" : "");
+    }
+
+    /**
+     * Content-Type của file tải về
+     */
+    public String contentType() {
+        return isCompressed() ? "application/gzip" : getFormat().getContentType();
+    }
+}
@@ -1,6 +1,10 @@
 package com.backend.quanlytasks.dto.request.Task;
 
+import com.backend.quanlytasks.common.enums.PageMode;
 import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TagMatchMode;
+import com.backend.quanlytasks.common.enums.TaskSortField;
 import com.backend.quanlytasks.common.enums.TaskStatus;
 import lombok.Data;
 
@@ -13,6 +17,11 @@ import java.util.List;
 @Data
 public class TaskFilterRequest {
 
+    /**
+     * Từ khóa tìm kiếm trong tiêu đề, mô tả và comment của task
+     */
+    private String q;
+
     private TaskStatus status;
 
     private LocalDateTime dueDateFrom;
@@ -21,11 +30,37 @@ public class TaskFilterRequest {
 
     private List<String> tags;
 
+    /**
+     * Cách kết hợp khi lọc nhiều tag: ANY (mặc định) hoặc ALL
+     */
+    private TagMatchMode tagMode;
+
     private Priority priority;
 
     private Long assigneeId;
 
+    /**
+     * Trường sắp xếp (whitelist), mặc định CREATED_AT
+     */
+    private TaskSortField sort;
+
+    /**
+     * Chiều sắp xếp, mặc định DESC
+     */
+    private SortDirection direction;
+
     private Integer page = 0;
 
     private Integer size = 8;
+
+    /**
+     * Chế độ phân trang, mặc định OFFSET
+     * Tự động dùng CURSOR nếu client gửi kèm cursor
+     */
+    private PageMode mode;
+
+    /**
+     * Cursor mờ lấy từ nextCursor của trang trước (chỉ dùng cho mode CURSOR)
+     */
+    private String cursor;
 }
@@ -12,4 +12,10 @@ public class UpdateTaskStatusRequest {
 
     @NotNull(message = "Trạng thái không được để trống")
     private TaskStatus status;
+
+    /**
+     * Trạng thái client đang thấy (không bắt buộc, mặc định là trạng thái hiện tại của task)
+     * Nếu task đã được người khác đổi sang trạng thái khác, server trả 409 thay vì ghi đè
+     */
+    private TaskStatus expectedStatus;
 }
@@ -0,0 +1,37 @@
+package com.backend.quanlytasks.dto.response.Cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO response thống kê của một region second-level cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheRegionStatsResponse {
+
+    private String region;
+
+    private Long hitCount;
+
+    private Long missCount;
+
+    /**
+     * Số lần ghi vào cache (null với cache không theo dõi số lần ghi)
+     */
+    private Long putCount;
+
+    /**
+     * hit / (hit + miss), null nếu region chưa được đọc lần nào
+     */
+    private Double hitRatio;
+
+    /**
+     * Số entry đang nằm trong cache (-1 nếu provider không hỗ trợ)
+     */
+    private Long elementCount;
+}
@@ -0,0 +1,45 @@
+package com.backend.quanlytasks.dto.response.Cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO response thống kê second-level cache của Hibernate
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsResponse {
+
+    /**
+     * false nếu hibernate.generate_statistics đang tắt (các số liệu luôn bằng 0)
+     */
+    private Boolean statisticsEnabled;
+
+    private Long secondLevelCacheHitCount;
+
+    private Long secondLevelCacheMissCount;
+
+    private Long secondLevelCachePutCount;
+
+    private Long naturalIdCacheHitCount;
+
+    private Long naturalIdCacheMissCount;
+
+    private List<CacheRegionStatsResponse> regions;
+
+    /**
+     * Cache kết quả danh sách task (Caffeine, không thuộc Hibernate), null nếu bị tắt
+     */
+    private CacheRegionStatsResponse taskListCache;
+
+    /**
+     * Cache chi tiết task theo (taskId, version), null nếu bị tắt
+     */
+    private CacheRegionStatsResponse taskDetailCache;
+}
@@ -0,0 +1,30 @@
+package com.backend.quanlytasks.dto.response.Comment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO response cho một trang comments của task (phân trang keyset, từ mới đến cũ)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommentListResponse {
+
+    /**
+     * Comments trong trang, sắp xếp cũ trước mới sau để hiển thị
+     */
+    private List<CommentResponse> comments;
+
+    private Boolean hasNext;
+
+    /**
+     * Cursor để lấy các comment cũ hơn (null nếu đã hết)
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,54 @@
+package com.backend.quanlytasks.dto.response.Export;
+
+import com.backend.quanlytasks.common.enums.ExportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO response trạng thái của một yêu cầu export bất đồng bộ
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJobResponse {
+
+    private String id;
+
+    private ExportJobStatus status;
+
+    /**
+     * Tên file khi tải về (theo định dạng đã chọn, ví dụ tasks_report_20260301.csv.gz)
+     */
+    private String fileName;
+
+    private String contentType;
+
+    /**
+     * Watermark cho lần export delta sau, chỉ có khi yêu cầu là export delta
+     */
+    private String nextWatermark;
+
+    /**
+     * Số task đã ghi vào file (tiến độ)
+     */
+    private Long rowsWritten;
+
+    /**
+     * Kích thước file (byte), chỉ có khi status = DONE
+     */
+    private Long fileSize;
+
+    /**
+     * Lý do lỗi, chỉ có khi status = FAILED
+     */
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
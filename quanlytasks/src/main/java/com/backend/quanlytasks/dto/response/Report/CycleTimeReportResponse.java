@@ -0,0 +1,25 @@
+package com.backend.quanlytasks.dto.response.Report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO response cycle time (từ lúc tạo task đến lúc DONE) của một người được giao trong khoảng ngày
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleTimeReportResponse {
+
+    /**
+     * ID người được giao, 0 = task chưa được assign
+     */
+    private Long assigneeId;
+
+    private Long completedCount;
+
+    private Double averageCycleTimeHours;
+}
@@ -0,0 +1,35 @@
+package com.backend.quanlytasks.dto.response.Report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO response số task quá hạn trong một ngày của một người được giao
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OverdueReportResponse {
+
+    private LocalDate date;
+
+    /**
+     * ID người được giao, 0 = task chưa được assign
+     */
+    private Long assigneeId;
+
+    /**
+     * Số task chưa xong đã quá hạn (chụp ở lần tổng hợp cuối của ngày)
+     */
+    private Long overdueOpenCount;
+
+    /**
+     * Số task hoàn thành sau deadline trong ngày
+     */
+    private Long completedLateCount;
+}
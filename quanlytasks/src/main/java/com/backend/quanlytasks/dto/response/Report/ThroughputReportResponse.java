@@ -0,0 +1,30 @@
+package com.backend.quanlytasks.dto.response.Report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO response số task hoàn thành trong một tuần của một người được giao
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ThroughputReportResponse {
+
+    /**
+     * Ngày thứ Hai của tuần
+     */
+    private LocalDate weekStart;
+
+    /**
+     * ID người được giao, 0 = task chưa được assign
+     */
+    private Long assigneeId;
+
+    private Long completedCount;
+}
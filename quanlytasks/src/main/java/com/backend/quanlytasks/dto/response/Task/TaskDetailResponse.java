@@ -50,10 +50,24 @@ public class TaskDetailResponse {
 
     private List<SubTaskResponse> subtasks;
 
+    /**
+     * Các comment mới nhất (cũ trước mới sau), phần cũ hơn lấy qua /api/tasks/{id}/comments?cursor=
+     */
     private List<CommentResponse> comments;
 
+    private Boolean hasMoreComments;
+
+    private String commentsNextCursor;
+
+    /**
+     * Các thay đổi mới nhất (mới trước cũ sau), phần cũ hơn lấy qua /api/tasks/{id}/history?cursor=
+     */
     private List<TaskHistoryResponse> history;
 
+    private Boolean hasMoreHistory;
+
+    private String historyNextCursor;
+
     /**
      * Flag để Admin biết task đã bị xóa hay chưa (để disable edit)
      */
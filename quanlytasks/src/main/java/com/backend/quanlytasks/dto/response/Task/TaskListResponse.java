@@ -29,4 +29,11 @@ public class TaskListResponse {
     private Boolean hasNext;
 
     private Boolean hasPrevious;
+
+    /**
+     * Cursor của trang kế tiếp (chỉ có ở mode CURSOR, null nếu là trang cuối)
+     * Ở mode CURSOR các field currentPage, totalPages, totalElements để null
+     * Ở mode SLICE chỉ totalPages, totalElements để null
+     */
+    private String nextCursor;
 }
@@ -0,0 +1,27 @@
+package com.backend.quanlytasks.dto.response.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO response thống kê số task theo trạng thái (dashboard)
+ * ADMIN: tất cả task chưa xóa, USER: task họ được xem
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsResponse {
+
+    private Long todo;
+
+    private Long inProgress;
+
+    private Long done;
+
+    private Long cancelled;
+
+    private Long total;
+}
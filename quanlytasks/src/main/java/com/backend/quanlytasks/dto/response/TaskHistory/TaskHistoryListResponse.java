@@ -0,0 +1,27 @@
+package com.backend.quanlytasks.dto.response.TaskHistory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO response cho một trang lịch sử của task (phân trang keyset, từ mới đến cũ)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistoryListResponse {
+
+    private List<TaskHistoryResponse> history;
+
+    private Boolean hasNext;
+
+    /**
+     * Cursor để lấy các thay đổi cũ hơn (null nếu đã hết)
+     */
+    private String nextCursor;
+}
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
  * Entity đại diện cho Comment (bình luận) trong một Task
  */
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        // Phân trang keyset comments của một task theo (createdAt, id)
+        @Index(name = "idx_comments_task_created_id", columnList = "task_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,35 @@
+package com.backend.quanlytasks.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mốc đã xử lý (high-water mark) của một job tổng hợp báo cáo
+ * Lần chạy sau chỉ đọc các bản ghi có id lớn hơn lastId
+ */
+@Entity
+@Table(name = "report_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportWatermark {
+
+    /**
+     * Tên job tổng hợp
+     */
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    /**
+     * ID lớn nhất đã được tổng hợp
+     */
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
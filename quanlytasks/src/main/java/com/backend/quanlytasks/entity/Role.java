@@ -1,11 +1,18 @@
 package com.backend.quanlytasks.entity;
 
 import com.backend.quanlytasks.common.enums.RoleName;
+import com.backend.quanlytasks.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLES)
+@NaturalIdCache(region = HibernateCacheConfig.ROLES_NATURAL_ID)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +23,7 @@ public class Role {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Enumerated(EnumType.STRING)
     @Column(unique = true, nullable = false)
     private RoleName name;
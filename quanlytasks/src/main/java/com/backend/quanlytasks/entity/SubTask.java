@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
  * Entity đại diện cho SubTask (công việc con) thuộc về một Task cha
  */
 @Entity
-@Table(name = "subtasks")
+@Table(name = "subtasks", indexes = {
+        // Phục vụ điều kiện "được giao subtask" khi lọc task theo USER
+        @Index(name = "idx_subtasks_assignee_parent", columnList = "assignee_id, parent_task_id, is_delete")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,13 +1,21 @@
 package com.backend.quanlytasks.entity;
 
+import com.backend.quanlytasks.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 /**
  * Entity đại diện cho Tag (nhãn) để phân loại task
+ * Được cache ở second-level cache (theo id và theo tên)
  */
 @Entity
 @Table(name = "tags")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.TAGS)
+@NaturalIdCache(region = HibernateCacheConfig.TAGS_NATURAL_ID)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +33,7 @@ public class Tag {
      * Tên của tag, phải là duy nhất trong hệ thống
      * Ví dụ: "urgent", "backend", "frontend"
      */
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String name;
 }
@@ -13,7 +13,20 @@ import java.util.Set;
  * Entity đại diện cho Task (công việc) trong hệ thống quản lý task
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // Phục vụ phân trang keyset theo (createdAt, id)
+        @Index(name = "idx_tasks_created_at_id", columnList = "created_at, id"),
+        // Các tổ hợp filter phổ biến, giữ thứ tự (created_at, id) để không phải sort lại
+        @Index(name = "idx_tasks_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_tasks_priority_created", columnList = "priority, created_at, id"),
+        @Index(name = "idx_tasks_assignee_created", columnList = "assignee_id, created_at, id"),
+        @Index(name = "idx_tasks_creator_created", columnList = "created_by_id, created_at, id"),
+        // Sắp xếp theo từng trường, id làm tiêu chí phụ để ổn định
+        @Index(name = "idx_tasks_due_date_id", columnList = "due_date, id"),
+        @Index(name = "idx_tasks_priority_rank_id", columnList = "priority_rank, id"),
+        @Index(name = "idx_tasks_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_tasks_status_id", columnList = "status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,6 +70,13 @@ public class Task {
     @Column(nullable = false)
     private Priority priority;
 
+    /**
+     * Thứ tự nghiệp vụ của priority (LOW=1, MEDIUM=2, HIGH=3) để sắp xếp bằng index
+     * Tự động đồng bộ theo priority khi lưu
+     */
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+
     /**
      * Hạn hoàn thành của task
      * Có thể null nếu không có deadline
@@ -85,7 +105,7 @@ public class Task {
      * Quan hệ nhiều-nhiều với Tag
      */
     @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
+    @JoinTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"), indexes = @Index(name = "idx_task_tags_tag_task", columnList = "tag_id, task_id"))
     @Builder.Default
     private Set<Tag> tags = new HashSet<>();
 
@@ -112,6 +132,14 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Phiên bản nội dung chi tiết task (optimistic locking)
+     * Tăng khi task thay đổi và khi subtask/comment của task thay đổi, dùng làm khóa cache chi tiết task
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     /**
      * Tự động set thời gian tạo trước khi persist
      */
@@ -119,6 +147,7 @@ public class Task {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        syncPriorityRank();
     }
 
     /**
@@ -127,5 +156,10 @@ public class Task {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        syncPriorityRank();
+    }
+
+    private void syncPriorityRank() {
+        priorityRank = priority != null ? priority.getRank() : null;
     }
 }
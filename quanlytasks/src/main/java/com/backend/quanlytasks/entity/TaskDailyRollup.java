@@ -0,0 +1,64 @@
+package com.backend.quanlytasks.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Số liệu báo cáo đã tổng hợp theo (ngày, người được giao)
+ * Được job tổng hợp cập nhật tăng dần từ task_history, các API /api/reports chỉ đọc bảng này
+ */
+@Entity
+@Table(name = "task_daily_rollups", uniqueConstraints = @UniqueConstraint(name = "uk_task_daily_rollups", columnNames = {
+        "rollup_date", "assignee_id" }), indexes = {
+                // Báo cáo của một user theo khoảng ngày
+                @Index(name = "idx_task_daily_rollups_assignee_date", columnList = "assignee_id, rollup_date")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskDailyRollup {
+
+    /**
+     * ID duy nhất của bản ghi
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    /**
+     * ID người được giao task, 0 nếu task chưa được assign
+     */
+    @Column(name = "assignee_id", nullable = false)
+    private Long assigneeId;
+
+    /**
+     * Số task chuyển sang DONE trong ngày (throughput)
+     */
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount;
+
+    /**
+     * Tổng thời gian (phút) từ lúc tạo task đến lúc DONE của các task hoàn thành trong ngày
+     * Cycle time trung bình = cycleTimeMinutes / completedCount
+     */
+    @Column(name = "cycle_time_minutes", nullable = false)
+    private Long cycleTimeMinutes;
+
+    /**
+     * Số task hoàn thành sau deadline trong ngày
+     */
+    @Column(name = "completed_late_count", nullable = false)
+    private Long completedLateCount;
+
+    /**
+     * Số task chưa xong đã quá hạn, chụp lại ở lần chạy job cuối cùng của ngày
+     */
+    @Column(name = "overdue_open_count", nullable = false)
+    private Long overdueOpenCount;
+}
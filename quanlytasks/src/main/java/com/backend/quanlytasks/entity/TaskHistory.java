@@ -10,7 +10,12 @@ import java.time.LocalDateTime;
  * Ghi lại mọi thay đổi: ai thay đổi, khi nào, trường nào, giá trị cũ và mới
  */
 @Entity
-@Table(name = "task_history")
+@Table(name = "task_history", indexes = {
+        // Phân trang keyset lịch sử của một task theo (changedAt, id)
+        @Index(name = "idx_task_history_task_changed_id", columnList = "task_id, changed_at, id"),
+        // Job tổng hợp báo cáo quét các thay đổi status theo id
+        @Index(name = "idx_task_history_field_id", columnList = "field_name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,50 @@
+package com.backend.quanlytasks.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Văn bản tìm kiếm của một task (tiêu đề + mô tả, nội dung comment)
+ * Trên MySQL có FULLTEXT index (task_text, comment_text), tạo bởi TaskSearchIndexInitializer
+ */
+@Entity
+@Table(name = "task_search_index")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSearchIndex {
+
+    /**
+     * ID của task được index (1 dòng / task)
+     */
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Tiêu đề và mô tả của task
+     */
+    @Column(name = "task_text", columnDefinition = "TEXT")
+    private String taskText;
+
+    /**
+     * Nội dung các comment của task, nối tiếp theo thứ tự tạo
+     */
+    @Column(name = "comment_text", columnDefinition = "MEDIUMTEXT")
+    private String commentText;
+
+    /**
+     * Thời gian cập nhật index lần cuối
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
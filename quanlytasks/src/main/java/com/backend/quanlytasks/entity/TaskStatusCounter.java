@@ -0,0 +1,58 @@
+package com.backend.quanlytasks.entity;
+
+import com.backend.quanlytasks.common.enums.TaskCounterScope;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Bộ đếm số task theo status, được cập nhật cùng transaction với thao tác ghi task
+ * Thống kê dashboard chỉ cần cộng vài dòng thay vì đếm trên bảng tasks
+ * Một bộ đếm được chia thành nhiều dòng (stripe) để các transaction ghi đồng thời
+ * không phải chờ khóa trên cùng một dòng; giá trị thật là tổng các stripe
+ */
+@Entity
+@Table(name = "task_status_counters", uniqueConstraints = @UniqueConstraint(name = "uk_task_status_counters", columnNames = {
+        "scope", "user_id", "status", "stripe" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatusCounter {
+
+    /**
+     * ID duy nhất của bản ghi
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Phạm vi đếm: GLOBAL hoặc USER
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TaskCounterScope scope;
+
+    /**
+     * ID của user (phạm vi USER), 0 với phạm vi GLOBAL
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskStatus status;
+
+    /**
+     * Số thứ tự stripe của bộ đếm
+     */
+    @Column(nullable = false)
+    private Integer stripe;
+
+    /**
+     * Phần giá trị của stripe này (có thể âm, chỉ tổng các stripe mới có ý nghĩa)
+     */
+    @Column(nullable = false)
+    private Long count;
+}
@@ -0,0 +1,46 @@
+package com.backend.quanlytasks.entity;
+
+import com.backend.quanlytasks.common.enums.TaskAccessReason;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Bảng quyền xem task của từng user (materialized từ creator, assignee và subtask assignee)
+ * Giúp danh sách/thống kê của USER chỉ cần một index lookup theo user_id
+ * thay vì OR + EXISTS trên subtasks
+ */
+@Entity
+@Table(name = "user_task_access", uniqueConstraints = @UniqueConstraint(name = "uk_user_task_access", columnNames = {
+        "user_id", "task_id", "reason" }), indexes = @Index(name = "idx_user_task_access_task", columnList = "task_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserTaskAccess {
+
+    /**
+     * ID duy nhất của bản ghi
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID của user được xem task
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * ID của task được xem
+     */
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    /**
+     * Lý do user được xem task
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskAccessReason reason;
+}
@@ -0,0 +1,40 @@
+package com.backend.quanlytasks.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Event được publish khi dữ liệu của một task thay đổi (trong transaction ghi)
+ * Dùng để xóa chính xác các kết quả danh sách task đã cache sau khi commit
+ */
+@Getter
+public class TaskChangedEvent extends ApplicationEvent {
+
+    private final Long taskId;
+
+    /**
+     * Các user bị ảnh hưởng mà sau commit không còn đọc được từ user_task_access
+     * (ví dụ người được giao cũ đã bị thu hồi quyền xem)
+     */
+    private final Set<Long> userIds;
+
+    private final ChangeType type;
+
+    public TaskChangedEvent(Object source, Long taskId, Set<Long> userIds, ChangeType type) {
+        super(source);
+        this.taskId = taskId;
+        this.userIds = userIds;
+        this.type = type;
+    }
+
+    /**
+     * Các loại thay đổi, quyết định phạm vi cần xóa cache
+     */
+    public enum ChangeType {
+        TASK_UPDATED, // Field của task thay đổi (tạo, sửa, giao, đổi trạng thái, xóa, hoàn tác)
+        ACCESS_CHANGED, // Chỉ quyền xem thay đổi (người được giao subtask)
+        COMMENT_ADDED // Nội dung tìm kiếm thay đổi (comment mới)
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.quanlytasks.event;
+
+import com.backend.quanlytasks.cache.TaskCountCache;
+import com.backend.quanlytasks.cache.TaskDetailCache;
+import com.backend.quanlytasks.cache.TaskListCache;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Event Listener lắng nghe TaskChangedEvent
+ * Xóa kết quả danh sách và tổng số task đã cache của các phạm vi bị ảnh hưởng,
+ * cùng chi tiết task đã cache (version cũ không còn được đọc, chỉ giải phóng bộ nhớ)
+ * Chạy đồng bộ sau khi commit để request kế tiếp thấy ngay thay đổi
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskChangedEventListener {
+
+    private final TaskListCache taskListCache;
+    private final TaskDetailCache taskDetailCache;
+    private final TaskCountCache taskCountCache;
+    private final UserTaskAccessRepository userTaskAccessRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleTaskChangedEvent(TaskChangedEvent event) {
+        taskDetailCache.evict(event.getTaskId());
+        switch (event.getType()) {
+            case TASK_UPDATED -> {
+                Set<Long> userIds = viewersOf(event);
+                taskListCache.invalidateTask(event.getTaskId(), userIds);
+                taskCountCache.invalidate(userIds, true, false);
+            }
+            case ACCESS_CHANGED -> {
+                taskListCache.invalidateUsers(event.getUserIds());
+                taskCountCache.invalidate(event.getUserIds(), false, false);
+            }
+            case COMMENT_ADDED -> {
+                Set<Long> userIds = viewersOf(event);
+                taskListCache.invalidateSearch(userIds);
+                taskCountCache.invalidate(userIds, true, true);
+            }
+        }
+    }
+
+    /**
+     * Những user đang xem được task (sau commit) cộng với các user được chỉ định trong event
+     */
+    private Set<Long> viewersOf(TaskChangedEvent event) {
+        Set<Long> userIds = new HashSet<>(userTaskAccessRepository.findUserIdsByTaskId(event.getTaskId()));
+        userIds.addAll(event.getUserIds());
+        return userIds;
+    }
+}
@@ -1,6 +1,5 @@
 package com.backend.quanlytasks.event;
 
-import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
 import lombok.Getter;
 import org.springframework.context.ApplicationEvent;
@@ -8,6 +7,7 @@ import org.springframework.context.ApplicationEvent;
 /**
  * Event được publish khi có thông báo liên quan đến Task
  * Các loại thông báo: giao task, thay đổi trạng thái, cập nhật task
+ * Chỉ mang id và tiêu đề của task: listener chạy async ngoài session của request
  */
 @Getter
 public class TaskNotificationEvent extends ApplicationEvent {
@@ -15,16 +15,18 @@ public class TaskNotificationEvent extends ApplicationEvent {
     private final User recipient;
     private final String title;
     private final String message;
-    private final Task relatedTask;
+    private final Long relatedTaskId;
+    private final String relatedTaskTitle;
     private final NotificationType type;
 
     public TaskNotificationEvent(Object source, User recipient, String title,
-            String message, Task relatedTask, NotificationType type) {
+            String message, Long relatedTaskId, String relatedTaskTitle, NotificationType type) {
         super(source);
         this.recipient = recipient;
         this.title = title;
         this.message = message;
-        this.relatedTask = relatedTask;
+        this.relatedTaskId = relatedTaskId;
+        this.relatedTaskTitle = relatedTaskTitle;
         this.type = type;
     }
 
@@ -3,12 +3,14 @@ package com.backend.quanlytasks.event;
 import com.backend.quanlytasks.entity.Notification;
 import com.backend.quanlytasks.entity.User;
 import com.backend.quanlytasks.repository.NotificationRepository;
+import com.backend.quanlytasks.repository.TaskRepository;
 import com.backend.quanlytasks.service.FirebaseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,14 +25,17 @@ import java.util.Map;
 public class TaskNotificationEventListener {
 
     private final NotificationRepository notificationRepository;
+    private final TaskRepository taskRepository;
     private final FirebaseService firebaseService;
 
     /**
      * Xử lý event thông báo task
      * Chạy async để không block main thread
+     * Task liên quan chỉ gắn theo khóa ngoại (getReferenceById), không nạp lại task
      */
     @EventListener
     @Async
+    @Transactional
     public void handleTaskNotificationEvent(TaskNotificationEvent event) {
         log.info("Nhận được TaskNotificationEvent: {} - {}", event.getType(), event.getTitle());
 
@@ -41,7 +46,9 @@ public class TaskNotificationEventListener {
                 .recipient(recipient)
                 .title(event.getTitle())
                 .message(event.getMessage())
-                .relatedTask(event.getRelatedTask())
+                .relatedTask(event.getRelatedTaskId() != null
+                        ? taskRepository.getReferenceById(event.getRelatedTaskId())
+                        : null)
                 .isRead(false)
                 .build();
 
@@ -53,9 +60,9 @@ public class TaskNotificationEventListener {
             Map<String, String> data = new HashMap<>();
             data.put("type", event.getType().name());
 
-            if (event.getRelatedTask() != null) {
-                data.put("taskId", event.getRelatedTask().getId().toString());
-                data.put("taskTitle", event.getRelatedTask().getTitle());
+            if (event.getRelatedTaskId() != null) {
+                data.put("taskId", event.getRelatedTaskId().toString());
+                data.put("taskTitle", event.getRelatedTaskTitle());
             }
 
             boolean sent = firebaseService.sendPushNotification(
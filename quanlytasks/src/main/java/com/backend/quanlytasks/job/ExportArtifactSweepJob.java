@@ -0,0 +1,26 @@
+package com.backend.quanlytasks.job;
+
+import com.backend.quanlytasks.service.ExportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job dọn các file export bất đồng bộ đã quá TTL (app.export.ttl)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExportArtifactSweepJob {
+
+    private final ExportJobService exportJobService;
+
+    @Scheduled(cron = "${app.export.sweep-cron:0 */5 * * * *}")
+    public void sweep() {
+        int deleted = exportJobService.sweepExpired();
+        if (deleted > 0) {
+            log.info("Dọn file export: xóa {} file hết hạn", deleted);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.backend.quanlytasks.job;
+
+import com.backend.quanlytasks.cache.TaskCountCache;
+import com.backend.quanlytasks.cache.TaskListCache;
+import com.backend.quanlytasks.service.TaskAccessService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job đồng bộ bảng user_task_access từ dữ liệu tasks/subtasks
+ * - Chạy khi khởi động để backfill dữ liệu có sẵn
+ * - Chạy định kỳ để sửa các sai lệch (nếu có ghi DB ngoài ứng dụng)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskAccessRebuildJob {
+
+    private final TaskAccessService taskAccessService;
+    private final TaskListCache taskListCache;
+    private final TaskCountCache taskCountCache;
+
+    @Value("${app.task-access.rebuild-on-startup:true}")
+    private boolean rebuildOnStartupEnabled;
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartupEnabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${app.task-access.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int changed = taskAccessService.rebuild();
+        if (changed > 0) {
+            // Quyền xem bị sửa ngoài các luồng ghi: không biết user nào bị ảnh hưởng
+            taskListCache.invalidateAll();
+            taskCountCache.invalidateAll();
+        }
+        log.info("Rebuild user_task_access: {} bản ghi thay đổi trong {} ms",
+                changed, System.currentTimeMillis() - start);
+    }
+}
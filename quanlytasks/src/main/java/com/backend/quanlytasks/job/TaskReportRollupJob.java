@@ -0,0 +1,34 @@
+package com.backend.quanlytasks.job;
+
+import com.backend.quanlytasks.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job tổng hợp số liệu báo cáo vào task_daily_rollups
+ * - Đọc tăng dần task_history từ high-water mark (không quét lại toàn bộ)
+ * - Chụp số task quá hạn của ngày hôm nay
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskReportRollupJob {
+
+    private final ReportService reportService;
+
+    @Scheduled(cron = "${app.reports.rollup-cron:0 */10 * * * *}")
+    public void rollup() {
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int processed;
+        do {
+            processed = reportService.rollupCompletions();
+            total += processed;
+        } while (processed > 0);
+        int overdueRows = reportService.snapshotOverdue();
+        log.info("Tổng hợp báo cáo: {} lần hoàn thành task, {} dòng quá hạn trong {} ms",
+                total, overdueRows, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.quanlytasks.job;
+
+import com.backend.quanlytasks.service.TaskStatusCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job đối soát bảng task_status_counters với dữ liệu tasks/user_task_access
+ * - Chạy khi khởi động để khởi tạo bộ đếm cho dữ liệu có sẵn (sau khi rebuild user_task_access)
+ * - Chạy định kỳ để sửa các sai lệch (ghi DB ngoài ứng dụng, thao tác đồng thời)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatusCounterReconcileJob {
+
+    private final TaskStatusCounterService taskStatusCounterService;
+
+    @Value("${app.task-stats.reconcile-on-startup:true}")
+    private boolean reconcileOnStartupEnabled;
+
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartupEnabled) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${app.task-stats.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        int repaired = taskStatusCounterService.reconcile();
+        if (repaired > 0) {
+            log.warn("Đối soát task_status_counters: sửa {} bộ đếm bị lệch trong {} ms",
+                    repaired, System.currentTimeMillis() - start);
+        } else {
+            log.info("Đối soát task_status_counters: không có sai lệch ({} ms)",
+                    System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.backend.quanlytasks.repository;
 
 import com.backend.quanlytasks.entity.Comment;
+import com.backend.quanlytasks.repository.projection.CommentExportRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,11 +19,40 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     /**
      * Lấy tất cả comments của một task, sắp xếp theo thời gian tạo tăng dần (cũ
      * nhất trước)
+     * Nạp kèm tác giả để mapper không phát sinh query theo từng comment
      */
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByTaskIdOrderByCreatedAtAsc(Long taskId);
 
+    /**
+     * Trang comments mới nhất của một task (keyset, từ mới đến cũ)
+     */
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findLatestByTaskId(@Param("taskId") Long taskId, Limit limit);
+
+    /**
+     * Trang comments cũ hơn cursor (createdAt, id) của một task
+     */
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c WHERE c.task.id = :taskId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findByTaskIdBefore(@Param("taskId") Long taskId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
     /**
      * Đếm số comment của một task
      */
     long countByTaskId(Long taskId);
+
+    /**
+     * Nạp comment của nhiều task trong 1 query (cho sheet Comments của file export)
+     */
+    @Query("SELECT new com.backend.quanlytasks.repository.projection.CommentExportRow(" +
+            "c.task.id, c.id, a.fullName, c.content, c.createdAt) " +
+            "FROM Comment c JOIN c.author a WHERE c.task.id IN :taskIds ORDER BY c.task.id, c.id")
+    List<CommentExportRow> findExportRowsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -0,0 +1,9 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.entity.ReportWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReportWatermarkRepository extends JpaRepository<ReportWatermark, String> {
+}
@@ -0,0 +1,18 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.enums.RoleName;
+import com.backend.quanlytasks.entity.Role;
+
+import java.util.Optional;
+
+/**
+ * Tra cứu Role theo natural id (name), đi qua second-level cache
+ */
+public interface RoleRepositoryCustom {
+
+    /**
+     * Tìm role theo tên
+     * Lần đầu đọc từ DB, các lần sau lấy từ cache natural-id và cache entity
+     */
+    Optional<Role> findByName(RoleName name);
+}
@@ -0,0 +1,31 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.enums.RoleName;
+import com.backend.quanlytasks.entity.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Cài đặt RoleRepositoryCustom bằng API natural-id của Hibernate
+ * (query dẫn xuất của Spring Data không dùng được cache natural-id)
+ */
+public class RoleRepositoryCustomImpl implements RoleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Role> findByName(RoleName name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Role.class)
+                .loadOptional(name);
+    }
+}
@@ -1,9 +1,14 @@
 package com.backend.quanlytasks.repository;
 
 import com.backend.quanlytasks.entity.SubTask;
+import com.backend.quanlytasks.repository.projection.SubTaskExportRow;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,11 +22,27 @@ public interface SubTaskRepository extends JpaRepository<SubTask, Long> {
 
     /**
      * Lấy tất cả subtasks của một task cha và chưa bị xóa
+     * Nạp kèm task cha và người được giao để mapper không phát sinh query theo từng dòng
      */
+    @EntityGraph(attributePaths = {"parentTask", "assignee"})
     List<SubTask> findByParentTaskIdAndIsDelete(Long parentTaskId, Integer isDelete);
 
     /**
      * Đếm số subtask của một task
      */
     long countByParentTaskIdAndIsDelete(Long parentTaskId, Integer isDelete);
+
+    /**
+     * Kiểm tra user còn được giao subtask nào (chưa xóa) trong task cha không
+     */
+    boolean existsByParentTaskIdAndAssigneeIdAndIsDelete(Long parentTaskId, Long assigneeId, Integer isDelete);
+
+    /**
+     * Nạp subtask chưa xóa của nhiều task trong 1 query (cho sheet Subtasks của file export)
+     */
+    @Query("SELECT new com.backend.quanlytasks.repository.projection.SubTaskExportRow(" +
+            "st.parentTask.id, st.id, st.title, st.status, a.fullName, st.createdAt) " +
+            "FROM SubTask st LEFT JOIN st.assignee a " +
+            "WHERE st.parentTask.id IN :taskIds AND st.isDelete = 0 ORDER BY st.parentTask.id, st.id")
+    List<SubTaskExportRow> findExportRowsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
 }
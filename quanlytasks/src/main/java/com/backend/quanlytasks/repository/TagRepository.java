@@ -5,15 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
-
-    /**
-     * Tìm tag theo tên
-     */
-    Optional<Tag> findByName(String name);
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
 
     /**
      * Tìm nhiều tags theo danh sách tên
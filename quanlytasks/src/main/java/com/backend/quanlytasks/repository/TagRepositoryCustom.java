@@ -0,0 +1,17 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.entity.Tag;
+
+import java.util.Optional;
+
+/**
+ * Tra cứu Tag theo natural id (name), đi qua second-level cache
+ */
+public interface TagRepositoryCustom {
+
+    /**
+     * Tìm tag theo tên
+     * Lần đầu đọc từ DB, các lần sau lấy từ cache natural-id và cache entity
+     */
+    Optional<Tag> findByName(String name);
+}
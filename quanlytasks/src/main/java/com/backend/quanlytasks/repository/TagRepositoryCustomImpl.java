@@ -0,0 +1,30 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.entity.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Cài đặt TagRepositoryCustom bằng API natural-id của Hibernate
+ * (query dẫn xuất của Spring Data không dùng được cache natural-id)
+ */
+public class TagRepositoryCustomImpl implements TagRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Tag> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Tag.class)
+                .loadOptional(name);
+    }
+}
@@ -0,0 +1,63 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.entity.TaskDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskDailyRollupRepository extends JpaRepository<TaskDailyRollup, Long> {
+
+        /**
+         * Rollup của mọi user trong khoảng ngày (ADMIN)
+         */
+        List<TaskDailyRollup> findByRollupDateBetweenOrderByRollupDate(LocalDate from, LocalDate to);
+
+        /**
+         * Rollup của một user trong khoảng ngày
+         */
+        List<TaskDailyRollup> findByAssigneeIdAndRollupDateBetweenOrderByRollupDate(Long assigneeId,
+                        LocalDate from, LocalDate to);
+
+        /**
+         * Cộng số task hoàn thành vào rollup của (ngày, user), tạo dòng nếu chưa có
+         */
+        @Modifying
+        @Query(value = "INSERT INTO task_daily_rollups (rollup_date, assignee_id, completed_count, " +
+                        "cycle_time_minutes, completed_late_count, overdue_open_count) " +
+                        "VALUES (:day, :assigneeId, :completed, :cycleTimeMinutes, :completedLate, 0) " +
+                        "ON DUPLICATE KEY UPDATE completed_count = completed_count + :completed, " +
+                        "cycle_time_minutes = cycle_time_minutes + :cycleTimeMinutes, " +
+                        "completed_late_count = completed_late_count + :completedLate", nativeQuery = true)
+        int addCompletions(@Param("day") LocalDate day,
+                        @Param("assigneeId") Long assigneeId,
+                        @Param("completed") long completed,
+                        @Param("cycleTimeMinutes") long cycleTimeMinutes,
+                        @Param("completedLate") long completedLate);
+
+        /**
+         * Xóa số task quá hạn đã chụp của một ngày (trước khi chụp lại)
+         */
+        @Modifying
+        @Query(value = "UPDATE task_daily_rollups SET overdue_open_count = 0 WHERE rollup_date = :day",
+                        nativeQuery = true)
+        int resetOverdue(@Param("day") LocalDate day);
+
+        /**
+         * Chụp số task chưa xong đã quá hạn của từng user vào rollup của ngày
+         */
+        @Modifying
+        @Query(value = "INSERT INTO task_daily_rollups (rollup_date, assignee_id, completed_count, " +
+                        "cycle_time_minutes, completed_late_count, overdue_open_count) " +
+                        "SELECT :day, COALESCE(t.assignee_id, 0), 0, 0, 0, COUNT(*) FROM tasks t " +
+                        "WHERE t.is_delete = 0 AND t.status IN ('TODO', 'IN_PROGRESS') AND t.due_date < :now " +
+                        "GROUP BY COALESCE(t.assignee_id, 0) " +
+                        "ON DUPLICATE KEY UPDATE overdue_open_count = VALUES(overdue_open_count)", nativeQuery = true)
+        int snapshotOverdue(@Param("day") LocalDate day, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,46 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TagMatchMode;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Khóa cache cho tập kết quả của một filter: chỉ gồm các field ảnh hưởng tới tập task (bỏ page, size, sort, cursor)
+ * Tag và từ khóa được chuẩn hóa giống khi dựng truy vấn để các filter tương đương dùng chung một khóa
+ *
+ * @param userId null nếu là ADMIN (phạm vi tất cả task, dùng chung cho mọi ADMIN)
+ */
+public record TaskFilterKey(Long userId, TaskStatus status, Priority priority, Long assigneeId,
+        LocalDateTime dueDateFrom, LocalDateTime dueDateTo,
+        List<String> tags, TagMatchMode tagMode, String q) {
+
+    public static TaskFilterKey of(TaskFilterRequest filter, Long userId) {
+        List<String> tags = TaskFilterPredicateBuilder.normalizeTags(filter.getTags()).stream()
+                .sorted()
+                .toList();
+        return new TaskFilterKey(userId, filter.getStatus(), filter.getPriority(),
+                userId == null ? filter.getAssigneeId() : null,
+                filter.getDueDateFrom(), filter.getDueDateTo(),
+                tags, tags.isEmpty() || filter.getTagMode() == null ? TagMatchMode.ANY : filter.getTagMode(),
+                TaskFilterPredicateBuilder.toBooleanQuery(filter.getQ()));
+    }
+
+    /**
+     * Khóa thuộc phạm vi ADMIN hoặc của một trong các user cho trước
+     */
+    public boolean inScope(Collection<Long> userIds, boolean includeAdmin) {
+        return userId == null ? includeAdmin : userIds.contains(userId);
+    }
+
+    /**
+     * Filter có tìm kiếm full-text (kết quả phụ thuộc cả nội dung comment)
+     */
+    public boolean hasSearch() {
+        return q != null;
+    }
+}
@@ -0,0 +1,214 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TagMatchMode;
+import com.backend.quanlytasks.common.enums.TaskSortField;
+import com.backend.quanlytasks.common.pagination.TaskCursor;
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+import com.backend.quanlytasks.entity.Tag;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.entity.TaskSearchIndex;
+import com.backend.quanlytasks.entity.UserTaskAccess;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Dựng điều kiện WHERE cho truy vấn danh sách task từ TaskFilterRequest
+ * Chỉ thêm predicate cho các field được truyền, không dùng mẫu
+ * "(:param IS NULL OR ...)" để MySQL chọn được index phù hợp
+ */
+class TaskFilterPredicateBuilder {
+
+    /**
+     * Độ dài tối thiểu của từ khóa (bằng ngram_token_size mặc định của MySQL)
+     */
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERMS = 10;
+
+    private TaskFilterPredicateBuilder() {
+    }
+
+    /**
+     * Điều kiện filter và phạm vi nhìn thấy
+     *
+     * @param userId null nếu là ADMIN
+     */
+    static List<Predicate> build(TaskFilterRequest filter, Long userId,
+            Root<Task> task, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (userId != null) {
+            predicates.add(cb.equal(task.get("isDelete"), 0));
+            predicates.add(visibleTo(userId, task, query, cb));
+        }
+
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+        }
+        // Lọc theo người được giao chỉ áp dụng cho ADMIN
+        if (userId == null && filter.getAssigneeId() != null) {
+            predicates.add(cb.equal(task.get("assignee").get("id"), filter.getAssigneeId()));
+        }
+        if (filter.getDueDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("dueDate"), filter.getDueDateFrom()));
+        }
+        if (filter.getDueDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.<LocalDateTime>get("dueDate"), filter.getDueDateTo()));
+        }
+        String booleanQuery = toBooleanQuery(filter.getQ());
+        if (booleanQuery != null) {
+            predicates.add(matches(booleanQuery, task, query, cb));
+        }
+        List<String> tagNames = normalizeTags(filter.getTags());
+        if (!tagNames.isEmpty()) {
+            predicates.add(filter.getTagMode() == TagMatchMode.ALL
+                    ? hasAllTags(tagNames, task, query, cb)
+                    : hasAnyTag(tagNames, task, query, cb));
+        }
+
+        return predicates;
+    }
+
+    /**
+     * Trường sắp xếp của filter, mặc định createdAt
+     */
+    static TaskSortField sortField(TaskFilterRequest filter) {
+        return filter.getSort() != null ? filter.getSort() : TaskSortField.CREATED_AT;
+    }
+
+    /**
+     * Chiều sắp xếp của filter, mặc định giảm dần
+     */
+    static SortDirection direction(TaskFilterRequest filter) {
+        return filter.getDirection() != null ? filter.getDirection() : SortDirection.DESC;
+    }
+
+    /**
+     * Thứ tự của danh sách: (trường sắp xếp, id) cùng chiều để MySQL đọc thẳng theo index (cột, id)
+     * Không chỉ định NULLS FIRST/LAST vì MySQL phải giả lập bằng CASE và mất index;
+     * dùng thứ tự mặc định của MySQL: NULL nhỏ nhất
+     */
+    static List<Order> order(TaskFilterRequest filter, Root<Task> task, CriteriaBuilder cb) {
+        Path<?> field = task.get(sortField(filter).getProperty());
+        Path<?> id = task.get("id");
+        return direction(filter) == SortDirection.ASC
+                ? List.of(cb.asc(field), cb.asc(id))
+                : List.of(cb.desc(field), cb.desc(id));
+    }
+
+    /**
+     * Điều kiện keyset: các task đứng sau cursor theo (trường sắp xếp, id)
+     * NULL là nhỏ nhất: đứng đầu khi ASC, đứng cuối khi DESC
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Predicate after(TaskCursor cursor, Root<Task> task, CriteriaBuilder cb) {
+        Path<Comparable> field = task.get(cursor.getSort().getProperty());
+        Path<Long> id = task.get("id");
+        Comparable value = cursor.getValue();
+        boolean asc = cursor.getDirection() == SortDirection.ASC;
+
+        Predicate idAfter = asc ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+        if (value == null) {
+            Predicate sameNull = cb.and(cb.isNull(field), idAfter);
+            return asc ? cb.or(sameNull, cb.isNotNull(field)) : sameNull;
+        }
+
+        Predicate beyond = asc ? cb.greaterThan(field, value) : cb.lessThan(field, value);
+        Predicate tie = cb.and(cb.equal(field, value), idAfter);
+        return asc ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(field));
+    }
+
+    /**
+     * USER chỉ thấy task do họ tạo, được giao, hoặc được giao subtask
+     * Đọc từ bảng user_task_access: semi-join trên index (user_id, task_id)
+     */
+    private static Predicate visibleTo(Long userId, Root<Task> task, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Subquery<Long> accessQuery = query.subquery(Long.class);
+        Root<UserTaskAccess> access = accessQuery.from(UserTaskAccess.class);
+        accessQuery.select(access.<Long>get("taskId"))
+                .where(cb.equal(access.get("userId"), userId));
+        return task.get("id").in(accessQuery);
+    }
+
+    /**
+     * Tìm kiếm full-text: semi-join với task_search_index qua FULLTEXT index
+     * Chỉ thu hẹp tập task, phạm vi nhìn thấy vẫn do các điều kiện khác quyết định
+     */
+    private static Predicate matches(String booleanQuery, Root<Task> task, CriteriaQuery<?> query,
+            CriteriaBuilder cb) {
+        Subquery<Long> searchQuery = query.subquery(Long.class);
+        Root<TaskSearchIndex> document = searchQuery.from(TaskSearchIndex.class);
+        searchQuery.select(document.<Long>get("taskId"))
+                .where(cb.gt(cb.function("match_against", Double.class,
+                        document.get("taskText"), document.get("commentText"), cb.literal(booleanQuery)), 0));
+        return task.get("id").in(searchQuery);
+    }
+
+    /**
+     * Chuyển từ khóa người dùng sang boolean mode: mọi từ đều bắt buộc (+tu)
+     * Bỏ các ký tự toán tử để người dùng không chèn được cú pháp boolean
+     */
+    static String toBooleanQuery(String q) {
+        if (q == null || q.isBlank()) {
+            return null;
+        }
+        String terms = Arrays.stream(q.split("[^\\p{L}\\p{N}_]+"))
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .limit(MAX_TERMS)
+                .map(term -> "+" + term)
+                .collect(Collectors.joining(" "));
+        return terms.isEmpty() ? null : terms;
+    }
+
+    /**
+     * ANY: EXISTS semi-join qua task_tags thay cho LEFT JOIN + DISTINCT,
+     * dừng ngay khi gặp tag đầu tiên khớp
+     */
+    private static Predicate hasAnyTag(List<String> tagNames, Root<Task> task, CriteriaQuery<?> query,
+            CriteriaBuilder cb) {
+        Subquery<Long> tagQuery = query.subquery(Long.class);
+        Root<Task> correlated = tagQuery.correlate(task);
+        Join<Task, Tag> tag = correlated.join("tags");
+        tagQuery.select(tag.<Long>get("id"))
+                .where(tag.get("name").in(tagNames));
+        return cb.exists(tagQuery);
+    }
+
+    /**
+     * ALL: semi-join "task_id IN (... GROUP BY task_id HAVING COUNT = số tag)"
+     * Subquery không tương quan, chỉ đọc index task_tags(tag_id, task_id) của các tag được chọn
+     */
+    private static Predicate hasAllTags(List<String> tagNames, Root<Task> task, CriteriaQuery<?> query,
+            CriteriaBuilder cb) {
+        Subquery<Long> tagQuery = query.subquery(Long.class);
+        Root<Task> tagged = tagQuery.from(Task.class);
+        Join<Task, Tag> tag = tagged.join("tags");
+        tagQuery.select(tagged.<Long>get("id"))
+                .where(tag.get("name").in(tagNames))
+                .groupBy(tagged.get("id"))
+                .having(cb.equal(cb.countDistinct(tag.get("id")), (long) tagNames.size()));
+        return task.get("id").in(tagQuery);
+    }
+
+    /**
+     * Bỏ tag rỗng/trùng để số tag dùng cho HAVING COUNT chính xác
+     */
+    static List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                .filter(name -> name != null && !name.isBlank())
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
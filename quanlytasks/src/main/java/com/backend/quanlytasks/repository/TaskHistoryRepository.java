@@ -1,16 +1,96 @@
 package com.backend.quanlytasks.repository;
 
 import com.backend.quanlytasks.entity.TaskHistory;
+import com.backend.quanlytasks.repository.projection.HistoryExportRow;
+import com.backend.quanlytasks.repository.projection.StatusTransitionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
 
     /**
      * Lấy tất cả lịch sử thay đổi của một task, sắp xếp theo thời gian giảm dần
+     * Nạp kèm người thay đổi để mapper không phát sinh query theo từng dòng
      */
+    @EntityGraph(attributePaths = "changedBy")
     List<TaskHistory> findByTaskIdOrderByChangedAtDesc(Long taskId);
+
+    /**
+     * Trang lịch sử mới nhất của một task (keyset, từ mới đến cũ)
+     */
+    @EntityGraph(attributePaths = "changedBy")
+    @Query("SELECT h FROM TaskHistory h WHERE h.task.id = :taskId ORDER BY h.changedAt DESC, h.id DESC")
+    List<TaskHistory> findLatestByTaskId(@Param("taskId") Long taskId, Limit limit);
+
+    /**
+     * Trang lịch sử cũ hơn cursor (changedAt, id) của một task
+     */
+    @EntityGraph(attributePaths = "changedBy")
+    @Query("SELECT h FROM TaskHistory h WHERE h.task.id = :taskId " +
+            "AND (h.changedAt < :changedAt OR (h.changedAt = :changedAt AND h.id < :id)) " +
+            "ORDER BY h.changedAt DESC, h.id DESC")
+    List<TaskHistory> findByTaskIdBefore(@Param("taskId") Long taskId,
+            @Param("changedAt") LocalDateTime changedAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    /**
+     * Ghi lịch sử đổi trạng thái bằng 1 câu INSERT, chạy ngay sau UPDATE có điều kiện trong cùng transaction
+     * Không cần entity Task/User (chỉ khóa ngoại) nên không có SELECT hay persist qua persistence context
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_history (task_id, changed_by_id, field_name, old_value, new_value, changed_at) " +
+            "VALUES (:taskId, :changedById, 'status', :oldValue, :newValue, :changedAt)", nativeQuery = true)
+    int insertStatusChange(@Param("taskId") Long taskId,
+            @Param("changedById") Long changedById,
+            @Param("oldValue") String oldValue,
+            @Param("newValue") String newValue,
+            @Param("changedAt") LocalDateTime changedAt);
+
+    /**
+     * Nạp lịch sử thay đổi của nhiều task trong 1 query (cho sheet History của file export)
+     */
+    @Query("SELECT new com.backend.quanlytasks.repository.projection.HistoryExportRow(" +
+            "h.task.id, h.id, u.fullName, h.fieldName, h.oldValue, h.newValue, h.changedAt) " +
+            "FROM TaskHistory h LEFT JOIN h.changedBy u WHERE h.task.id IN :taskIds ORDER BY h.task.id, h.id")
+    List<HistoryExportRow> findExportRowsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Các lần task chuyển sang DONE có id lớn hơn mốc đã xử lý, theo thứ tự id (cho job tổng hợp báo cáo)
+     * Bỏ qua DONE -> DONE; completedBefore đánh dấu task đã hoàn thành trước đó (bị mở lại)
+     * Người được giao là người được giao hiện tại của task lúc job chạy (task_history không lưu assignee id)
+     * Đọc dạng stream chỉ-tiến với fetch size cố định: không giữ cả tập kết quả trong heap
+     * (MySQL cần useCursorFetch=true trong JDBC URL để fetch size có hiệu lực)
+     * Phải được đọc hết và đóng trong transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.backend.quanlytasks.repository.projection.StatusTransitionRow(" +
+            "h.id, a.id, h.oldValue, " +
+            "CASE WHEN EXISTS (SELECT p.id FROM TaskHistory p WHERE p.task = h.task AND p.id < h.id " +
+            "AND p.fieldName = 'status' AND p.newValue = 'DONE' AND p.oldValue <> 'DONE') " +
+            "THEN true ELSE false END, " +
+            "h.changedAt, t.createdAt, t.dueDate) " +
+            "FROM TaskHistory h JOIN h.task t LEFT JOIN t.assignee a " +
+            "WHERE h.id > :afterId AND h.fieldName = 'status' AND h.newValue = 'DONE' AND h.oldValue <> 'DONE' " +
+            "AND h.changedAt < :before ORDER BY h.id")
+    Stream<StatusTransitionRow> streamDoneTransitionsAfter(@Param("afterId") Long afterId,
+            @Param("before") LocalDateTime before,
+            Limit limit);
 }
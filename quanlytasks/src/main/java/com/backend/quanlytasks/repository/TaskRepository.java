@@ -1,21 +1,34 @@
 package com.backend.quanlytasks.repository;
 
-import com.backend.quanlytasks.common.enums.Priority;
 import com.backend.quanlytasks.common.enums.TaskStatus;
 import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.repository.projection.TaskDetailVersionRow;
+import com.backend.quanlytasks.repository.projection.TaskExportRow;
+import com.backend.quanlytasks.repository.projection.TaskListRow;
+import com.backend.quanlytasks.repository.projection.TaskStatusCountRow;
+import com.backend.quanlytasks.repository.projection.TaskStatusRow;
+import com.backend.quanlytasks.repository.projection.TaskTagRow;
+import com.backend.quanlytasks.repository.projection.UserStatusCountRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
         /**
          * Tìm task theo ID và chưa bị xóa mềm
@@ -23,79 +36,125 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
         Optional<Task> findByIdAndIsDelete(Long id, Integer isDelete);
 
         /**
-         * Lấy danh sách task với phân trang và filter
-         * Dùng cho ADMIN (xem tất cả bao gồm cả task đã xóa mềm)
+         * Nạp task cho trang chi tiết kèm người tạo, người được giao và tags trong 1 query
+         * (kể cả task đã xóa mềm, service tự kiểm tra isDelete)
          */
-        @Query("SELECT DISTINCT t FROM Task t LEFT JOIN t.tags tag " +
-                        "WHERE (:status IS NULL OR t.status = :status) " +
-                        "AND (:priority IS NULL OR t.priority = :priority) " +
-                        "AND (:assigneeId IS NULL OR t.assignee.id = :assigneeId) " +
-                        "AND (:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) " +
-                        "AND (:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) " +
-                        "AND (:tagName IS NULL OR tag.name = :tagName)")
-        Page<Task> findAllWithFilters(
-                        @Param("status") TaskStatus status,
-                        @Param("priority") Priority priority,
-                        @Param("assigneeId") Long assigneeId,
-                        @Param("dueDateFrom") LocalDateTime dueDateFrom,
-                        @Param("dueDateTo") LocalDateTime dueDateTo,
-                        @Param("tagName") String tagName,
-                        Pageable pageable);
+        @Query("SELECT t FROM Task t JOIN FETCH t.createdBy LEFT JOIN FETCH t.assignee " +
+                        "LEFT JOIN FETCH t.tags WHERE t.id = :id")
+        Optional<Task> findDetailById(@Param("id") Long id);
+
+        /**
+         * Lấy phiên bản hiện tại của task (khóa cache chi tiết task), không nạp entity
+         */
+        @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+        Optional<Long> findVersionById(@Param("id") Long id);
+
+        /**
+         * Đọc trạng thái, người tạo, người được giao của task chưa xóa (cho đổi trạng thái)
+         */
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskStatusRow(" +
+                        "t.id, t.title, t.status, t.createdBy.id, t.assignee.id) " +
+                        "FROM Task t WHERE t.id = :id AND t.isDelete = 0")
+        Optional<TaskStatusRow> findStatusRowById(@Param("id") Long id);
 
         /**
-         * Lấy danh sách task của USER (task do họ tạo, được assign, hoặc được assign
-         * subtask)
+         * Đổi trạng thái bằng 1 câu UPDATE có điều kiện, chỉ khi trạng thái hiện tại vẫn là expected
+         * Tăng version để cache chi tiết task không trả dữ liệu cũ
+         *
+         * @return 0 nếu task đã bị xóa hoặc trạng thái đã bị người khác đổi
          */
-        @Query("SELECT DISTINCT t FROM Task t LEFT JOIN t.tags tag WHERE t.isDelete = 0 " +
-                        "AND (t.createdBy.id = :userId OR t.assignee.id = :userId " +
-                        "     OR EXISTS (SELECT 1 FROM SubTask st WHERE st.parentTask = t AND st.assignee.id = :userId AND st.isDelete = 0)) "
-                        +
-                        "AND (:status IS NULL OR t.status = :status) " +
-                        "AND (:priority IS NULL OR t.priority = :priority) " +
-                        "AND (:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) " +
-                        "AND (:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) " +
-                        "AND (:tagName IS NULL OR tag.name = :tagName)")
-        Page<Task> findByUserWithFilters(
-                        @Param("userId") Long userId,
+        @Modifying
+        @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+                        "WHERE t.id = :id AND t.status = :expected AND t.isDelete = 0")
+        int updateStatusIfCurrent(@Param("id") Long id,
+                        @Param("expected") TaskStatus expected,
                         @Param("status") TaskStatus status,
-                        @Param("priority") Priority priority,
-                        @Param("dueDateFrom") LocalDateTime dueDateFrom,
-                        @Param("dueDateTo") LocalDateTime dueDateTo,
-                        @Param("tagName") String tagName,
-                        Pageable pageable);
+                        @Param("updatedAt") LocalDateTime updatedAt);
 
         /**
-         * Lấy tất cả tasks chưa xóa (phân trang)
+         * Nạp dữ liệu hiển thị của một trang task (kèm tên người tạo, người được giao)
+         * trong 1 query, không phụ thuộc số lượng task trên trang
          */
-        Page<Task> findByIsDelete(Integer isDelete, Pageable pageable);
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskListRow(" +
+                        "t.id, t.title, t.description, t.status, t.priority, t.dueDate, " +
+                        "cb.id, cb.fullName, a.id, a.fullName, t.createdAt, t.updatedAt, t.isDelete) " +
+                        "FROM Task t JOIN t.createdBy cb LEFT JOIN t.assignee a " +
+                        "WHERE t.id IN :ids")
+        List<TaskListRow> findListRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Lấy các timestamp của task và dữ liệu con trong 1 query (cho ETag chi tiết task)
+         */
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskDetailVersionRow(" +
+                        "t.id, t.isDelete, t.updatedAt, " +
+                        "(SELECT MAX(c.createdAt) FROM Comment c WHERE c.task.id = t.id), " +
+                        "(SELECT MAX(h.changedAt) FROM TaskHistory h WHERE h.task.id = t.id), " +
+                        "(SELECT MAX(st.updatedAt) FROM SubTask st WHERE st.parentTask.id = t.id)) " +
+                        "FROM Task t WHERE t.id = :id")
+        Optional<TaskDetailVersionRow> findDetailVersionRow(@Param("id") Long id);
 
         /**
-         * Lấy tất cả tasks chưa xóa (không phân trang - cho export Excel)
+         * Nạp tên tag của nhiều task trong 1 query
          */
-        List<Task> findAllByIsDelete(Integer isDelete);
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskTagRow(t.id, tag.name) " +
+                        "FROM Task t JOIN t.tags tag WHERE t.id IN :ids")
+        List<TaskTagRow> findTagRowsByTaskIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Backfill priority_rank cho các task tạo trước khi có cột này
+         */
+        @Transactional
+        @Modifying
+        @Query(value = "UPDATE tasks SET priority_rank = CASE priority " +
+                        "WHEN 'LOW' THEN 1 WHEN 'MEDIUM' THEN 2 WHEN 'HIGH' THEN 3 END " +
+                        "WHERE priority_rank IS NULL", nativeQuery = true)
+        int backfillPriorityRank();
+
+        /**
+         * Khởi tạo version cho các task tạo trước khi có cột này
+         */
+        @Transactional
+        @Modifying
+        @Query(value = "UPDATE tasks SET version = 0 WHERE version IS NULL", nativeQuery = true)
+        int backfillVersion();
+
+        /**
+         * Lấy tất cả tasks chưa xóa (phân trang)
+         */
+        Page<Task> findByIsDelete(Integer isDelete, Pageable pageable);
 
         /**
-         * Lấy tasks của user (tạo hoặc được assign) - cho export Excel
+         * Dòng export của mọi task (kể cả đã xóa mềm) có updatedAt trong [from, before), theo (updatedAt, id)
+         * Quét khoảng trên index idx_tasks_updated_at_id: chi phí theo số task thay đổi, không theo kích thước bảng
+         * Đọc dạng stream chỉ-tiến với fetch size cố định, phải được đọc hết và đóng trong transaction
          */
-        @Query("SELECT t FROM Task t WHERE t.isDelete = :isDelete " +
-                        "AND (t.createdBy.id = :createdById OR t.assignee.id = :assigneeId)")
-        List<Task> findByCreatedByIdOrAssigneeIdAndIsDelete(
-                        @Param("createdById") Long createdById,
-                        @Param("assigneeId") Long assigneeId,
-                        @Param("isDelete") Integer isDelete);
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskExportRow(" +
+                        "t.id, t.title, t.description, t.status, t.priority, a.fullName, t.dueDate, t.createdAt, " +
+                        "t.updatedAt, t.isDelete) " +
+                        "FROM Task t LEFT JOIN t.assignee a " +
+                        "WHERE t.updatedAt >= :from AND t.updatedAt < :before ORDER BY t.updatedAt, t.id")
+        Stream<TaskExportRow> streamChangedBetween(@Param("from") LocalDateTime from,
+                        @Param("before") LocalDateTime before);
 
         /**
-         * Đếm số task theo status cho ADMIN (tất cả task)
+         * Đếm số task chưa xóa của mọi status trong 1 query (cho job đối soát bộ đếm)
+         * Status không có task nào sẽ không có dòng trả về
          */
-        long countByStatusAndIsDelete(TaskStatus status, Integer isDelete);
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskStatusCountRow(t.status, COUNT(t)) " +
+                        "FROM Task t WHERE t.isDelete = 0 GROUP BY t.status")
+        List<TaskStatusCountRow> countGroupByStatus();
 
         /**
-         * Đếm số task theo status cho USER (task do họ tạo, được assign, hoặc được
-         * assign subtask)
+         * Đếm số task chưa xóa theo (user, status) trên toàn bộ user_task_access
+         * Quét cả bảng: chỉ dùng cho job đối soát bộ đếm
          */
-        @Query("SELECT COUNT(DISTINCT t) FROM Task t WHERE t.isDelete = 0 " +
-                        "AND t.status = :status " +
-                        "AND (t.createdBy.id = :userId OR t.assignee.id = :userId " +
-                        "     OR EXISTS (SELECT 1 FROM SubTask st WHERE st.parentTask = t AND st.assignee.id = :userId AND st.isDelete = 0))")
-        long countByStatusForUser(@Param("status") TaskStatus status, @Param("userId") Long userId);
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.UserStatusCountRow(" +
+                        "a.userId, t.status, COUNT(DISTINCT t.id)) " +
+                        "FROM UserTaskAccess a JOIN Task t ON t.id = a.taskId " +
+                        "WHERE t.isDelete = 0 GROUP BY a.userId, t.status")
+        List<UserStatusCountRow> countGroupByUserAndStatus();
 }
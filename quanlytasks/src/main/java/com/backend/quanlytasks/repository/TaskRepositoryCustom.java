@@ -0,0 +1,58 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.pagination.TaskCursor;
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.repository.projection.TaskExportRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Các truy vấn danh sách task được dựng động từ TaskFilterRequest (Criteria API)
+ * Chỉ sinh những điều kiện và subquery mà filter thực sự yêu cầu
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Lấy ID task theo filter, phân trang offset (có COUNT, tổng số có thể lấy từ TaskCountCache)
+     *
+     * @param userId null nếu là ADMIN (xem tất cả, kể cả task đã xóa mềm),
+     *               ngược lại chỉ lấy task USER được phép xem
+     */
+    Page<Long> findTaskIds(TaskFilterRequest filter, Long userId, Pageable pageable);
+
+    /**
+     * Lấy ID task theo filter, phân trang offset không COUNT
+     * Lấy dư 1 dòng để biết còn trang sau hay không
+     */
+    Slice<Long> findTaskIdSlice(TaskFilterRequest filter, Long userId, Pageable pageable);
+
+    /**
+     * Lấy ID task theo filter, phân trang keyset sau cursor (không COUNT)
+     *
+     * @param cursor null nếu là trang đầu tiên; cách sắp xếp của cursor phải trùng với filter
+     * @param limit  số dòng tối đa cần lấy
+     */
+    List<Long> findTaskIdsAfterCursor(TaskFilterRequest filter, Long userId, TaskCursor cursor, int limit);
+
+    /**
+     * Dòng export của các task chưa xóa thỏa filter, theo thứ tự sắp xếp của filter
+     * Đọc dạng stream chỉ-tiến với fetch size cố định (MySQL cần useCursorFetch=true trong JDBC URL),
+     * phải được đọc hết và đóng trong transaction
+     *
+     * @param userId null nếu là ADMIN, ngược lại chỉ lấy task USER được phép xem
+     */
+    Stream<TaskExportRow> streamExportRows(TaskFilterRequest filter, Long userId);
+
+    /**
+     * Tăng version của task khi commit transaction hiện tại, kể cả khi bản thân task không đổi
+     * (subtask, comment thay đổi), để cache chi tiết task không trả dữ liệu cũ
+     *
+     * @param task entity đang được quản lý trong transaction
+     */
+    void bumpVersion(Task task);
+}
@@ -0,0 +1,144 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.cache.TaskCountCache;
+import com.backend.quanlytasks.common.pagination.TaskCursor;
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.projection.TaskExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cài đặt TaskRepositoryCustom bằng Criteria API
+ * Chỉ SELECT id để trang kết quả nhẹ; dữ liệu hiển thị được nạp sau qua read model
+ */
+@RequiredArgsConstructor
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TaskCountCache taskCountCache;
+
+    @Override
+    public Page<Long> findTaskIds(TaskFilterRequest filter, Long userId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(task.<Long>get("id"))
+                .where(TaskFilterPredicateBuilder.build(filter, userId, task, query, cb).toArray(new Predicate[0]))
+                .orderBy(TaskFilterPredicateBuilder.order(filter, task, cb));
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Bỏ qua COUNT khi trang hiện tại đã cho biết tổng số bản ghi
+        return PageableExecutionUtils.getPage(ids, pageable,
+                () -> taskCountCache.get(filter, userId, () -> countTasks(filter, userId)));
+    }
+
+    @Override
+    public Slice<Long> findTaskIdSlice(TaskFilterRequest filter, Long userId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(task.<Long>get("id"))
+                .where(TaskFilterPredicateBuilder.build(filter, userId, task, query, cb).toArray(new Predicate[0]))
+                .orderBy(TaskFilterPredicateBuilder.order(filter, task, cb));
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    @Override
+    public List<Long> findTaskIdsAfterCursor(TaskFilterRequest filter, Long userId, TaskCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> predicates = TaskFilterPredicateBuilder.build(filter, userId, task, query, cb);
+        if (cursor != null) {
+            predicates.add(TaskFilterPredicateBuilder.after(cursor, task, cb));
+        }
+
+        query.select(task.<Long>get("id"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(TaskFilterPredicateBuilder.order(filter, task, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<TaskExportRow> streamExportRows(TaskFilterRequest filter, Long userId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<TaskExportRow> query = cb.createQuery(TaskExportRow.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> assignee = task.join("assignee", JoinType.LEFT);
+
+        List<Predicate> predicates = TaskFilterPredicateBuilder.build(filter, userId, task, query, cb);
+        if (userId == null) {
+            // Danh sách của ADMIN gồm cả task đã xóa mềm, file export thì không
+            predicates.add(cb.equal(task.get("isDelete"), 0));
+        }
+
+        query.select(cb.construct(TaskExportRow.class,
+                task.get("id"), task.get("title"), task.get("description"), task.get("status"),
+                task.get("priority"), assignee.get("fullName"), task.get("dueDate"), task.get("createdAt"),
+                task.get("updatedAt"), task.get("isDelete")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(TaskFilterPredicateBuilder.order(filter, task, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public void bumpVersion(Task task) {
+        // Nếu task cũng bị sửa trong transaction, Hibernate vẫn tăng version theo giá trị đang quản lý
+        entityManager.lock(task, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    /**
+     * Đếm số task thỏa filter, không cần DISTINCT vì không có JOIN nhân dòng
+     */
+    private long countTasks(TaskFilterRequest filter, Long userId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.count(task))
+                .where(TaskFilterPredicateBuilder.build(filter, userId, task, query, cb).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.entity.TaskSearchIndex;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskSearchIndexRepository extends JpaRepository<TaskSearchIndex, Long> {
+
+    /**
+     * Cập nhật tiêu đề/mô tả của task trong index, giữ nguyên phần comment
+     *
+     * @return số dòng được cập nhật (0 nếu task chưa có trong index)
+     */
+    @Modifying
+    @Query(value = "UPDATE task_search_index SET task_text = :taskText, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE task_id = :taskId", nativeQuery = true)
+    int updateTaskText(@Param("taskId") Long taskId, @Param("taskText") String taskText);
+
+    /**
+     * Thêm document cho task chưa có trong index
+     * Nếu backfill vừa thêm cùng task thì chỉ ghi đè task_text, giữ comment_text đã có
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_search_index (task_id, task_text, comment_text, updated_at) " +
+            "VALUES (:taskId, :taskText, :commentText, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE task_text = :taskText, updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int upsert(@Param("taskId") Long taskId,
+            @Param("taskText") String taskText,
+            @Param("commentText") String commentText);
+
+    /**
+     * Nối nội dung comment mới vào văn bản tìm kiếm của task
+     * Không đọc lại các comment cũ
+     *
+     * @return số dòng được cập nhật (0 nếu task chưa có trong index)
+     */
+    @Modifying
+    @Query(value = "UPDATE task_search_index SET comment_text = CONCAT_WS(' ', comment_text, :content), " +
+            "updated_at = CURRENT_TIMESTAMP WHERE task_id = :taskId", nativeQuery = true)
+    int appendComment(@Param("taskId") Long taskId, @Param("content") String content);
+}
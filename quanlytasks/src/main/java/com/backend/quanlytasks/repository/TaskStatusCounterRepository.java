@@ -0,0 +1,45 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.enums.TaskCounterScope;
+import com.backend.quanlytasks.entity.TaskStatusCounter;
+import com.backend.quanlytasks.repository.projection.TaskStatusCountRow;
+import com.backend.quanlytasks.repository.projection.UserStatusCountRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskStatusCounterRepository extends JpaRepository<TaskStatusCounter, Long> {
+
+        /**
+         * Cộng delta vào một stripe của bộ đếm trong 1 câu lệnh, tạo dòng nếu chưa có
+         */
+        @Modifying
+        @Query(value = "INSERT INTO task_status_counters (scope, user_id, status, stripe, count) " +
+                        "VALUES (:scope, :userId, :status, :stripe, :delta) " +
+                        "ON DUPLICATE KEY UPDATE count = count + :delta", nativeQuery = true)
+        int addToCounter(@Param("scope") String scope,
+                        @Param("userId") Long userId,
+                        @Param("status") String status,
+                        @Param("stripe") int stripe,
+                        @Param("delta") long delta);
+
+        /**
+         * Giá trị các bộ đếm của một phạm vi (cộng các stripe), dùng cho thống kê dashboard
+         */
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.TaskStatusCountRow(c.status, SUM(c.count)) " +
+                        "FROM TaskStatusCounter c WHERE c.scope = :scope AND c.userId = :userId GROUP BY c.status")
+        List<TaskStatusCountRow> sumByStatus(@Param("scope") TaskCounterScope scope, @Param("userId") Long userId);
+
+        /**
+         * Giá trị tất cả bộ đếm phạm vi USER (cho job đối soát)
+         */
+        @Query("SELECT new com.backend.quanlytasks.repository.projection.UserStatusCountRow(c.userId, c.status, SUM(c.count)) " +
+                        "FROM TaskStatusCounter c WHERE c.scope = com.backend.quanlytasks.common.enums.TaskCounterScope.USER " +
+                        "GROUP BY c.userId, c.status")
+        List<UserStatusCountRow> sumUserCounters();
+}
@@ -0,0 +1,17 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Tra cứu User theo natural id (email), đi qua second-level cache
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Tìm user theo email
+     * Lần đầu đọc từ DB, các lần sau lấy từ cache natural-id và cache entity
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,98 @@
+package com.backend.quanlytasks.repository;
+
+import com.backend.quanlytasks.common.enums.TaskAccessReason;
+import com.backend.quanlytasks.entity.UserTaskAccess;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserTaskAccessRepository extends JpaRepository<UserTaskAccess, Long> {
+
+        /**
+         * Kiểm tra user có được xem task không (với bất kỳ lý do nào)
+         */
+        boolean existsByUserIdAndTaskId(Long userId, Long taskId);
+
+        /**
+         * Số lý do user đang được xem task
+         */
+        long countByUserIdAndTaskId(Long userId, Long taskId);
+
+        /**
+         * Thêm quyền xem, bỏ qua nếu đã tồn tại (unique user_id, task_id, reason)
+         * Không có bước kiểm tra trước nên 2 request đồng thời không va vào unique constraint
+         *
+         * @return 1 nếu bản ghi mới được thêm, 0 nếu đã có
+         */
+        @Modifying
+        @Query(value = "INSERT IGNORE INTO user_task_access (user_id, task_id, reason) " +
+                        "VALUES (:userId, :taskId, :reason)", nativeQuery = true)
+        int insertIgnore(@Param("userId") Long userId,
+                        @Param("taskId") Long taskId,
+                        @Param("reason") String reason);
+
+        /**
+         * Các user đang được xem task (với bất kỳ lý do nào)
+         */
+        @Query("SELECT DISTINCT a.userId FROM UserTaskAccess a WHERE a.taskId = :taskId")
+        List<Long> findUserIdsByTaskId(@Param("taskId") Long taskId);
+
+        /**
+         * Thu hồi quyền xem task với một lý do cụ thể
+         */
+        @Modifying
+        @Query("DELETE FROM UserTaskAccess a WHERE a.userId = :userId AND a.taskId = :taskId AND a.reason = :reason")
+        int deleteAccess(@Param("userId") Long userId,
+                        @Param("taskId") Long taskId,
+                        @Param("reason") TaskAccessReason reason);
+
+        /**
+         * Backfill: thêm quyền CREATOR còn thiếu
+         */
+        @Modifying
+        @Query(value = "INSERT INTO user_task_access (user_id, task_id, reason) " +
+                        "SELECT t.created_by_id, t.id, 'CREATOR' FROM tasks t " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM user_task_access a " +
+                        "WHERE a.user_id = t.created_by_id AND a.task_id = t.id AND a.reason = 'CREATOR')", nativeQuery = true)
+        int insertMissingCreatorAccess();
+
+        /**
+         * Backfill: thêm quyền ASSIGNEE còn thiếu
+         */
+        @Modifying
+        @Query(value = "INSERT INTO user_task_access (user_id, task_id, reason) " +
+                        "SELECT t.assignee_id, t.id, 'ASSIGNEE' FROM tasks t " +
+                        "WHERE t.assignee_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM user_task_access a " +
+                        "WHERE a.user_id = t.assignee_id AND a.task_id = t.id AND a.reason = 'ASSIGNEE')", nativeQuery = true)
+        int insertMissingAssigneeAccess();
+
+        /**
+         * Backfill: thêm quyền SUBTASK_ASSIGNEE còn thiếu (chỉ tính subtask chưa xóa)
+         */
+        @Modifying
+        @Query(value = "INSERT INTO user_task_access (user_id, task_id, reason) " +
+                        "SELECT DISTINCT st.assignee_id, st.parent_task_id, 'SUBTASK_ASSIGNEE' FROM subtasks st " +
+                        "WHERE st.is_delete = 0 AND st.assignee_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM user_task_access a " +
+                        "WHERE a.user_id = st.assignee_id AND a.task_id = st.parent_task_id " +
+                        "AND a.reason = 'SUBTASK_ASSIGNEE')", nativeQuery = true)
+        int insertMissingSubTaskAssigneeAccess();
+
+        /**
+         * Dọn các bản ghi không còn đúng với dữ liệu gốc (đổi assignee, xóa subtask...)
+         */
+        @Modifying
+        @Query(value = "DELETE FROM user_task_access WHERE " +
+                        "(reason = 'CREATOR' AND NOT EXISTS (SELECT 1 FROM tasks t " +
+                        "   WHERE t.id = user_task_access.task_id AND t.created_by_id = user_task_access.user_id)) " +
+                        "OR (reason = 'ASSIGNEE' AND NOT EXISTS (SELECT 1 FROM tasks t " +
+                        "   WHERE t.id = user_task_access.task_id AND t.assignee_id = user_task_access.user_id)) " +
+                        "OR (reason = 'SUBTASK_ASSIGNEE' AND NOT EXISTS (SELECT 1 FROM subtasks st " +
+                        "   WHERE st.parent_task_id = user_task_access.task_id " +
+                        "   AND st.assignee_id = user_task_access.user_id AND st.is_delete = 0))", nativeQuery = true)
+        int deleteStaleAccess();
+}
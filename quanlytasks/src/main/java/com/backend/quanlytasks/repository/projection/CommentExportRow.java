@@ -0,0 +1,24 @@
+package com.backend.quanlytasks.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của sheet Comments trong file export (kèm id task và tên tác giả)
+ */
+@Getter
+@AllArgsConstructor
+public class CommentExportRow {
+
+    private Long taskId;
+
+    private Long id;
+
+    private String authorName;
+
+    private String content;
+
+    private LocalDateTime createdAt;
+}
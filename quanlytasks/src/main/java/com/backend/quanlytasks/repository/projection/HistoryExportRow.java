@@ -0,0 +1,28 @@
+package com.backend.quanlytasks.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của sheet History trong file export (kèm id task và tên người thay đổi)
+ */
+@Getter
+@AllArgsConstructor
+public class HistoryExportRow {
+
+    private Long taskId;
+
+    private Long id;
+
+    private String changedByName;
+
+    private String fieldName;
+
+    private String oldValue;
+
+    private String newValue;
+
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,46 @@
+package com.backend.quanlytasks.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một lần task chuyển sang DONE (bản ghi task_history field_name = 'status')
+ * kèm các cột của task cần cho báo cáo
+ */
+@Getter
+@AllArgsConstructor
+public class StatusTransitionRow {
+
+    private Long historyId;
+
+    /**
+     * Người được giao hiện tại của task (lúc job tổng hợp chạy, không phải lúc chuyển trạng thái)
+     */
+    private Long assigneeId;
+
+    /**
+     * Trạng thái trước khi chuyển sang DONE
+     */
+    private String oldValue;
+
+    /**
+     * Task đã từng hoàn thành trước lần chuyển này (bị mở lại rồi hoàn thành lần nữa)
+     */
+    private Boolean completedBefore;
+
+    private LocalDateTime changedAt;
+
+    private LocalDateTime taskCreatedAt;
+
+    private LocalDateTime dueDate;
+
+    /**
+     * Chỉ lần hoàn thành đầu tiên của task được tính vào báo cáo:
+     * bỏ qua DONE -> DONE (bấm lại cùng trạng thái) và các lần hoàn thành lại sau khi mở lại task
+     */
+    public boolean isFirstCompletion() {
+        return !"DONE".equals(oldValue) && !Boolean.TRUE.equals(completedBefore);
+    }
+}
@@ -0,0 +1,27 @@
+package com.backend.quanlytasks.repository.projection;
+
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của sheet Subtasks trong file export (kèm id task cha và tên người được giao)
+ */
+@Getter
+@AllArgsConstructor
+public class SubTaskExportRow {
+
+    private Long taskId;
+
+    private Long id;
+
+    private String title;
+
+    private TaskStatus status;
+
+    private String assigneeName;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.backend.quanlytasks.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Các timestamp quyết định nội dung chi tiết task (task, comment, history, subtask)
+ * Dùng làm validator cho ETag / Last-Modified của chi tiết task
+ */
+@Getter
+@AllArgsConstructor
+public class TaskDetailVersionRow {
+
+    private Long taskId;
+
+    private Integer isDelete;
+
+    private LocalDateTime taskUpdatedAt;
+
+    private LocalDateTime lastCommentAt;
+
+    private LocalDateTime lastHistoryAt;
+
+    private LocalDateTime lastSubTaskAt;
+}
@@ -0,0 +1,40 @@
+package com.backend.quanlytasks.repository.projection;
+
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một dòng của file export task (kèm tên người được giao)
+ * Không phải entity: không nằm trong persistence context nên đọc bao nhiêu dòng cũng không tích lũy trong heap
+ */
+@Getter
+@AllArgsConstructor
+public class TaskExportRow {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private TaskStatus status;
+
+    private Priority priority;
+
+    private String assigneeName;
+
+    private LocalDateTime dueDate;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * 1 nếu task đã bị xóa mềm (chỉ có trong export delta, ghi thành tombstone)
+     */
+    private Integer isDelete;
+}
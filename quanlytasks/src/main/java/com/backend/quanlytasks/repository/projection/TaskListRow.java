@@ -0,0 +1,44 @@
+package com.backend.quanlytasks.repository.projection;
+
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model cho một dòng trong danh sách task
+ * Được tạo trực tiếp bằng constructor expression trong JPQL (kèm tên người tạo và
+ * người được giao) nên không phải lazy-load User cho từng task
+ */
+@Getter
+@AllArgsConstructor
+public class TaskListRow {
+
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private TaskStatus status;
+
+    private Priority priority;
+
+    private LocalDateTime dueDate;
+
+    private Long createdById;
+
+    private String createdByName;
+
+    private Long assigneeId;
+
+    private String assigneeName;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private Integer isDelete;
+}
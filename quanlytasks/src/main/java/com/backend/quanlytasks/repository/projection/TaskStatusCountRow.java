@@ -0,0 +1,17 @@
+package com.backend.quanlytasks.repository.projection;
+
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Số task của một trạng thái (một nhóm của GROUP BY status)
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStatusCountRow {
+
+    private TaskStatus status;
+
+    private Long count;
+}
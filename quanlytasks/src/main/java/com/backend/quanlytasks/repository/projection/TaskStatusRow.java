@@ -0,0 +1,24 @@
+package com.backend.quanlytasks.repository.projection;
+
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Các cột cần để đổi trạng thái task: kiểm tra quyền và giá trị cũ cho history
+ * Không nạp entity Task nên không có dirty checking hay lazy-load người tạo/người được giao
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStatusRow {
+
+    private Long id;
+
+    private String title;
+
+    private TaskStatus status;
+
+    private Long createdById;
+
+    private Long assigneeId;
+}
@@ -0,0 +1,16 @@
+package com.backend.quanlytasks.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read model cho cặp (taskId, tên tag), dùng để nạp tag của cả trang trong 1 query
+ */
+@Getter
+@AllArgsConstructor
+public class TaskTagRow {
+
+    private Long taskId;
+
+    private String tagName;
+}
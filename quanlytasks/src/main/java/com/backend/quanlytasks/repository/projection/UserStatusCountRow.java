@@ -0,0 +1,19 @@
+package com.backend.quanlytasks.repository.projection;
+
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Số task của một user theo một status (GROUP BY user, status)
+ */
+@Getter
+@AllArgsConstructor
+public class UserStatusCountRow {
+
+    private Long userId;
+
+    private TaskStatus status;
+
+    private Long count;
+}
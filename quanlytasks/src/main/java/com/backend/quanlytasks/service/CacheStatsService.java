@@ -0,0 +1,15 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.dto.response.Cache.CacheStatsResponse;
+
+/**
+ * Service đọc thống kê hit/miss của Hibernate second-level cache để tinh chỉnh kích thước, TTL
+ */
+public interface CacheStatsService {
+
+    /**
+     * Thống kê tổng và theo từng region (User, Role, Tag và natural-id tương ứng)
+     * cùng với cache kết quả danh sách task
+     */
+    CacheStatsResponse getStats();
+}
@@ -1,6 +1,7 @@
 package com.backend.quanlytasks.service;
 
 import com.backend.quanlytasks.dto.request.Comment.CreateCommentRequest;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Comment.CommentResponse;
 import com.backend.quanlytasks.entity.User;
 
@@ -20,4 +21,11 @@ public interface CommentService {
      * Lấy tất cả comments của một task
      */
     List<CommentResponse> getCommentsByTaskId(Long taskId);
+
+    /**
+     * Lấy một trang comments của task, từ mới đến cũ (phân trang keyset)
+     *
+     * @param cursor null để lấy các comment mới nhất
+     */
+    CommentListResponse getCommentPage(Long taskId, String cursor, int size);
 }
@@ -0,0 +1,37 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.dto.response.Export.ExportJobResponse;
+import com.backend.quanlytasks.entity.User;
+import org.springframework.core.io.Resource;
+
+/**
+ * Service export bất đồng bộ: file được ghi ra thư mục spool bởi worker pool giới hạn,
+ * client hỏi trạng thái rồi tải file khi xong (request không phải chờ trong lúc ghi)
+ * Trạng thái job chỉ nằm trong bộ nhớ của instance nhận yêu cầu
+ */
+public interface ExportJobService {
+
+    /**
+     * Đưa yêu cầu export Excel vào hàng đợi
+     * ADMIN xuất tất cả task, USER xuất task mình được phép xem (theo filter và các sheet được chọn)
+     */
+    ExportJobResponse submit(TaskExportRequest request, User currentUser, boolean isAdmin);
+
+    /**
+     * Trạng thái, tiến độ của job (chỉ người tạo job được xem)
+     */
+    ExportJobResponse getJob(String id, User currentUser);
+
+    /**
+     * File kết quả của job đã xong (chỉ người tạo job được tải)
+     */
+    Resource getArtifact(String id, User currentUser);
+
+    /**
+     * Xóa các job đã kết thúc quá TTL cùng file của chúng, và file mồ côi trong thư mục spool
+     *
+     * @return số file đã xóa
+     */
+    int sweepExpired();
+}
@@ -0,0 +1,97 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.cache.TaskDetailCache;
+import com.backend.quanlytasks.cache.TaskListCache;
+import com.backend.quanlytasks.config.HibernateCacheConfig;
+import com.backend.quanlytasks.dto.response.Cache.CacheRegionStatsResponse;
+import com.backend.quanlytasks.dto.response.Cache.CacheStatsResponse;
+import com.backend.quanlytasks.service.CacheStatsService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    /**
+     * Các region được theo dõi, khớp với @Cache/@NaturalIdCache trên entity
+     */
+    private static final List<String> REGIONS = List.of(
+            HibernateCacheConfig.USERS,
+            HibernateCacheConfig.USERS_NATURAL_ID,
+            HibernateCacheConfig.USER_ROLES,
+            HibernateCacheConfig.ROLES,
+            HibernateCacheConfig.ROLES_NATURAL_ID,
+            HibernateCacheConfig.TAGS,
+            HibernateCacheConfig.TAGS_NATURAL_ID);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TaskListCache taskListCache;
+    private final TaskDetailCache taskDetailCache;
+
+    @Override
+    public CacheStatsResponse getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheRegionStatsResponse> regions = new ArrayList<>();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            // null khi region chưa được tạo (cache tắt hoặc entity chưa từng được nạp)
+            if (regionStats != null) {
+                regions.add(mapToRegionResponse(region, regionStats));
+            }
+        }
+
+        return CacheStatsResponse.builder()
+                .statisticsEnabled(statistics.isStatisticsEnabled())
+                .secondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount())
+                .secondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount())
+                .secondLevelCachePutCount(statistics.getSecondLevelCachePutCount())
+                .naturalIdCacheHitCount(statistics.getNaturalIdCacheHitCount())
+                .naturalIdCacheMissCount(statistics.getNaturalIdCacheMissCount())
+                .regions(regions)
+                .taskListCache(mapToCaffeineResponse("task-list", taskListCache.stats(), taskListCache.size()))
+                .taskDetailCache(mapToCaffeineResponse("task-detail", taskDetailCache.stats(), taskDetailCache.size()))
+                .build();
+    }
+
+    /**
+     * Mapper: thống kê Caffeine của cache ứng dụng -> CacheRegionStatsResponse
+     */
+    private CacheRegionStatsResponse mapToCaffeineResponse(String region, CacheStats stats, long size) {
+        if (stats == null) {
+            return null;
+        }
+        return CacheRegionStatsResponse.builder()
+                .region(region)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRatio(stats.requestCount() > 0 ? stats.hitRate() : null)
+                .elementCount(size)
+                .build();
+    }
+
+    /**
+     * Mapper: CacheRegionStatistics -> CacheRegionStatsResponse
+     */
+    private CacheRegionStatsResponse mapToRegionResponse(String region, CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long misses = stats.getMissCount();
+        return CacheRegionStatsResponse.builder()
+                .region(region)
+                .hitCount(hits)
+                .missCount(misses)
+                .putCount(stats.getPutCount())
+                .hitRatio(hits + misses > 0 ? (double) hits / (hits + misses) : null)
+                .elementCount(stats.getElementCountInMemory())
+                .build();
+    }
+}
@@ -1,20 +1,30 @@
 package com.backend.quanlytasks.service.Impl;
 
+import com.backend.quanlytasks.common.pagination.TimelineCursor;
 import com.backend.quanlytasks.dto.request.Comment.CreateCommentRequest;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Comment.CommentResponse;
 import com.backend.quanlytasks.entity.Comment;
 import com.backend.quanlytasks.entity.SubTask;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.event.TaskChangedEvent;
+import com.backend.quanlytasks.event.TaskChangedEvent.ChangeType;
 import com.backend.quanlytasks.event.TaskNotificationEvent.NotificationType;
 import com.backend.quanlytasks.repository.CommentRepository;
 import com.backend.quanlytasks.repository.SubTaskRepository;
 import com.backend.quanlytasks.repository.TaskRepository;
 import com.backend.quanlytasks.service.CommentService;
 import com.backend.quanlytasks.service.NotificationService;
+import com.backend.quanlytasks.service.TaskSearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,14 +38,22 @@ public class CommentServiceImpl implements CommentService {
     private final TaskRepository taskRepository;
     private final SubTaskRepository subTaskRepository;
     private final NotificationService notificationService;
+    private final TaskSearchService taskSearchService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public CommentResponse createComment(CreateCommentRequest request, User currentUser) {
         Task task = taskRepository.findByIdAndIsDelete(request.getTaskId(), 0)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
 
         Comment comment = mapToComment(request, task, currentUser);
         comment = commentRepository.save(comment);
+        // Comment nằm trong chi tiết task: tăng version để cache chi tiết task không trả dữ liệu cũ
+        taskRepository.bumpVersion(task);
+        taskSearchService.indexComment(comment);
+        // Comment chỉ ảnh hưởng kết quả tìm kiếm full-text của danh sách task
+        eventPublisher.publishEvent(new TaskChangedEvent(this, task.getId(), Set.of(), ChangeType.COMMENT_ADDED));
 
         // Collect users to notify (avoid duplicate notifications)
         Set<Long> notifiedUserIds = new HashSet<>();
@@ -82,6 +100,7 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByTaskId(Long taskId) {
         List<Comment> comments = commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId);
         return comments.stream()
@@ -89,6 +108,40 @@ public class CommentServiceImpl implements CommentService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CommentListResponse getCommentPage(Long taskId, String cursor, int size) {
+        TimelineCursor before = TimelineCursor.decode(cursor);
+
+        // Lấy dư 1 dòng để biết còn comment cũ hơn hay không
+        Limit limit = Limit.of(size + 1);
+        List<Comment> comments = new ArrayList<>(before == null
+                ? commentRepository.findLatestByTaskId(taskId, limit)
+                : commentRepository.findByTaskIdBefore(taskId, before.getTime(), before.getId(), limit));
+
+        boolean hasNext = comments.size() > size;
+        if (hasNext) {
+            comments = comments.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Comment oldest = comments.get(comments.size() - 1);
+            nextCursor = new TimelineCursor(oldest.getCreatedAt(), oldest.getId()).encode();
+        }
+
+        // Hiển thị cũ trước mới sau, giống getCommentsByTaskId
+        Collections.reverse(comments);
+
+        return CommentListResponse.builder()
+                .comments(comments.stream()
+                        .map(this::mapToCommentResponse)
+                        .collect(Collectors.toList()))
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     /**
      * Mapper: CreateCommentRequest -> Comment
      */
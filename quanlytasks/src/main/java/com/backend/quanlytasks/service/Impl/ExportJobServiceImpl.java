@@ -0,0 +1,243 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.common.pagination.ExportWatermark;
+import com.backend.quanlytasks.common.enums.ExportJobStatus;
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.dto.response.Export.ExportJobResponse;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.service.ExportJobService;
+import com.backend.quanlytasks.service.TaskExportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final TaskExportService taskExportService;
+
+    private final Path spoolDir;
+
+    private final Duration ttl;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobServiceImpl(
+            TaskExportService taskExportService,
+            @Value("${app.export.spool-dir:${java.io.tmpdir}/quanlytasks-exports}") String spoolDir,
+            @Value("${app.export.workers:2}") int workers,
+            @Value("${app.export.queue-size:20}") int queueSize,
+            @Value("${app.export.ttl:1h}") Duration ttl) {
+        this.taskExportService = taskExportService;
+        this.spoolDir = Paths.get(spoolDir);
+        this.ttl = ttl;
+        try {
+            Files.createDirectories(this.spoolDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Không tạo được thư mục export: " + spoolDir, e);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        // Số export chạy đồng thời có giới hạn: mỗi export giữ một connection DB trong suốt lúc ghi
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public ExportJobResponse submit(TaskExportRequest request, User currentUser, boolean isAdmin) {
+        ExportWatermark changedBefore = taskExportService.resolveWatermark(request, isAdmin);
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), currentUser.getId(), LocalDateTime.now(),
+                request.fileName(LocalDate.now()), request.contentType(),
+                changedBefore != null ? changedBefore.encode() : null);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, request, currentUser, isAdmin, changedBefore));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new RuntimeException("Đang có quá nhiều yêu cầu export, vui lòng thử lại sau");
+        }
+        return toResponse(job);
+    }
+
+    @Override
+    public ExportJobResponse getJob(String id, User currentUser) {
+        return toResponse(findOwnJob(id, currentUser));
+    }
+
+    @Override
+    public Resource getArtifact(String id, User currentUser) {
+        ExportJob job = findOwnJob(id, currentUser);
+        if (job.status != ExportJobStatus.DONE) {
+            throw new RuntimeException("File export chưa sẵn sàng");
+        }
+        Path file = artifactPath(job);
+        if (!Files.exists(file)) {
+            throw new RuntimeException("File export đã hết hạn");
+        }
+        return new FileSystemResource(file);
+    }
+
+    @Override
+    public int sweepExpired() {
+        LocalDateTime expiredBefore = LocalDateTime.now().minus(ttl);
+        int deleted = 0;
+        for (ExportJob job : jobs.values()) {
+            if (job.finishedAt != null && job.finishedAt.isBefore(expiredBefore)) {
+                jobs.remove(job.id);
+                deleted += deleteQuietly(artifactPath(job)) ? 1 : 0;
+            }
+        }
+
+        // File không còn job nào tham chiếu (ví dụ còn sót từ lần chạy trước khi restart)
+        Instant orphanBefore = Instant.now().minus(ttl);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String jobId = name.contains(".") ? name.substring(0, name.indexOf('.')) : name;
+                if (!jobs.containsKey(jobId) && Files.getLastModifiedTime(file).toInstant().isBefore(orphanBefore)) {
+                    deleted += deleteQuietly(file) ? 1 : 0;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Không đọc được thư mục export {}: {}", spoolDir, e.getMessage());
+        }
+        return deleted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Helper: Ghi file của job vào file tạm (.part) rồi đổi tên khi xong
+     * để file dở dang không bao giờ được tải về
+     */
+    private void run(ExportJob job, TaskExportRequest request, User currentUser, boolean isAdmin,
+            ExportWatermark changedBefore) {
+        job.status = ExportJobStatus.RUNNING;
+        Path file = artifactPath(job);
+        Path part = spoolDir.resolve(file.getFileName() + PART_SUFFIX);
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                taskExportService.exportTasks(request, currentUser, isAdmin, changedBefore, out,
+                        rows -> job.rowsWritten = rows);
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            job.fileSize = Files.size(file);
+            job.status = ExportJobStatus.DONE;
+        } catch (Exception e) {
+            log.error("Export {} lỗi", job.id, e);
+            deleteQuietly(part);
+            job.error = e.getMessage();
+            job.status = ExportJobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Helper: Tìm job của user hiện tại (job của người khác coi như không tồn tại)
+     */
+    private ExportJob findOwnJob(String id, User currentUser) {
+        ExportJob job = jobs.get(id);
+        if (job == null || !job.userId.equals(currentUser.getId())) {
+            throw new RuntimeException("Không tìm thấy yêu cầu export");
+        }
+        return job;
+    }
+
+    /**
+     * Helper: File kết quả của job, tên là id job kèm đuôi của định dạng (ví dụ {id}.csv.gz)
+     */
+    private Path artifactPath(ExportJob job) {
+        return spoolDir.resolve(job.id + job.fileName.substring(job.fileName.indexOf('.')));
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Không xóa được file export {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private ExportJobResponse toResponse(ExportJob job) {
+        return ExportJobResponse.builder()
+                .id(job.id)
+                .status(job.status)
+                .fileName(job.fileName)
+                .contentType(job.contentType)
+                .nextWatermark(job.nextWatermark)
+                .rowsWritten(job.rowsWritten)
+                .fileSize(job.fileSize)
+                .error(job.error)
+                .createdAt(job.createdAt)
+                .finishedAt(job.finishedAt)
+                .build();
+    }
+
+    /**
+     * Trạng thái một job, được worker cập nhật và request đọc đồng thời
+     */
+    private static class ExportJob {
+
+        private final String id;
+        private final Long userId;
+        private final LocalDateTime createdAt;
+        private final String fileName;
+        private final String contentType;
+        private final String nextWatermark;
+
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile long rowsWritten;
+        private volatile Long fileSize;
+        private volatile String error;
+        private volatile LocalDateTime finishedAt;
+
+        private ExportJob(String id, Long userId, LocalDateTime createdAt, String fileName, String contentType,
+                String nextWatermark) {
+            this.id = id;
+            this.userId = userId;
+            this.createdAt = createdAt;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.nextWatermark = nextWatermark;
+        }
+    }
+}
@@ -46,11 +46,20 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void publishTaskNotification(User recipient, String title, String message,
             Task relatedTask, NotificationType type) {
+        publishTaskNotification(recipient, title, message,
+                relatedTask != null ? relatedTask.getId() : null,
+                relatedTask != null ? relatedTask.getTitle() : null,
+                type);
+    }
+
+    @Override
+    public void publishTaskNotification(User recipient, String title, String message,
+            Long relatedTaskId, String relatedTaskTitle, NotificationType type) {
         log.info("Publishing TaskNotificationEvent: {} - {} cho user: {}",
                 type, title, recipient.getEmail());
 
         TaskNotificationEvent event = new TaskNotificationEvent(
-                this, recipient, title, message, relatedTask, type);
+                this, recipient, title, message, relatedTaskId, relatedTaskTitle, type);
 
         eventPublisher.publishEvent(event);
     }
@@ -0,0 +1,223 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.dto.response.Report.CycleTimeReportResponse;
+import com.backend.quanlytasks.dto.response.Report.OverdueReportResponse;
+import com.backend.quanlytasks.dto.response.Report.ThroughputReportResponse;
+import com.backend.quanlytasks.entity.ReportWatermark;
+import com.backend.quanlytasks.entity.TaskDailyRollup;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.ReportWatermarkRepository;
+import com.backend.quanlytasks.repository.TaskDailyRollupRepository;
+import com.backend.quanlytasks.repository.TaskHistoryRepository;
+import com.backend.quanlytasks.repository.projection.StatusTransitionRow;
+import com.backend.quanlytasks.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class ReportServiceImpl implements ReportService {
+
+    /**
+     * Tên high-water mark của job tổng hợp task hoàn thành
+     */
+    static final String DONE_WATERMARK = "task_done_rollup";
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskDailyRollupRepository taskDailyRollupRepository;
+    private final ReportWatermarkRepository reportWatermarkRepository;
+
+    /**
+     * Số bản ghi task_history tối đa mỗi lô (mỗi lô một transaction)
+     */
+    @Value("${app.reports.rollup-batch-size:10000}")
+    private int batchSize = 10000;
+
+    /**
+     * Chỉ tổng hợp các bản ghi cũ hơn khoảng này: id IDENTITY được cấp trước khi commit,
+     * transaction cấp id nhỏ hơn có thể commit sau - nếu đọc quá sát hiện tại,
+     * high-water mark sẽ vượt qua bản ghi đó và bỏ sót nó
+     */
+    @Value("${app.reports.commit-lag:5m}")
+    private Duration commitLag = Duration.ofMinutes(5);
+
+    @Override
+    @Transactional
+    public int rollupCompletions() {
+        ReportWatermark watermark = reportWatermarkRepository.findById(DONE_WATERMARK)
+                .orElseGet(() -> ReportWatermark.builder().name(DONE_WATERMARK).lastId(0L).build());
+
+        // Gộp theo (ngày, user) trong bộ nhớ: số khóa nhỏ hơn rất nhiều so với số bản ghi
+        Map<RollupKey, Completions> rollups = new TreeMap<>();
+        long lastId = watermark.getLastId();
+        int processed = 0;
+        try (Stream<StatusTransitionRow> rows = taskHistoryRepository.streamDoneTransitionsAfter(
+                watermark.getLastId(), LocalDateTime.now().minus(commitLag), Limit.of(batchSize))) {
+            Iterator<StatusTransitionRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                StatusTransitionRow row = iterator.next();
+                // Task mở lại rồi hoàn thành lần nữa: không tính thêm throughput/cycle time
+                // (mốc vẫn tiến qua bản ghi này)
+                if (row.isFirstCompletion()) {
+                    RollupKey key = new RollupKey(row.getChangedAt().toLocalDate(),
+                            row.getAssigneeId() != null ? row.getAssigneeId() : 0L);
+                    rollups.computeIfAbsent(key, k -> new Completions()).add(row);
+                }
+                lastId = row.getHistoryId();
+                processed++;
+            }
+        }
+        if (processed == 0) {
+            return 0;
+        }
+
+        // Cộng dồn vào rollup theo thứ tự khóa; high-water mark được lưu trong cùng transaction
+        // nên một lô không bao giờ được cộng hai lần
+        rollups.forEach((key, completions) -> taskDailyRollupRepository.addCompletions(
+                key.day(), key.assigneeId(), completions.count, completions.cycleTimeMinutes, completions.late));
+
+        watermark.setLastId(lastId);
+        watermark.setUpdatedAt(LocalDateTime.now());
+        reportWatermarkRepository.save(watermark);
+        return processed;
+    }
+
+    @Override
+    @Transactional
+    public int snapshotOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        taskDailyRollupRepository.resetOverdue(now.toLocalDate());
+        return taskDailyRollupRepository.snapshotOverdue(now.toLocalDate(), now);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CycleTimeReportResponse> getCycleTime(LocalDate from, LocalDate to, User currentUser,
+            boolean isAdmin) {
+        // assigneeId -> [số task hoàn thành, tổng phút]
+        Map<Long, long[]> totals = new TreeMap<>();
+        for (TaskDailyRollup rollup : loadRollups(from, to, currentUser, isAdmin)) {
+            if (rollup.getCompletedCount() > 0) {
+                long[] total = totals.computeIfAbsent(rollup.getAssigneeId(), k -> new long[2]);
+                total[0] += rollup.getCompletedCount();
+                total[1] += rollup.getCycleTimeMinutes();
+            }
+        }
+
+        List<CycleTimeReportResponse> responses = new ArrayList<>();
+        totals.forEach((assigneeId, total) -> responses.add(CycleTimeReportResponse.builder()
+                .assigneeId(assigneeId)
+                .completedCount(total[0])
+                .averageCycleTimeHours(Math.round(total[1] * 10.0 / total[0] / 60) / 10.0)
+                .build()));
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ThroughputReportResponse> getThroughput(LocalDate from, LocalDate to, User currentUser,
+            boolean isAdmin) {
+        // Tuần (thứ Hai) -> assigneeId -> số task hoàn thành
+        Map<LocalDate, Map<Long, Long>> weeks = new TreeMap<>();
+        for (TaskDailyRollup rollup : loadRollups(from, to, currentUser, isAdmin)) {
+            if (rollup.getCompletedCount() > 0) {
+                LocalDate weekStart = rollup.getRollupDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                weeks.computeIfAbsent(weekStart, k -> new TreeMap<>())
+                        .merge(rollup.getAssigneeId(), rollup.getCompletedCount(), Long::sum);
+            }
+        }
+
+        List<ThroughputReportResponse> responses = new ArrayList<>();
+        weeks.forEach((weekStart, byAssignee) -> byAssignee.forEach((assigneeId, count) -> responses.add(
+                ThroughputReportResponse.builder()
+                        .weekStart(weekStart)
+                        .assigneeId(assigneeId)
+                        .completedCount(count)
+                        .build())));
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OverdueReportResponse> getOverdue(LocalDate from, LocalDate to, User currentUser,
+            boolean isAdmin) {
+        return loadRollups(from, to, currentUser, isAdmin).stream()
+                .filter(rollup -> rollup.getOverdueOpenCount() > 0 || rollup.getCompletedLateCount() > 0)
+                .map(rollup -> OverdueReportResponse.builder()
+                        .date(rollup.getRollupDate())
+                        .assigneeId(rollup.getAssigneeId())
+                        .overdueOpenCount(rollup.getOverdueOpenCount())
+                        .completedLateCount(rollup.getCompletedLateCount())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Helper: Đọc rollup trong khoảng ngày, USER chỉ đọc rollup của mình
+     */
+    private List<TaskDailyRollup> loadRollups(LocalDate from, LocalDate to, User currentUser, boolean isAdmin) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Ngày bắt đầu phải trước ngày kết thúc");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("Khoảng thời gian báo cáo tối đa " + MAX_RANGE_DAYS + " ngày");
+        }
+
+        return isAdmin
+                ? taskDailyRollupRepository.findByRollupDateBetweenOrderByRollupDate(start, end)
+                : taskDailyRollupRepository.findByAssigneeIdAndRollupDateBetweenOrderByRollupDate(
+                        currentUser.getId(), start, end);
+    }
+
+    /**
+     * Khóa của một dòng rollup
+     */
+    private record RollupKey(LocalDate day, Long assigneeId) implements Comparable<RollupKey> {
+
+        @Override
+        public int compareTo(RollupKey other) {
+            int byDay = day.compareTo(other.day);
+            return byDay != 0 ? byDay : assigneeId.compareTo(other.assigneeId);
+        }
+    }
+
+    /**
+     * Số liệu hoàn thành đang gộp của một (ngày, user)
+     */
+    private static class Completions {
+
+        private long count;
+        private long cycleTimeMinutes;
+        private long late;
+
+        void add(StatusTransitionRow row) {
+            count++;
+            // Cycle time tính từ lúc tạo task (task mới luôn ở TODO) đến lúc chuyển sang DONE
+            cycleTimeMinutes += Math.max(0, Duration.between(row.getTaskCreatedAt(), row.getChangedAt()).toMinutes());
+            if (row.getDueDate() != null && row.getChangedAt().isAfter(row.getDueDate())) {
+                late++;
+            }
+        }
+    }
+}
@@ -7,15 +7,20 @@ import com.backend.quanlytasks.dto.response.SubTask.SubTaskResponse;
 import com.backend.quanlytasks.entity.SubTask;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.event.TaskChangedEvent;
+import com.backend.quanlytasks.event.TaskChangedEvent.ChangeType;
 import com.backend.quanlytasks.event.TaskNotificationEvent.NotificationType;
 import com.backend.quanlytasks.repository.SubTaskRepository;
 import com.backend.quanlytasks.repository.TaskRepository;
 import com.backend.quanlytasks.repository.UserRepository;
 import com.backend.quanlytasks.service.NotificationService;
 import com.backend.quanlytasks.service.SubTaskService;
+import com.backend.quanlytasks.service.TaskAccessService;
 import com.backend.quanlytasks.service.TaskHistoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
@@ -31,8 +36,11 @@ public class SubTaskServiceImpl implements SubTaskService {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final TaskHistoryService taskHistoryService;
+    private final TaskAccessService taskAccessService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public SubTaskResponse createSubTask(CreateSubTaskRequest request, User currentUser, boolean isAdmin) {
         Task parentTask = taskRepository.findByIdAndIsDelete(request.getParentTaskId(), 0)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy task cha"));
@@ -50,6 +58,10 @@ public class SubTaskServiceImpl implements SubTaskService {
 
         SubTask subTask = mapToSubTask(request, parentTask, assignee);
         subTask = subTaskRepository.save(subTask);
+        // Subtask là một phần của chi tiết task cha
+        taskRepository.bumpVersion(parentTask);
+        taskAccessService.onSubTaskAssigneeChanged(parentTask, null, assignee);
+        publishAccessChanged(parentTask, null, assignee);
 
         // Log history: Subtask created
         taskHistoryService.logChange(parentTask, currentUser,
@@ -71,6 +83,7 @@ public class SubTaskServiceImpl implements SubTaskService {
     }
 
     @Override
+    @Transactional
     public SubTaskResponse updateSubTask(Long id, UpdateSubTaskRequest request, User currentUser, boolean isAdmin) {
         SubTask subTask = subTaskRepository.findByIdAndIsDelete(id, 0)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy subtask"));
@@ -90,7 +103,8 @@ public class SubTaskServiceImpl implements SubTaskService {
         String oldTitle = subTask.getTitle();
         String oldDescription = subTask.getDescription();
         String oldStatus = subTask.getStatus() != null ? subTask.getStatus().name() : null;
-        String oldAssigneeName = subTask.getAssignee() != null ? subTask.getAssignee().getFullName() : "Chưa giao";
+        User oldAssignee = subTask.getAssignee();
+        String oldAssigneeName = oldAssignee != null ? oldAssignee.getFullName() : "Chưa giao";
         boolean statusChanged = false;
 
         // Update fields only if provided (not null) and log history
@@ -132,6 +146,9 @@ public class SubTaskServiceImpl implements SubTaskService {
         }
 
         subTask = subTaskRepository.save(subTask);
+        taskRepository.bumpVersion(parentTask);
+        taskAccessService.onSubTaskAssigneeChanged(parentTask, oldAssignee, subTask.getAssignee());
+        publishAccessChanged(parentTask, oldAssignee, subTask.getAssignee());
 
         // Send notifications based on what changed
         if (statusChanged) {
@@ -160,6 +177,7 @@ public class SubTaskServiceImpl implements SubTaskService {
     }
 
     @Override
+    @Transactional
     public void softDeleteSubTask(Long id, User currentUser, boolean isAdmin) {
         SubTask subTask = subTaskRepository.findByIdAndIsDelete(id, 0)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy subtask"));
@@ -174,6 +192,9 @@ public class SubTaskServiceImpl implements SubTaskService {
 
         subTask.setIsDelete(1);
         subTaskRepository.save(subTask);
+        taskRepository.bumpVersion(parentTask);
+        taskAccessService.onSubTaskAssigneeChanged(parentTask, subTask.getAssignee(), null);
+        publishAccessChanged(parentTask, subTask.getAssignee(), null);
 
         // Log history: Subtask deleted
         taskHistoryService.logChange(parentTask, currentUser,
@@ -200,6 +221,7 @@ public class SubTaskServiceImpl implements SubTaskService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SubTaskResponse> getSubTasksByTaskId(Long taskId) {
         List<SubTask> subTasks = subTaskRepository.findByParentTaskIdAndIsDelete(taskId, 0);
         return subTasks.stream()
@@ -207,6 +229,27 @@ public class SubTaskServiceImpl implements SubTaskService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Helper: Publish TaskChangedEvent khi người được giao subtask thay đổi
+     * Subtask không hiển thị trong danh sách task, chỉ quyền xem task cha của 2 user này thay đổi
+     */
+    private void publishAccessChanged(Task parentTask, User oldAssignee, User newAssignee) {
+        if (oldAssignee != null && newAssignee != null && oldAssignee.getId().equals(newAssignee.getId())) {
+            return;
+        }
+        Set<Long> userIds = new HashSet<>();
+        if (oldAssignee != null) {
+            userIds.add(oldAssignee.getId());
+        }
+        if (newAssignee != null) {
+            userIds.add(newAssignee.getId());
+        }
+        if (!userIds.isEmpty()) {
+            eventPublisher.publishEvent(
+                    new TaskChangedEvent(this, parentTask.getId(), userIds, ChangeType.ACCESS_CHANGED));
+        }
+    }
+
     /**
      * Mapper: CreateSubTaskRequest -> SubTask
      */
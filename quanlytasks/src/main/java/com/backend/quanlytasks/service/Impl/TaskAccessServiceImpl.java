@@ -0,0 +1,105 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.common.enums.TaskAccessReason;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.SubTaskRepository;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import com.backend.quanlytasks.service.TaskAccessService;
+import com.backend.quanlytasks.service.TaskStatusCounterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class TaskAccessServiceImpl implements TaskAccessService {
+
+    private final UserTaskAccessRepository userTaskAccessRepository;
+    private final SubTaskRepository subTaskRepository;
+    private final TaskStatusCounterService taskStatusCounterService;
+
+    @Override
+    @Transactional
+    public void onTaskCreated(Task task) {
+        grant(task.getCreatedBy().getId(), task, TaskAccessReason.CREATOR);
+        if (task.getAssignee() != null) {
+            grant(task.getAssignee().getId(), task, TaskAccessReason.ASSIGNEE);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onTaskAssigneeChanged(Task task, User oldAssignee, User newAssignee) {
+        if (sameUser(oldAssignee, newAssignee)) {
+            return;
+        }
+        if (oldAssignee != null) {
+            revoke(oldAssignee.getId(), task, TaskAccessReason.ASSIGNEE);
+        }
+        if (newAssignee != null) {
+            grant(newAssignee.getId(), task, TaskAccessReason.ASSIGNEE);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onSubTaskAssigneeChanged(Task parentTask, User oldAssignee, User newAssignee) {
+        if (sameUser(oldAssignee, newAssignee)) {
+            return;
+        }
+        // Chỉ thu hồi khi user không còn subtask nào khác trong cùng task cha
+        if (oldAssignee != null && !subTaskRepository.existsByParentTaskIdAndAssigneeIdAndIsDelete(
+                parentTask.getId(), oldAssignee.getId(), 0)) {
+            revoke(oldAssignee.getId(), parentTask, TaskAccessReason.SUBTASK_ASSIGNEE);
+        }
+        if (newAssignee != null) {
+            grant(newAssignee.getId(), parentTask, TaskAccessReason.SUBTASK_ASSIGNEE);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        return userTaskAccessRepository.deleteStaleAccess()
+                + userTaskAccessRepository.insertMissingCreatorAccess()
+                + userTaskAccessRepository.insertMissingAssigneeAccess()
+                + userTaskAccessRepository.insertMissingSubTaskAssigneeAccess();
+    }
+
+    /**
+     * Helper: Thêm quyền xem nếu chưa có (INSERT IGNORE)
+     * Bộ đếm của user chỉ tăng khi chính request này thêm được dòng và đó là dòng duy nhất
+     * của user với task. Hai request cùng lý do chạy đồng thời chỉ một bên thêm được dòng;
+     * trường hợp hiếm 2 lý do khác nhau cùng lúc được sửa bởi reconcile của bộ đếm
+     */
+    private void grant(Long userId, Task task, TaskAccessReason reason) {
+        if (userTaskAccessRepository.insertIgnore(userId, task.getId(), reason.name()) == 0) {
+            return;
+        }
+        if (userTaskAccessRepository.countByUserIdAndTaskId(userId, task.getId()) == 1) {
+            taskStatusCounterService.onAccessGranted(userId, task);
+        }
+    }
+
+    /**
+     * Helper: Thu hồi quyền xem với một lý do
+     * Bộ đếm của user chỉ giảm khi user không còn quyền xem nào khác với task
+     */
+    private void revoke(Long userId, Task task, TaskAccessReason reason) {
+        if (userTaskAccessRepository.deleteAccess(userId, task.getId(), reason) > 0
+                && !userTaskAccessRepository.existsByUserIdAndTaskId(userId, task.getId())) {
+            taskStatusCounterService.onAccessRevoked(userId, task);
+        }
+    }
+
+    /**
+     * Helper: So sánh 2 user theo ID (null-safe)
+     */
+    private boolean sameUser(User a, User b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getId().equals(b.getId());
+    }
+}
@@ -0,0 +1,555 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.common.enums.ExportFormat;
+import com.backend.quanlytasks.common.export.ColumnWidthEstimator;
+import com.backend.quanlytasks.common.pagination.ExportWatermark;
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.CommentRepository;
+import com.backend.quanlytasks.repository.SubTaskRepository;
+import com.backend.quanlytasks.repository.TaskHistoryRepository;
+import com.backend.quanlytasks.repository.TaskRepository;
+import com.backend.quanlytasks.repository.projection.CommentExportRow;
+import com.backend.quanlytasks.repository.projection.HistoryExportRow;
+import com.backend.quanlytasks.repository.projection.SubTaskExportRow;
+import com.backend.quanlytasks.repository.projection.TaskExportRow;
+import com.backend.quanlytasks.service.TaskExportService;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@RequiredArgsConstructor
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final String[] HEADERS = { "ID", "Tiêu đề", "Mô tả", "Trạng thái", "Độ ưu tiên",
+            "Người được giao", "Ngày deadline", "Ngày tạo" };
+    private static final String[] SUBTASK_HEADERS = { "Task ID", "Subtask ID", "Tiêu đề", "Trạng thái",
+            "Người được giao", "Ngày tạo" };
+    private static final String[] COMMENT_HEADERS = { "Task ID", "Comment ID", "Người viết", "Nội dung",
+            "Ngày tạo" };
+    private static final String[] HISTORY_HEADERS = { "Task ID", "History ID", "Người thay đổi", "Trường",
+            "Giá trị cũ", "Giá trị mới", "Thời gian" };
+
+    /**
+     * Tên cột của CSV, trùng với key của NDJSON
+     */
+    private static final String CSV_HEADER = "id,title,description,status,priority,assigneeName,dueDate,createdAt";
+
+    /**
+     * Buffer cố định của CSV/NDJSON (và của gzip): dữ liệu được đẩy ra response mỗi khi đầy
+     */
+    private static final int TEXT_BUFFER_SIZE = 8192;
+
+    private final TaskRepository taskRepository;
+    private final SubTaskRepository subTaskRepository;
+    private final CommentRepository commentRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+
+    /**
+     * Số dòng Excel giữ trong heap, các dòng cũ hơn được ghi ra file tạm
+     */
+    @Value("${app.export.row-window:100}")
+    private int rowWindow = 100;
+
+    /**
+     * Số task mỗi lần nạp dữ liệu con bằng IN (...): mỗi sheet con tốn 1 query cho mỗi chunk
+     */
+    @Value("${app.export.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * Số dòng dữ liệu tối đa của một sheet Excel (giới hạn của định dạng là 1.048.576 dòng kể cả tiêu đề)
+     * Vượt quá thì ghi tiếp sang sheet "Tên (2)", "Tên (3)"...
+     */
+    @Value("${app.export.max-rows-per-sheet:1048575}")
+    private int maxRowsPerSheet = 1_048_575;
+
+    /**
+     * Số dòng đầu của mỗi sheet được đo để ước lượng độ rộng cột
+     */
+    @Value("${app.export.width-sample-rows:1000}")
+    private int widthSampleRows = 1000;
+
+    /**
+     * Mốc trên của export delta lùi lại so với hiện tại để transaction đang chạy (updatedAt đã set
+     * nhưng chưa commit) không bị bỏ sót
+     */
+    @Value("${app.export.delta-lag:1m}")
+    private Duration deltaLag = Duration.ofMinutes(1);
+
+    @Override
+    public ExportWatermark resolveWatermark(TaskExportRequest request, boolean isAdmin) {
+        if (!request.isDelta()) {
+            return null;
+        }
+        checkDelta(request, isAdmin);
+        return new ExportWatermark(changedBefore(request));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(TaskExportRequest request, User currentUser, boolean isAdmin,
+            ExportWatermark changedBefore, OutputStream out, LongConsumer progress) {
+        if (request.isDelta()) {
+            // Không dựa vào việc người gọi đã gọi resolveWatermark
+            checkDelta(request, isAdmin);
+        }
+        try (Stream<TaskExportRow> rows = request.isDelta()
+                ? taskRepository.streamChangedBetween(changedFrom(request),
+                        changedBefore != null ? changedBefore.getUpdatedAt() : changedBefore(request))
+                : taskRepository.streamExportRows(request, isAdmin ? null : currentUser.getId())) {
+            if (request.getFormat() == ExportFormat.XLSX) {
+                writeExcel(rows.iterator(), request, out, progress);
+            } else {
+                writeText(rows.iterator(), request, out, progress);
+            }
+        }
+    }
+
+    /**
+     * Helper: Export delta chỉ dành cho ADMIN và chỉ hỗ trợ CSV/NDJSON
+     */
+    private void checkDelta(TaskExportRequest request, boolean isAdmin) {
+        if (!isAdmin) {
+            throw new RuntimeException("Chỉ ADMIN được export thay đổi theo watermark");
+        }
+        if (request.getFormat() == ExportFormat.XLSX) {
+            throw new RuntimeException("Export thay đổi theo watermark chỉ hỗ trợ định dạng CSV, NDJSON");
+        }
+    }
+
+    /**
+     * Helper: Mốc trên của export delta, bây giờ trừ deltaLag
+     * Gọi lại trong vòng deltaLag thì không có khoảng mới, giữ nguyên mốc cũ
+     */
+    private LocalDateTime changedBefore(TaskExportRequest request) {
+        LocalDateTime from = changedFrom(request);
+        LocalDateTime before = LocalDateTime.now().minus(deltaLag);
+        return before.isAfter(from) ? before : from;
+    }
+
+    /**
+     * Helper: Mốc dưới của export delta, từ watermark hoặc updatedSince
+     */
+    private LocalDateTime changedFrom(TaskExportRequest request) {
+        return request.getWatermark() != null && !request.getWatermark().isBlank()
+                ? ExportWatermark.decode(request.getWatermark()).getUpdatedAt()
+                : request.getUpdatedSince();
+    }
+
+    /**
+     * Helper: Ghi file Excel, các dòng cũ hơn cửa sổ rowWindow được flush ra file tạm
+     */
+    private void writeExcel(Iterator<TaskExportRow> iterator, TaskExportRequest request, OutputStream out,
+            LongConsumer progress) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
+
+            SheetWriter tasks = new SheetWriter(workbook, "Tasks", HEADERS, headerStyle);
+            // SXSSF cho phép ghi xen kẽ nhiều sheet, mỗi sheet giữ cửa sổ dòng riêng
+            // Comments/History thường nhiều dòng hơn Tasks nên cũng tự sang sheet mới khi đủ giới hạn
+            ChildSheets children = new ChildSheets(
+                    request.isIncludeSubtasks() ? new SheetWriter(workbook, "Subtasks", SUBTASK_HEADERS, headerStyle) : null,
+                    request.isIncludeComments() ? new SheetWriter(workbook, "Comments", COMMENT_HEADERS, headerStyle) : null,
+                    request.isIncludeHistory() ? new SheetWriter(workbook, "History", HISTORY_HEADERS, headerStyle) : null,
+                    dateStyle);
+
+            List<Long> chunk = new ArrayList<>(chunkSize);
+            long rowsWritten = 0;
+            while (iterator.hasNext()) {
+                TaskExportRow task = iterator.next();
+                Row row = tasks.nextRow();
+                writeRow(row, task, dateStyle);
+                tasks.measure(row);
+                progress.accept(++rowsWritten);
+
+                if (children.any()) {
+                    chunk.add(task.getId());
+                    if (chunk.size() >= chunkSize) {
+                        writeChildren(chunk, children);
+                        chunk.clear();
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChildren(chunk, children);
+            }
+
+            // Set độ rộng một lần khi ghi xong, không đo lại từng ô bằng font metrics
+            tasks.applyWidths();
+            children.applyWidths();
+
+            workbook.write(out);
+        } catch (IOException e) {
+            throw new RuntimeException("Lỗi khi xuất file Excel: " + e.getMessage());
+        } finally {
+            // Xóa các file tạm chứa dòng đã flush
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Helper: Ghi CSV hoặc NDJSON, mỗi task một dòng, không qua POI và không giữ dòng nào trong heap
+     */
+    private void writeText(Iterator<TaskExportRow> iterator, TaskExportRequest request, OutputStream out,
+            LongConsumer progress) {
+        boolean csv = request.getFormat() == ExportFormat.CSV;
+        boolean delta = request.isDelta();
+        try {
+            GZIPOutputStream gzip = request.isCompressed() ? new GZIPOutputStream(out, TEXT_BUFFER_SIZE) : null;
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(gzip != null ? gzip : out, StandardCharsets.UTF_8), TEXT_BUFFER_SIZE);
+
+            if (csv) {
+                writer.write(delta ? CSV_HEADER + ",updatedAt,deleted\n" : CSV_HEADER + "\n");
+            }
+            long rowsWritten = 0;
+            while (iterator.hasNext()) {
+                TaskExportRow task = iterator.next();
+                if (csv) {
+                    writeCsvLine(writer, task, delta);
+                } else {
+                    writeJsonLine(writer, task, delta);
+                }
+                progress.accept(++rowsWritten);
+            }
+
+            writer.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Lỗi khi xuất file " + request.getFormat() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper: Một dòng CSV (RFC 4180), ngày giờ theo ISO-8601, giá trị null để trống
+     * Export delta thêm cột updatedAt, deleted; task đã xóa chỉ ghi id, updatedAt, deleted (tombstone)
+     */
+    private void writeCsvLine(Writer writer, TaskExportRow task, boolean delta) throws IOException {
+        writer.write(String.valueOf(task.getId()));
+        if (delta && isDeleted(task)) {
+            writer.write(",,,,,,,,");
+            writer.write(formatDate(task.getUpdatedAt(), ""));
+            writer.write(",true\n");
+            return;
+        }
+        writer.write(',');
+        writeCsvValue(writer, task.getTitle());
+        writer.write(',');
+        writeCsvValue(writer, task.getDescription());
+        writer.write(',');
+        writer.write(task.getStatus().name());
+        writer.write(',');
+        writer.write(task.getPriority().name());
+        writer.write(',');
+        writeCsvValue(writer, task.getAssigneeName());
+        writer.write(',');
+        writer.write(formatDate(task.getDueDate(), ""));
+        writer.write(',');
+        writer.write(formatDate(task.getCreatedAt(), ""));
+        if (delta) {
+            writer.write(',');
+            writer.write(formatDate(task.getUpdatedAt(), ""));
+            writer.write(",false");
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Helper: Một dòng NDJSON với các key trùng tên cột CSV, giá trị null ghi là null
+     * Export delta thêm key updatedAt, deleted; task đã xóa chỉ ghi id, updatedAt, deleted (tombstone)
+     */
+    private void writeJsonLine(Writer writer, TaskExportRow task, boolean delta) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(String.valueOf(task.getId()));
+        if (delta && isDeleted(task)) {
+            writer.write(",\"updatedAt\":");
+            writeJsonString(writer, formatDate(task.getUpdatedAt(), null));
+            writer.write(",\"deleted\":true}\n");
+            return;
+        }
+        writer.write(",\"title\":");
+        writeJsonString(writer, task.getTitle());
+        writer.write(",\"description\":");
+        writeJsonString(writer, task.getDescription());
+        writer.write(",\"status\":");
+        writeJsonString(writer, task.getStatus().name());
+        writer.write(",\"priority\":");
+        writeJsonString(writer, task.getPriority().name());
+        writer.write(",\"assigneeName\":");
+        writeJsonString(writer, task.getAssigneeName());
+        writer.write(",\"dueDate\":");
+        writeJsonString(writer, formatDate(task.getDueDate(), null));
+        writer.write(",\"createdAt\":");
+        writeJsonString(writer, formatDate(task.getCreatedAt(), null));
+        if (delta) {
+            writer.write(",\"updatedAt\":");
+            writeJsonString(writer, formatDate(task.getUpdatedAt(), null));
+            writer.write(",\"deleted\":false");
+        }
+        writer.write("}\n");
+    }
+
+    private boolean isDeleted(TaskExportRow task) {
+        return task.getIsDelete() != null && task.getIsDelete() == 1;
+    }
+
+    private void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    private String formatDate(LocalDateTime value, String nullValue) {
+        return value != null ? value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : nullValue;
+    }
+
+    /**
+     * Helper: Nạp dữ liệu con của một chunk task (1 query cho mỗi sheet được chọn) và ghi vào các sheet con
+     */
+    private void writeChildren(List<Long> taskIds, ChildSheets children) throws IOException {
+        if (children.subtasks != null) {
+            for (SubTaskExportRow subTask : subTaskRepository.findExportRowsByTaskIdIn(taskIds)) {
+                Row row = children.subtasks.nextRow();
+                row.createCell(0).setCellValue(subTask.getTaskId());
+                row.createCell(1).setCellValue(subTask.getId());
+                row.createCell(2).setCellValue(subTask.getTitle());
+                row.createCell(3).setCellValue(subTask.getStatus().name());
+                row.createCell(4).setCellValue(subTask.getAssigneeName() != null ? subTask.getAssigneeName() : "Chưa giao");
+                writeDate(row.createCell(5), subTask.getCreatedAt(), children.dateStyle);
+                children.subtasks.measure(row);
+            }
+        }
+        if (children.comments != null) {
+            for (CommentExportRow comment : commentRepository.findExportRowsByTaskIdIn(taskIds)) {
+                Row row = children.comments.nextRow();
+                row.createCell(0).setCellValue(comment.getTaskId());
+                row.createCell(1).setCellValue(comment.getId());
+                row.createCell(2).setCellValue(comment.getAuthorName());
+                row.createCell(3).setCellValue(comment.getContent());
+                writeDate(row.createCell(4), comment.getCreatedAt(), children.dateStyle);
+                children.comments.measure(row);
+            }
+        }
+        if (children.history != null) {
+            for (HistoryExportRow history : taskHistoryRepository.findExportRowsByTaskIdIn(taskIds)) {
+                Row row = children.history.nextRow();
+                row.createCell(0).setCellValue(history.getTaskId());
+                row.createCell(1).setCellValue(history.getId());
+                row.createCell(2).setCellValue(history.getChangedByName() != null ? history.getChangedByName() : "");
+                row.createCell(3).setCellValue(history.getFieldName());
+                row.createCell(4).setCellValue(history.getOldValue() != null ? history.getOldValue() : "");
+                row.createCell(5).setCellValue(history.getNewValue() != null ? history.getNewValue() : "");
+                writeDate(row.createCell(6), history.getChangedAt(), children.dateStyle);
+                children.history.measure(row);
+            }
+        }
+    }
+
+    /**
+     * Helper: Tạo sheet kèm dòng tiêu đề
+     */
+    private SXSSFSheet createSheet(SXSSFWorkbook workbook, String name, String[] headers, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+
+    /**
+     * Helper: Style dòng tiêu đề (in đậm, nền xanh, có viền)
+     */
+    private CellStyle createHeaderStyle(SXSSFWorkbook workbook) {
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerFont.setFontHeightInPoints((short) 12);
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        headerStyle.setBorderBottom(BorderStyle.THIN);
+        headerStyle.setBorderTop(BorderStyle.THIN);
+        headerStyle.setBorderLeft(BorderStyle.THIN);
+        headerStyle.setBorderRight(BorderStyle.THIN);
+        return headerStyle;
+    }
+
+    /**
+     * Helper: Ghi một task vào một dòng
+     */
+    private void writeRow(Row row, TaskExportRow task, CellStyle dateStyle) {
+        row.createCell(0).setCellValue(task.getId());
+        row.createCell(1).setCellValue(task.getTitle());
+        row.createCell(2).setCellValue(task.getDescription() != null ? task.getDescription() : "");
+        row.createCell(3).setCellValue(task.getStatus().name());
+        row.createCell(4).setCellValue(task.getPriority().name());
+        row.createCell(5).setCellValue(task.getAssigneeName() != null ? task.getAssigneeName() : "Chưa giao");
+
+        Cell dueDateCell = row.createCell(6);
+        if (task.getDueDate() != null) {
+            dueDateCell.setCellValue(Timestamp.valueOf(task.getDueDate()));
+            dueDateCell.setCellStyle(dateStyle);
+        } else {
+            dueDateCell.setCellValue("Không có");
+        }
+
+        writeDate(row.createCell(7), task.getCreatedAt(), dateStyle);
+    }
+
+    private void writeDate(Cell cell, LocalDateTime value, CellStyle dateStyle) {
+        if (value != null) {
+            cell.setCellValue(Timestamp.valueOf(value));
+            cell.setCellStyle(dateStyle);
+        }
+    }
+
+    /**
+     * Một sheet dữ liệu có thể trải trên nhiều sheet Excel: đủ maxRowsPerSheet dòng thì mở sheet tiếp theo
+     * (cùng dòng tiêu đề, đặt ngay sau sheet trước) thay vì để SXSSF ném lỗi khi response đã gửi một phần
+     * Độ rộng cột đo trên các dòng đầu và áp dụng cho mọi sheet tiếp nối
+     */
+    private final class SheetWriter {
+
+        private final SXSSFWorkbook workbook;
+        private final String name;
+        private final String[] headers;
+        private final CellStyle headerStyle;
+        private final ColumnWidthEstimator widths;
+        private final List<SXSSFSheet> sheets = new ArrayList<>();
+
+        private SXSSFSheet sheet;
+        private int rowNum = 1;
+
+        private SheetWriter(SXSSFWorkbook workbook, String name, String[] headers, CellStyle headerStyle) {
+            this.workbook = workbook;
+            this.name = name;
+            this.headers = headers;
+            this.headerStyle = headerStyle;
+            this.widths = new ColumnWidthEstimator(headers, widthSampleRows);
+            this.sheet = createSheet(workbook, name, headers, headerStyle);
+            this.sheets.add(sheet);
+        }
+
+        private Row nextRow() throws IOException {
+            if (rowNum > maxRowsPerSheet) {
+                // Sheet cũ đã đủ: đẩy hết các dòng còn trong cửa sổ ra file tạm
+                sheet.flushRows();
+                String nextName = name + " (" + (sheets.size() + 1) + ")";
+                int position = workbook.getSheetIndex(sheet) + 1;
+                sheet = createSheet(workbook, nextName, headers, headerStyle);
+                workbook.setSheetOrder(nextName, position);
+                sheets.add(sheet);
+                rowNum = 1;
+            }
+            return sheet.createRow(rowNum++);
+        }
+
+        private void measure(Row row) {
+            widths.measure(row);
+        }
+
+        private void applyWidths() {
+            sheets.forEach(widths::applyTo);
+        }
+    }
+
+    /**
+     * Các sheet dữ liệu con được chọn (null nếu không xuất)
+     */
+    private record ChildSheets(SheetWriter subtasks, SheetWriter comments, SheetWriter history,
+            CellStyle dateStyle) {
+
+        private boolean any() {
+            return subtasks != null || comments != null || history != null;
+        }
+
+        private void applyWidths() {
+            if (subtasks != null) {
+                subtasks.applyWidths();
+            }
+            if (comments != null) {
+                comments.applyWidths();
+            }
+            if (history != null) {
+                history.applyWidths();
+            }
+        }
+    }
+}
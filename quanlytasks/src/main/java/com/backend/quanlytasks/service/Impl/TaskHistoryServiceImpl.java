@@ -1,5 +1,7 @@
 package com.backend.quanlytasks.service.Impl;
 
+import com.backend.quanlytasks.common.pagination.TimelineCursor;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
 import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.TaskHistory;
@@ -7,7 +9,9 @@ import com.backend.quanlytasks.entity.User;
 import com.backend.quanlytasks.repository.TaskHistoryRepository;
 import com.backend.quanlytasks.service.TaskHistoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,6 +36,7 @@ public class TaskHistoryServiceImpl implements TaskHistoryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskHistoryResponse> getTaskHistory(Long taskId) {
         List<TaskHistory> histories = taskHistoryRepository.findByTaskIdOrderByChangedAtDesc(taskId);
         return histories.stream()
@@ -39,6 +44,37 @@ public class TaskHistoryServiceImpl implements TaskHistoryService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TaskHistoryListResponse getHistoryPage(Long taskId, String cursor, int size) {
+        TimelineCursor before = TimelineCursor.decode(cursor);
+
+        // Lấy dư 1 dòng để biết còn thay đổi cũ hơn hay không
+        Limit limit = Limit.of(size + 1);
+        List<TaskHistory> histories = before == null
+                ? taskHistoryRepository.findLatestByTaskId(taskId, limit)
+                : taskHistoryRepository.findByTaskIdBefore(taskId, before.getTime(), before.getId(), limit);
+
+        boolean hasNext = histories.size() > size;
+        if (hasNext) {
+            histories = histories.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            TaskHistory oldest = histories.get(histories.size() - 1);
+            nextCursor = new TimelineCursor(oldest.getChangedAt(), oldest.getId()).encode();
+        }
+
+        return TaskHistoryListResponse.builder()
+                .history(histories.stream()
+                        .map(this::mapToTaskHistoryResponse)
+                        .collect(Collectors.toList()))
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     /**
      * Mapper: TaskHistory -> TaskHistoryResponse
      */
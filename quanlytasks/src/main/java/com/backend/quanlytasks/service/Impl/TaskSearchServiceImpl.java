@@ -0,0 +1,60 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.entity.Comment;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.repository.CommentRepository;
+import com.backend.quanlytasks.repository.TaskSearchIndexRepository;
+import com.backend.quanlytasks.service.TaskSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+    private final TaskSearchIndexRepository taskSearchIndexRepository;
+    private final CommentRepository commentRepository;
+
+    @Override
+    @Transactional
+    public void indexTask(Task task) {
+        String taskText = taskText(task);
+        int updated = taskSearchIndexRepository.updateTaskText(task.getId(), taskText);
+        if (updated == 0) {
+            // Task mới hoặc chưa được backfill: dựng document kèm toàn bộ comment
+            taskSearchIndexRepository.upsert(task.getId(), taskText, loadCommentText(task.getId()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void indexComment(Comment comment) {
+        Task task = comment.getTask();
+        int updated = taskSearchIndexRepository.appendComment(task.getId(), comment.getContent());
+        if (updated == 0) {
+            // Task tạo trước khi có index: dựng lại toàn bộ (đã gồm comment vừa lưu)
+            indexTask(task);
+        }
+    }
+
+    /**
+     * Helper: Ghép tiêu đề và mô tả
+     */
+    private String taskText(Task task) {
+        return task.getDescription() != null
+                ? task.getTitle() + " " + task.getDescription()
+                : task.getTitle();
+    }
+
+    /**
+     * Helper: Ghép nội dung tất cả comment của task
+     */
+    private String loadCommentText(Long taskId) {
+        return commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId).stream()
+                .map(Comment::getContent)
+                .collect(Collectors.joining(" "));
+    }
+}
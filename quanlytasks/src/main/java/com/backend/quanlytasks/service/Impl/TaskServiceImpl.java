@@ -1,39 +1,68 @@
 package com.backend.quanlytasks.service.Impl;
 
+import com.backend.quanlytasks.cache.TaskDetailCache;
+import com.backend.quanlytasks.cache.TaskListCache;
+import com.backend.quanlytasks.common.concurrent.ScopedExecutor;
+import com.backend.quanlytasks.common.enums.PageMode;
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TaskSortField;
 import com.backend.quanlytasks.common.enums.TaskStatus;
 import com.backend.quanlytasks.common.enums.RoleName;
+import com.backend.quanlytasks.common.exception.ConflictException;
+import com.backend.quanlytasks.common.http.ResourceVersion;
+import com.backend.quanlytasks.common.pagination.TaskCursor;
 import com.backend.quanlytasks.dto.request.Task.*;
-import com.backend.quanlytasks.dto.response.Comment.CommentResponse;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.SubTask.SubTaskResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskStatsResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
 import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.Tag;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.event.TaskChangedEvent;
+import com.backend.quanlytasks.event.TaskChangedEvent.ChangeType;
 import com.backend.quanlytasks.event.TaskNotificationEvent.NotificationType;
 import com.backend.quanlytasks.repository.SubTaskRepository;
 import com.backend.quanlytasks.repository.TagRepository;
+import com.backend.quanlytasks.repository.TaskHistoryRepository;
 import com.backend.quanlytasks.repository.TaskRepository;
 import com.backend.quanlytasks.repository.UserRepository;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import com.backend.quanlytasks.repository.projection.TaskDetailVersionRow;
+import com.backend.quanlytasks.repository.projection.TaskListRow;
+import com.backend.quanlytasks.repository.projection.TaskStatusRow;
+import com.backend.quanlytasks.repository.projection.TaskTagRow;
 import com.backend.quanlytasks.service.CommentService;
 import com.backend.quanlytasks.service.NotificationService;
 import com.backend.quanlytasks.service.SubTaskService;
+import com.backend.quanlytasks.service.TaskAccessService;
+import com.backend.quanlytasks.service.TaskSearchService;
 import com.backend.quanlytasks.service.TaskHistoryService;
 import com.backend.quanlytasks.service.TaskService;
+import com.backend.quanlytasks.service.TaskStatusCounterService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -44,9 +73,26 @@ public class TaskServiceImpl implements TaskService {
     private final UserRepository userRepository;
     private final SubTaskRepository subTaskRepository;
     private final TaskHistoryService taskHistoryService;
+    private final TaskHistoryRepository taskHistoryRepository;
     private final SubTaskService subTaskService;
     private final CommentService commentService;
     private final NotificationService notificationService;
+    private final TaskAccessService taskAccessService;
+    private final TaskStatusCounterService taskStatusCounterService;
+    private final TaskSearchService taskSearchService;
+    private final UserTaskAccessRepository userTaskAccessRepository;
+    private final TaskListCache taskListCache;
+    private final TaskDetailCache taskDetailCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScopedExecutor scopedExecutor;
+
+    /**
+     * Số comments/history mới nhất trả kèm chi tiết task, phần cũ hơn lấy qua cursor
+     */
+    @Value("${app.task-detail.page-size:20}")
+    private int detailPageSize = 20;
+
+    private static final int MAX_TIMELINE_PAGE_SIZE = 100;
 
     @Override
     @Transactional
@@ -61,6 +107,10 @@ public class TaskServiceImpl implements TaskService {
 
         Task task = mapToTask(request, currentUser, tags);
         task = taskRepository.save(task);
+        taskAccessService.onTaskCreated(task);
+        taskStatusCounterService.onTaskCreated(task.getStatus());
+        taskSearchService.indexTask(task);
+        publishTaskChanged(task.getId(), ChangeType.TASK_UPDATED);
 
         // Log creation
         taskHistoryService.logChange(task, currentUser, "created", null, "Task được tạo");
@@ -110,6 +160,9 @@ public class TaskServiceImpl implements TaskService {
         }
 
         task = taskRepository.save(task);
+        taskRepository.bumpVersion(task);
+        taskSearchService.indexTask(task);
+        publishTaskChanged(task.getId(), ChangeType.TASK_UPDATED);
 
         // Send notification to task creator if current user is not the creator
         if (!task.getCreatedBy().getId().equals(currentUser.getId())) {
@@ -155,6 +208,9 @@ public class TaskServiceImpl implements TaskService {
 
         task.setIsDelete(1);
         taskRepository.save(task);
+        taskRepository.bumpVersion(task);
+        taskStatusCounterService.onTaskDeleted(task.getId(), task.getStatus());
+        publishTaskChanged(task.getId(), ChangeType.TASK_UPDATED);
 
         // Log deletion
         taskHistoryService.logChange(task, currentUser, "deleted", null, "Task đã bị xóa");
@@ -203,86 +259,273 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public TaskListResponse getTaskList(TaskFilterRequest filter, User currentUser, boolean isAdmin) {
+        // ADMIN dùng chung một phạm vi (null), USER theo id
+        Long scopeUserId = isAdmin ? null : currentUser.getId();
+        return taskListCache.get(filter, scopeUserId, () -> loadTaskList(filter, currentUser, isAdmin));
+    }
+
+    /**
+     * Chạy truy vấn danh sách task (khi cache chưa có kết quả)
+     */
+    private TaskListResponse loadTaskList(TaskFilterRequest filter, User currentUser, boolean isAdmin) {
+        if (filter.getMode() == PageMode.CURSOR || filter.getCursor() != null) {
+            return getTaskListByCursor(filter, currentUser, isAdmin);
+        }
+
         Pageable pageable = PageRequest.of(
                 filter.getPage() != null ? filter.getPage() : 0,
-                filter.getSize() != null ? filter.getSize() : 8,
-                Sort.by(Sort.Direction.DESC, "createdAt"));
+                filter.getSize() != null ? filter.getSize() : 8);
+
+        // ADMIN: xem tất cả tasks; USER: chỉ xem tasks của mình (tạo hoặc được assign)
+        Long scopeUserId = isAdmin ? null : currentUser.getId();
+
+        // Client cuộn vô hạn chỉ cần hasNext: bỏ qua COUNT
+        if (filter.getMode() == PageMode.SLICE) {
+            Slice<Long> idSlice = taskRepository.findTaskIdSlice(filter, scopeUserId, pageable);
+            return TaskListResponse.builder()
+                    .tasks(loadTaskResponses(idSlice.getContent()))
+                    .currentPage(idSlice.getNumber())
+                    .pageSize(idSlice.getSize())
+                    .hasNext(idSlice.hasNext())
+                    .hasPrevious(idSlice.hasPrevious())
+                    .build();
+        }
 
-        Page<Task> taskPage;
+        Page<Long> idPage = taskRepository.findTaskIds(filter, scopeUserId, pageable);
 
-        // Get first tag for filtering (if any)
-        String tagName = (filter.getTags() != null && !filter.getTags().isEmpty())
-                ? filter.getTags().get(0)
-                : null;
+        List<TaskResponse> taskResponses = loadTaskResponses(idPage.getContent());
 
-        if (isAdmin) {
-            // ADMIN: xem tất cả tasks
-            taskPage = taskRepository.findAllWithFilters(
-                    filter.getStatus(),
-                    filter.getPriority(),
-                    filter.getAssigneeId(),
-                    filter.getDueDateFrom(),
-                    filter.getDueDateTo(),
-                    tagName,
-                    pageable);
-        } else {
-            // USER: chỉ xem tasks của mình (tạo hoặc được assign)
-            taskPage = taskRepository.findByUserWithFilters(
-                    currentUser.getId(),
-                    filter.getStatus(),
-                    filter.getPriority(),
-                    filter.getDueDateFrom(),
-                    filter.getDueDateTo(),
-                    tagName,
-                    pageable);
-        }
-
-        List<TaskResponse> taskResponses = taskPage.getContent().stream()
-                .map(this::mapToTaskResponse)
-                .collect(Collectors.toList());
+        return TaskListResponse.builder()
+                .tasks(taskResponses)
+                .currentPage(idPage.getNumber())
+                .totalPages(idPage.getTotalPages())
+                .totalElements(idPage.getTotalElements())
+                .pageSize(idPage.getSize())
+                .hasNext(idPage.hasNext())
+                .hasPrevious(idPage.hasPrevious())
+                .build();
+    }
+
+    /**
+     * Phân trang keyset theo (trường sắp xếp, id): không chạy COUNT và không phải bỏ qua
+     * các dòng của những trang trước, thời gian truy vấn không phụ thuộc độ sâu trang
+     */
+    private TaskListResponse getTaskListByCursor(TaskFilterRequest filter, User currentUser, boolean isAdmin) {
+        int size = filter.getSize() != null ? filter.getSize() : 8;
+        TaskCursor cursor = TaskCursor.decode(filter.getCursor());
+
+        // Trang sau dùng lại cách sắp xếp đã mã hóa trong cursor
+        if (cursor != null) {
+            if ((filter.getSort() != null && filter.getSort() != cursor.getSort())
+                    || (filter.getDirection() != null && filter.getDirection() != cursor.getDirection())) {
+                throw new RuntimeException("Cursor không khớp với cách sắp xếp");
+            }
+            filter.setSort(cursor.getSort());
+            filter.setDirection(cursor.getDirection());
+        }
+        TaskSortField sort = filter.getSort() != null ? filter.getSort() : TaskSortField.CREATED_AT;
+        SortDirection direction = filter.getDirection() != null ? filter.getDirection() : SortDirection.DESC;
+
+        // Lấy dư 1 dòng để biết còn trang sau hay không
+        Long scopeUserId = isAdmin ? null : currentUser.getId();
+        List<Long> ids = taskRepository.findTaskIdsAfterCursor(filter, scopeUserId, cursor, size + 1);
+
+        boolean hasNext = ids.size() > size;
+        if (hasNext) {
+            ids = ids.subList(0, size);
+        }
+
+        List<TaskResponse> taskResponses = loadTaskResponses(ids);
+
+        String nextCursor = null;
+        if (hasNext) {
+            TaskResponse last = taskResponses.get(taskResponses.size() - 1);
+            nextCursor = new TaskCursor(sort, direction, sortValue(last, sort), last.getId()).encode();
+        }
 
         return TaskListResponse.builder()
                 .tasks(taskResponses)
-                .currentPage(taskPage.getNumber())
-                .totalPages(taskPage.getTotalPages())
-                .totalElements(taskPage.getTotalElements())
-                .pageSize(taskPage.getSize())
-                .hasNext(taskPage.hasNext())
-                .hasPrevious(taskPage.hasPrevious())
+                .pageSize(size)
+                .hasNext(hasNext)
+                .hasPrevious(cursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Helper: Giá trị trường sắp xếp của một task (để dựng cursor)
+     */
+    private Comparable<?> sortValue(TaskResponse task, TaskSortField sort) {
+        return switch (sort) {
+            case CREATED_AT -> task.getCreatedAt();
+            case DUE_DATE -> task.getDueDate();
+            case UPDATED_AT -> task.getUpdatedAt();
+            case PRIORITY -> task.getPriority().getRank();
+            case STATUS -> task.getStatus();
+        };
+    }
+
+    @Override
+    public ResourceVersion getTaskListVersion(TaskListResponse page) {
+        // Chỉ dựa trên trang được phục vụ: không COUNT/MAX trên toàn bộ tập thỏa filter
+        // Không trả Last-Modified: task rời khỏi trang không làm tăng updatedAt của các task còn lại
+        StringBuilder digest = new StringBuilder()
+                .append(page.getCurrentPage()).append('|').append(page.getTotalPages()).append('|')
+                .append(page.getTotalElements()).append('|').append(page.getPageSize()).append('|')
+                .append(page.getHasNext()).append('|').append(page.getHasPrevious()).append('|')
+                .append(page.getNextCursor());
+        for (TaskResponse task : page.getTasks()) {
+            digest.append('|').append(task.getId()).append(':').append(task.getUpdatedAt())
+                    .append(':').append(task.isDeleted()).append(':').append(task.getAssigneeName())
+                    .append(':').append(task.getTags());
+        }
+        String etag = DigestUtils.md5DigestAsHex(digest.toString().getBytes(StandardCharsets.UTF_8));
+        return new ResourceVersion(etag, -1);
+    }
+
+    @Override
+    public ResourceVersion getTaskDetailVersion(Long id, User currentUser, boolean isAdmin) {
+        TaskDetailVersionRow row = taskRepository.findDetailVersionRow(id)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+
+        // Cùng quy tắc với getTaskDetail: USER không xem được task đã xóa hoặc không liên quan
+        checkViewPermission(id, row.getIsDelete(), currentUser, isAdmin);
+
+        LocalDateTime lastModified = Stream.of(row.getTaskUpdatedAt(), row.getLastCommentAt(),
+                row.getLastHistoryAt(), row.getLastSubTaskAt())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+
+        String etag = DigestUtils.md5DigestAsHex((id + "|" + row.getIsDelete() + "|" + row.getTaskUpdatedAt() + "|"
+                + row.getLastCommentAt() + "|" + row.getLastHistoryAt() + "|" + row.getLastSubTaskAt())
+                .getBytes(StandardCharsets.UTF_8));
+        return new ResourceVersion(etag, lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1);
+    }
+
+    @Override
+    public TaskStatsResponse getTaskStats(User currentUser, boolean isAdmin) {
+        // Đọc bộ đếm duy trì sẵn (vài dòng) thay vì đếm trên bảng tasks
+        Map<TaskStatus, Long> counts = taskStatusCounterService.getCounts(isAdmin ? null : currentUser.getId());
+
+        return TaskStatsResponse.builder()
+                .todo(counts.get(TaskStatus.TODO))
+                .inProgress(counts.get(TaskStatus.IN_PROGRESS))
+                .done(counts.get(TaskStatus.DONE))
+                .cancelled(counts.get(TaskStatus.CANCELLED))
+                .total(counts.values().stream().mapToLong(Long::longValue).sum())
                 .build();
     }
 
     @Override
     public TaskDetailResponse getTaskDetail(Long id, User currentUser, boolean isAdmin) {
-        // Admin can view deleted tasks, users cannot
-        Task task;
-        if (isAdmin) {
-            task = taskRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
-        } else {
-            task = taskRepository.findByIdAndIsDelete(id, 0)
-                    .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+        Long version = taskRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+
+        // Cache dùng chung cho mọi người xem, quyền xem vẫn kiểm tra lại ở mỗi lần đọc
+        TaskDetailResponse cached = taskDetailCache.get(id, version);
+        if (cached != null) {
+            if (!isAdmin && cached.isDeleted()) {
+                throw new RuntimeException("Không tìm thấy task");
+            }
+            checkDetailPermission(cached.getCreatedById(), cached.getAssigneeId(), cached.getSubtasks(),
+                    currentUser, isAdmin);
+            return cached;
         }
 
-        // Get related data first (needed for permission check)
-        List<SubTaskResponse> subtasks = subTaskService.getSubTasksByTaskId(id);
+        // Admin can view deleted tasks, users cannot
+        // Người tạo, người được giao và tags được nạp cùng task trong 1 query
+        Task task = taskRepository.findDetailById(id)
+                .filter(t -> isAdmin || t.getIsDelete() == 0)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+
+        // Subtasks, comments, history độc lập với nhau: nạp song song, mỗi phần một transaction chỉ đọc
+        try (ScopedExecutor.Scope scope = scopedExecutor.open()) {
+            Future<List<SubTaskResponse>> subtasksFuture = scope.fork(() -> subTaskService.getSubTasksByTaskId(id));
+            Future<CommentListResponse> commentsFuture = scope.fork(
+                    () -> commentService.getCommentPage(id, null, detailPageSize));
+            Future<TaskHistoryListResponse> historyFuture = scope.fork(
+                    () -> taskHistoryService.getHistoryPage(id, null, detailPageSize));
+
+            List<SubTaskResponse> subtasks = scope.join(subtasksFuture);
+
+            // Không có quyền: đóng scope hủy các phần còn lại, không trả dữ liệu nào
+            checkDetailPermission(task.getCreatedBy().getId(),
+                    task.getAssignee() != null ? task.getAssignee().getId() : null,
+                    subtasks, currentUser, isAdmin);
+
+            TaskDetailResponse response = mapToTaskDetailResponse(task, subtasks,
+                    scope.join(commentsFuture), scope.join(historyFuture));
+            // Dữ liệu nạp sau khi đọc version nên không cũ hơn version đó
+            taskDetailCache.put(id, version, response);
+            return response;
+        }
+    }
 
+    /**
+     * Helper: Check permission xem chi tiết task: admin, creator, task assignee, or subtask assignee
+     */
+    private void checkDetailPermission(Long createdById, Long assigneeId, List<SubTaskResponse> subtasks,
+            User currentUser, boolean isAdmin) {
+        if (isAdmin || createdById.equals(currentUser.getId()) || currentUser.getId().equals(assigneeId)) {
+            return;
+        }
         // Check if user is assigned to any subtask
         boolean isSubtaskAssignee = subtasks.stream()
                 .anyMatch(st -> st.getAssigneeId() != null && st.getAssigneeId().equals(currentUser.getId()));
-
-        // Check permission: admin, creator, task assignee, or subtask assignee
-        if (!isAdmin && !task.getCreatedBy().getId().equals(currentUser.getId())
-                && (task.getAssignee() == null || !task.getAssignee().getId().equals(currentUser.getId()))
-                && !isSubtaskAssignee) {
+        if (!isSubtaskAssignee) {
             throw new RuntimeException("Không có quyền xem task này");
         }
+    }
 
-        // Get remaining related data
-        List<CommentResponse> comments = commentService.getCommentsByTaskId(id);
-        List<TaskHistoryResponse> history = taskHistoryService.getTaskHistory(id);
+    @Override
+    public CommentListResponse getTaskComments(Long id, String cursor, Integer size, User currentUser,
+            boolean isAdmin) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+        checkViewPermission(id, task.getIsDelete(), currentUser, isAdmin);
+        return commentService.getCommentPage(id, cursor, timelinePageSize(size));
+    }
 
-        return mapToTaskDetailResponse(task, subtasks, comments, history);
+    @Override
+    public TaskHistoryListResponse getTaskHistory(Long id, String cursor, Integer size, User currentUser,
+            boolean isAdmin) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+        checkViewPermission(id, task.getIsDelete(), currentUser, isAdmin);
+        return taskHistoryService.getHistoryPage(id, cursor, timelinePageSize(size));
+    }
+
+    @Override
+    public List<TaskHistoryResponse> getTaskHistory(Long id, User currentUser, boolean isAdmin) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
+        checkViewPermission(id, task.getIsDelete(), currentUser, isAdmin);
+        return taskHistoryService.getTaskHistory(id);
+    }
+
+    /**
+     * Helper: USER không xem được task đã xóa hoặc task không liên quan (theo user_task_access)
+     */
+    private void checkViewPermission(Long taskId, Integer isDelete, User currentUser, boolean isAdmin) {
+        if (isAdmin) {
+            return;
+        }
+        if (isDelete != 0) {
+            throw new RuntimeException("Không tìm thấy task");
+        }
+        if (!userTaskAccessRepository.existsByUserIdAndTaskId(currentUser.getId(), taskId)) {
+            throw new RuntimeException("Không có quyền xem task này");
+        }
+    }
+
+    private int timelinePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return detailPageSize;
+        }
+        return Math.min(size, MAX_TIMELINE_PAGE_SIZE);
     }
 
     @Override
@@ -308,6 +551,10 @@ public class TaskServiceImpl implements TaskService {
 
         task.setAssignee(newAssignee);
         task = taskRepository.save(task);
+        taskRepository.bumpVersion(task);
+        taskAccessService.onTaskAssigneeChanged(task, oldAssignee, newAssignee);
+        // Người được giao cũ đã mất quyền xem, không còn trong user_task_access sau commit
+        publishTaskChanged(task.getId(), ChangeType.TASK_UPDATED, oldAssignee);
 
         // Send notification to new assignee
         notificationService.publishTaskNotification(
@@ -333,55 +580,87 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     public TaskResponse updateTaskStatus(Long id, UpdateTaskStatusRequest request, User currentUser, boolean isAdmin) {
-        Task task = taskRepository.findByIdAndIsDelete(id, 0)
+        // Chỉ đọc các cột cần thiết, không nạp entity Task
+        TaskStatusRow row = taskRepository.findStatusRowById(id)
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy task"));
 
         // Check permission: ADMIN, Creator, or Assignee
-        boolean isCreator = task.getCreatedBy().getId().equals(currentUser.getId());
-        boolean isAssignee = task.getAssignee() != null && task.getAssignee().getId().equals(currentUser.getId());
+        boolean isCreator = row.getCreatedById().equals(currentUser.getId());
+        boolean isAssignee = currentUser.getId().equals(row.getAssigneeId());
 
         if (!isAdmin && !isCreator && !isAssignee) {
             throw new RuntimeException("Bạn không có quyền cập nhật trạng thái task này");
         }
 
-        String oldStatus = task.getStatus().name();
+        // Client cũ không gửi expectedStatus: dùng trạng thái vừa đọc
+        // (UPDATE có điều kiện bên dưới vẫn chặn thay đổi xen vào giữa lúc đọc và lúc ghi)
+        TaskStatus expectedStatus = request.getExpectedStatus() != null
+                ? request.getExpectedStatus()
+                : row.getStatus();
+        if (row.getStatus() != expectedStatus) {
+            throw new ConflictException("Trạng thái task đã được người khác cập nhật, vui lòng tải lại");
+        }
+        // Chọn lại đúng trạng thái đang có: không ghi gì (không sinh history DONE -> DONE cho báo cáo)
+        if (request.getStatus() == expectedStatus) {
+            return loadTaskResponses(List.of(id)).get(0);
+        }
+
+        // 1 câu UPDATE có điều kiện thay cho nạp - sửa - lưu: hai request đổi trạng thái cùng lúc
+        // thì request sau nhận 409 thay vì ghi đè âm thầm
+        LocalDateTime now = LocalDateTime.now();
+        int updated = taskRepository.updateStatusIfCurrent(id, expectedStatus, request.getStatus(), now);
+        if (updated == 0) {
+            throw new ConflictException("Trạng thái task đã được người khác cập nhật, vui lòng tải lại");
+        }
+
+        String oldStatus = expectedStatus.name();
         String newStatus = request.getStatus().name();
 
-        // Log change
-        taskHistoryService.logChange(task, currentUser, "status", oldStatus, newStatus);
+        // History ghi bằng 1 câu INSERT ngay sau UPDATE, cùng transaction và cùng thời điểm
+        taskHistoryRepository.insertStatusChange(id, currentUser.getId(), oldStatus, newStatus, now);
+        taskStatusCounterService.onStatusChanged(id, expectedStatus, request.getStatus());
 
-        task.setStatus(request.getStatus());
-        task = taskRepository.save(task);
+        User creator = isCreator ? currentUser : userRepository.findById(row.getCreatedById()).orElse(null);
+        User assignee = row.getAssigneeId() == null ? null
+                : isAssignee ? currentUser : userRepository.findById(row.getAssigneeId()).orElse(null);
+
+        publishTaskChanged(id, ChangeType.TASK_UPDATED);
+
+        String message = "Task \"" + row.getTitle() + "\" đã chuyển từ " + oldStatus + " sang " + newStatus;
 
         // Send notification to task creator about status change
-        if (!task.getCreatedBy().getId().equals(currentUser.getId())) {
+        if (creator != null && !isCreator) {
             notificationService.publishTaskNotification(
-                    task.getCreatedBy(),
+                    creator,
                     "Task đã được cập nhật trạng thái",
-                    "Task \"" + task.getTitle() + "\" đã chuyển từ " + oldStatus + " sang " + newStatus,
-                    task,
+                    message,
+                    id,
+                    row.getTitle(),
                     NotificationType.TASK_STATUS_CHANGED);
         }
 
         // Send notification to assignee if different from current user and creator
-        if (task.getAssignee() != null
-                && !task.getAssignee().getId().equals(currentUser.getId())
-                && !task.getAssignee().getId().equals(task.getCreatedBy().getId())) {
+        if (assignee != null
+                && !isAssignee
+                && !assignee.getId().equals(row.getCreatedById())) {
             notificationService.publishTaskNotification(
-                    task.getAssignee(),
+                    assignee,
                     "Task đã được cập nhật trạng thái",
-                    "Task \"" + task.getTitle() + "\" đã chuyển từ " + oldStatus + " sang " + newStatus,
-                    task,
+                    message,
+                    id,
+                    row.getTitle(),
                     NotificationType.TASK_STATUS_CHANGED);
         }
 
         // Send notification to subtask assignees
-        sendNotificationToSubtaskAssignees(task, currentUser,
+        sendNotificationToSubtaskAssignees(id, row.getTitle(),
+                notifiedUserIds(currentUser.getId(), row.getCreatedById(), row.getAssigneeId()),
                 "Task cha đã thay đổi trạng thái",
-                "Task \"" + task.getTitle() + "\" đã chuyển từ " + oldStatus + " sang " + newStatus,
+                message,
                 NotificationType.TASK_STATUS_CHANGED);
 
-        return mapToTaskResponse(task);
+        // Đọc lại qua read model (kèm tên người tạo/người được giao và tags)
+        return loadTaskResponses(List.of(id)).get(0);
     }
 
     /**
@@ -448,13 +727,61 @@ public class TaskServiceImpl implements TaskService {
                 .build();
     }
 
+    /**
+     * Dựng TaskResponse cho một trang task từ read model của repository
+     * Luôn chỉ tốn 2 query (dòng + tag) bất kể kích thước trang,
+     * thay vì lazy-load createdBy, assignee và tags cho từng task
+     */
+    private List<TaskResponse> loadTaskResponses(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, TaskListRow> rowsById = taskRepository.findListRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskListRow::getId, row -> row));
+
+        Map<Long, List<String>> tagsByTaskId = new HashMap<>();
+        for (TaskTagRow tagRow : taskRepository.findTagRowsByTaskIdIn(ids)) {
+            tagsByTaskId.computeIfAbsent(tagRow.getTaskId(), k -> new ArrayList<>()).add(tagRow.getTagName());
+        }
+
+        // Giữ nguyên thứ tự sắp xếp của trang
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .map(row -> mapToTaskResponse(row, tagsByTaskId.getOrDefault(row.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Mapper: TaskListRow -> TaskResponse
+     */
+    private TaskResponse mapToTaskResponse(TaskListRow row, List<String> tagNames) {
+        return TaskResponse.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .description(row.getDescription())
+                .status(row.getStatus())
+                .priority(row.getPriority())
+                .dueDate(row.getDueDate())
+                .createdById(row.getCreatedById())
+                .createdByName(row.getCreatedByName())
+                .assigneeId(row.getAssigneeId())
+                .assigneeName(row.getAssigneeName())
+                .tags(tagNames)
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .isDeleted(row.getIsDelete() == 1)
+                .build();
+    }
+
     /**
      * Mapper: Task -> TaskDetailResponse (bao gồm subtasks, comments, history)
      */
     private TaskDetailResponse mapToTaskDetailResponse(Task task,
             List<SubTaskResponse> subtasks,
-            List<CommentResponse> comments,
-            List<TaskHistoryResponse> history) {
+            CommentListResponse comments,
+            TaskHistoryListResponse history) {
 
         List<String> tagNames = task.getTags() != null
                 ? task.getTags().stream().map(Tag::getName).collect(Collectors.toList())
@@ -475,100 +802,16 @@ public class TaskServiceImpl implements TaskService {
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .subtasks(subtasks)
-                .comments(comments)
-                .history(history)
+                .comments(comments.getComments())
+                .hasMoreComments(comments.getHasNext())
+                .commentsNextCursor(comments.getNextCursor())
+                .history(history.getHistory())
+                .hasMoreHistory(history.getHasNext())
+                .historyNextCursor(history.getNextCursor())
                 .isDeleted(task.getIsDelete() == 1)
                 .build();
     }
 
-    @Override
-    public byte[] exportTasksToExcel(User currentUser, boolean isAdmin) {
-        // Lấy danh sách tasks
-        List<Task> tasks;
-        if (isAdmin) {
-            tasks = taskRepository.findAllByIsDelete(0);
-        } else {
-            tasks = taskRepository.findByCreatedByIdOrAssigneeIdAndIsDelete(
-                    currentUser.getId(), currentUser.getId(), 0);
-        }
-
-        try (org.apache.poi.xssf.usermodel.XSSFWorkbook workbook = new org.apache.poi.xssf.usermodel.XSSFWorkbook()) {
-
-            org.apache.poi.xssf.usermodel.XSSFSheet sheet = workbook.createSheet("Tasks");
-
-            // Tạo style cho header
-            org.apache.poi.xssf.usermodel.XSSFCellStyle headerStyle = workbook.createCellStyle();
-            org.apache.poi.xssf.usermodel.XSSFFont headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setFontHeightInPoints((short) 12);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(org.apache.poi.ss.usermodel.IndexedColors.LIGHT_BLUE.getIndex());
-            headerStyle.setFillPattern(org.apache.poi.ss.usermodel.FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            headerStyle.setBorderTop(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            headerStyle.setBorderLeft(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-            headerStyle.setBorderRight(org.apache.poi.ss.usermodel.BorderStyle.THIN);
-
-            // Tạo style cho date
-            org.apache.poi.xssf.usermodel.XSSFCellStyle dateStyle = workbook.createCellStyle();
-            org.apache.poi.ss.usermodel.CreationHelper createHelper = workbook.getCreationHelper();
-            dateStyle.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-
-            // Header row
-            String[] headers = { "ID", "Tiêu đề", "Mô tả", "Trạng thái", "Độ ưu tiên",
-                    "Người được giao", "Ngày deadline", "Ngày tạo" };
-            org.apache.poi.ss.usermodel.Row headerRow = sheet.createRow(0);
-            for (int i = 0; i < headers.length; i++) {
-                org.apache.poi.ss.usermodel.Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // Data rows
-            int rowNum = 1;
-            for (Task task : tasks) {
-                org.apache.poi.ss.usermodel.Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(task.getId());
-                row.createCell(1).setCellValue(task.getTitle());
-                row.createCell(2).setCellValue(task.getDescription() != null ? task.getDescription() : "");
-                row.createCell(3).setCellValue(task.getStatus().name());
-                row.createCell(4).setCellValue(task.getPriority().name());
-                row.createCell(5)
-                        .setCellValue(task.getAssignee() != null ? task.getAssignee().getFullName() : "Chưa giao");
-
-                // Due date
-                org.apache.poi.ss.usermodel.Cell dueDateCell = row.createCell(6);
-                if (task.getDueDate() != null) {
-                    dueDateCell.setCellValue(java.sql.Timestamp.valueOf(task.getDueDate()));
-                    dueDateCell.setCellStyle(dateStyle);
-                } else {
-                    dueDateCell.setCellValue("Không có");
-                }
-
-                // Created at
-                org.apache.poi.ss.usermodel.Cell createdAtCell = row.createCell(7);
-                if (task.getCreatedAt() != null) {
-                    createdAtCell.setCellValue(java.sql.Timestamp.valueOf(task.getCreatedAt()));
-                    createdAtCell.setCellStyle(dateStyle);
-                }
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Convert to byte array
-            java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-
-        } catch (java.io.IOException e) {
-            throw new RuntimeException("Lỗi khi xuất file Excel: " + e.getMessage());
-        }
-    }
-
     @Override
     @Transactional
     public void restoreTask(Long id, User currentUser) {
@@ -583,6 +826,9 @@ public class TaskServiceImpl implements TaskService {
         // Restore task
         task.setIsDelete(0);
         taskRepository.save(task);
+        taskRepository.bumpVersion(task);
+        taskStatusCounterService.onTaskRestored(task.getId(), task.getStatus());
+        publishTaskChanged(task.getId(), ChangeType.TASK_UPDATED);
 
         // Log restore
         taskHistoryService.logChange(task, currentUser, "restored", "Task đã bị xóa", "Task đã được hoàn tác");
@@ -614,6 +860,19 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
+    /**
+     * Helper: Publish TaskChangedEvent để xóa cache danh sách task sau khi commit
+     *
+     * @param affectedUsers các user bị ảnh hưởng nhưng không còn quyền xem task sau thay đổi
+     */
+    private void publishTaskChanged(Long taskId, ChangeType type, User... affectedUsers) {
+        Set<Long> userIds = Arrays.stream(affectedUsers)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new TaskChangedEvent(this, taskId, userIds, type));
+    }
+
     /**
      * Helper: Gửi notification cho tất cả subtask assignees của một task
      * Dùng khi có thay đổi ở task cha (update, status change, delete, restore)
@@ -621,34 +880,45 @@ public class TaskServiceImpl implements TaskService {
      */
     private void sendNotificationToSubtaskAssignees(Task task, User currentUser,
             String title, String message, NotificationType type) {
+        sendNotificationToSubtaskAssignees(task.getId(), task.getTitle(),
+                notifiedUserIds(currentUser.getId(),
+                        task.getCreatedBy() != null ? task.getCreatedBy().getId() : null,
+                        task.getAssignee() != null ? task.getAssignee().getId() : null),
+                title, message, type);
+    }
+
+    /**
+     * Helper: Gửi notification cho subtask assignees theo id/tiêu đề task (không cần entity Task)
+     *
+     * @param notifiedUserIds các user đã được gửi riêng, được bổ sung thêm khi gửi
+     */
+    private void sendNotificationToSubtaskAssignees(Long taskId, String taskTitle, Set<Long> notifiedUserIds,
+            String title, String message, NotificationType type) {
         // Get all active subtasks of this task
         List<com.backend.quanlytasks.entity.SubTask> subtasks = subTaskRepository
-                .findByParentTaskIdAndIsDelete(task.getId(), 0);
-
-        // Collect unique subtask assignees
-        Set<Long> notifiedUserIds = new HashSet<>();
-
-        // Add already notified users (creator and assignee)
-        notifiedUserIds.add(currentUser.getId());
-        if (task.getCreatedBy() != null) {
-            notifiedUserIds.add(task.getCreatedBy().getId());
-        }
-        if (task.getAssignee() != null) {
-            notifiedUserIds.add(task.getAssignee().getId());
-        }
+                .findByParentTaskIdAndIsDelete(taskId, 0);
 
         // Send notification to each subtask assignee (if not already notified)
         for (com.backend.quanlytasks.entity.SubTask subTask : subtasks) {
             User subtaskAssignee = subTask.getAssignee();
-            if (subtaskAssignee != null && !notifiedUserIds.contains(subtaskAssignee.getId())) {
-                notifiedUserIds.add(subtaskAssignee.getId());
+            if (subtaskAssignee != null && notifiedUserIds.add(subtaskAssignee.getId())) {
                 notificationService.publishTaskNotification(
                         subtaskAssignee,
                         title,
                         message,
-                        task,
+                        taskId,
+                        taskTitle,
                         type);
             }
         }
     }
+
+    /**
+     * Helper: Tập user đã được thông báo (bỏ qua null)
+     */
+    private Set<Long> notifiedUserIds(Long... userIds) {
+        return Arrays.stream(userIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
 }
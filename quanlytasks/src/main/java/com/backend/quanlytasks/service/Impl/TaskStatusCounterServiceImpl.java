@@ -0,0 +1,204 @@
+package com.backend.quanlytasks.service.Impl;
+
+import com.backend.quanlytasks.common.enums.TaskCounterScope;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.repository.TaskRepository;
+import com.backend.quanlytasks.repository.TaskStatusCounterRepository;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import com.backend.quanlytasks.repository.projection.TaskStatusCountRow;
+import com.backend.quanlytasks.repository.projection.UserStatusCountRow;
+import com.backend.quanlytasks.service.TaskStatusCounterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+public class TaskStatusCounterServiceImpl implements TaskStatusCounterService {
+
+    /**
+     * user_id của các dòng phạm vi GLOBAL
+     */
+    static final long GLOBAL_USER_ID = 0L;
+
+    private final TaskStatusCounterRepository counterRepository;
+    private final TaskRepository taskRepository;
+    private final UserTaskAccessRepository userTaskAccessRepository;
+
+    /**
+     * Số stripe của bộ đếm GLOBAL (mọi thao tác ghi task đều chạm vào)
+     * Bộ đếm USER chỉ bị ghi bởi task của user đó nên dùng 1 dòng
+     */
+    @Value("${app.task-stats.global-stripes:8}")
+    private int globalStripes = 8;
+
+    @Override
+    @Transactional
+    public void onTaskCreated(TaskStatus status) {
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        deltas.put(CounterKey.global(status), 1L);
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void onStatusChanged(Long taskId, TaskStatus oldStatus, TaskStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        deltas.put(CounterKey.global(oldStatus), -1L);
+        deltas.put(CounterKey.global(newStatus), 1L);
+        for (Long userId : userTaskAccessRepository.findUserIdsByTaskId(taskId)) {
+            deltas.put(CounterKey.user(userId, oldStatus), -1L);
+            deltas.put(CounterKey.user(userId, newStatus), 1L);
+        }
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void onTaskDeleted(Long taskId, TaskStatus status) {
+        applyToTaskViewers(taskId, status, -1L);
+    }
+
+    @Override
+    @Transactional
+    public void onTaskRestored(Long taskId, TaskStatus status) {
+        applyToTaskViewers(taskId, status, 1L);
+    }
+
+    @Override
+    @Transactional
+    public void onAccessGranted(Long userId, Task task) {
+        applyToUser(userId, task, 1L);
+    }
+
+    @Override
+    @Transactional
+    public void onAccessRevoked(Long userId, Task task) {
+        applyToUser(userId, task, -1L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<TaskStatus, Long> getCounts(Long userId) {
+        TaskCounterScope scope = userId == null ? TaskCounterScope.GLOBAL : TaskCounterScope.USER;
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (TaskStatusCountRow row : counterRepository.sumByStatus(scope, userId == null ? GLOBAL_USER_ID : userId)) {
+            counts.put(row.getStatus(), row.getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    @Transactional
+    public int reconcile() {
+        // Các SELECT trong cùng transaction đọc cùng một snapshot: phần lệch tính được là của snapshot đó
+        // Sửa bằng cách cộng delta (không ghi đè) nên không làm mất thay đổi commit sau snapshot
+        Map<CounterKey, Long> actual = new HashMap<>();
+        for (TaskStatusCountRow row : taskRepository.countGroupByStatus()) {
+            actual.put(CounterKey.global(row.getStatus()), row.getCount());
+        }
+        for (UserStatusCountRow row : taskRepository.countGroupByUserAndStatus()) {
+            actual.put(CounterKey.user(row.getUserId(), row.getStatus()), row.getCount());
+        }
+
+        Map<CounterKey, Long> counted = new HashMap<>();
+        for (TaskStatusCountRow row : counterRepository.sumByStatus(TaskCounterScope.GLOBAL, GLOBAL_USER_ID)) {
+            counted.put(CounterKey.global(row.getStatus()), row.getCount());
+        }
+        for (UserStatusCountRow row : counterRepository.sumUserCounters()) {
+            counted.put(CounterKey.user(row.getUserId(), row.getStatus()), row.getCount());
+        }
+
+        Set<CounterKey> keys = new HashSet<>(actual.keySet());
+        keys.addAll(counted.keySet());
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        for (CounterKey key : keys) {
+            long drift = actual.getOrDefault(key, 0L) - counted.getOrDefault(key, 0L);
+            if (drift != 0) {
+                deltas.put(key, drift);
+            }
+        }
+        apply(deltas);
+        return deltas.size();
+    }
+
+    /**
+     * Helper: Cộng delta cho GLOBAL và mọi user đang xem được task
+     */
+    private void applyToTaskViewers(Long taskId, TaskStatus status, long delta) {
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        deltas.put(CounterKey.global(status), delta);
+        for (Long userId : userTaskAccessRepository.findUserIdsByTaskId(taskId)) {
+            deltas.put(CounterKey.user(userId, status), delta);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Helper: Cộng delta cho một user, bỏ qua task đã xóa (không được đếm)
+     */
+    private void applyToUser(Long userId, Task task, long delta) {
+        if (task.getIsDelete() != 0) {
+            return;
+        }
+        Map<CounterKey, Long> deltas = new TreeMap<>();
+        deltas.put(CounterKey.user(userId, task.getStatus()), delta);
+        apply(deltas);
+    }
+
+    /**
+     * Helper: Ghi các delta theo thứ tự khóa cố định để các transaction không khóa chéo nhau
+     */
+    private void apply(Map<CounterKey, Long> deltas) {
+        deltas.forEach((key, delta) -> counterRepository.addToCounter(
+                key.scope().name(), key.userId(), key.status().name(), stripeOf(key), delta));
+    }
+
+    /**
+     * Helper: Chọn ngẫu nhiên một stripe cho bộ đếm GLOBAL
+     */
+    private int stripeOf(CounterKey key) {
+        return key.scope() == TaskCounterScope.GLOBAL ? ThreadLocalRandom.current().nextInt(globalStripes) : 0;
+    }
+
+    /**
+     * Khóa của một bộ đếm (chưa tính stripe)
+     */
+    private record CounterKey(TaskCounterScope scope, Long userId, TaskStatus status)
+            implements Comparable<CounterKey> {
+
+        private static final Comparator<CounterKey> ORDER = Comparator.comparing(CounterKey::scope)
+                .thenComparing(CounterKey::userId)
+                .thenComparing(CounterKey::status);
+
+        static CounterKey global(TaskStatus status) {
+            return new CounterKey(TaskCounterScope.GLOBAL, GLOBAL_USER_ID, status);
+        }
+
+        static CounterKey user(Long userId, TaskStatus status) {
+            return new CounterKey(TaskCounterScope.USER, userId, status);
+        }
+
+        @Override
+        public int compareTo(CounterKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
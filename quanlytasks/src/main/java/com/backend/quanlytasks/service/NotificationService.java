@@ -30,6 +30,12 @@ public interface NotificationService {
     void publishTaskNotification(User recipient, String title, String message,
             Task relatedTask, NotificationType type);
 
+    /**
+     * Publish event thông báo task khi chỉ có id và tiêu đề task (không có entity Task)
+     */
+    void publishTaskNotification(User recipient, String title, String message,
+            Long relatedTaskId, String relatedTaskTitle, NotificationType type);
+
     /**
      * Lấy danh sách thông báo của user
      */
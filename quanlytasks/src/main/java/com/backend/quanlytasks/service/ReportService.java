@@ -0,0 +1,51 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.dto.response.Report.CycleTimeReportResponse;
+import com.backend.quanlytasks.dto.response.Report.OverdueReportResponse;
+import com.backend.quanlytasks.dto.response.Report.ThroughputReportResponse;
+import com.backend.quanlytasks.entity.User;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service báo cáo cycle time, throughput, task quá hạn theo người được giao
+ * Số liệu được tổng hợp tăng dần vào task_daily_rollups, các API báo cáo chỉ đọc bảng rollup
+ */
+public interface ReportService {
+
+    /**
+     * Tổng hợp một lô các lần chuyển sang DONE mới (sau high-water mark) vào rollup theo ngày
+     * Mỗi task chỉ được tính một lần, ở lần hoàn thành đầu tiên (DONE -> DONE và hoàn thành lại
+     * sau khi mở lại task không được tính); số liệu gán cho người được giao của task lúc job chạy
+     *
+     * @return số bản ghi task_history đã xử lý, 0 nếu không còn gì mới
+     */
+    int rollupCompletions();
+
+    /**
+     * Chụp số task chưa xong đã quá hạn của từng user vào rollup của ngày hôm nay
+     *
+     * @return số dòng rollup được ghi
+     */
+    int snapshotOverdue();
+
+    /**
+     * Cycle time trung bình theo người được giao
+     * ADMIN xem tất cả, USER chỉ xem số liệu của mình
+     *
+     * @param from null = 30 ngày gần nhất
+     * @param to   null = hôm nay
+     */
+    List<CycleTimeReportResponse> getCycleTime(LocalDate from, LocalDate to, User currentUser, boolean isAdmin);
+
+    /**
+     * Số task hoàn thành theo tuần và người được giao
+     */
+    List<ThroughputReportResponse> getThroughput(LocalDate from, LocalDate to, User currentUser, boolean isAdmin);
+
+    /**
+     * Số task quá hạn theo ngày và người được giao (chỉ các ngày có task quá hạn)
+     */
+    List<OverdueReportResponse> getOverdue(LocalDate from, LocalDate to, User currentUser, boolean isAdmin);
+}
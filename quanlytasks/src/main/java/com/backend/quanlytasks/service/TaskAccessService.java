@@ -0,0 +1,34 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.entity.User;
+
+/**
+ * Service duy trì bảng user_task_access (user nào được xem task nào)
+ * Các method được gọi trong cùng transaction với thao tác ghi task/subtask
+ */
+public interface TaskAccessService {
+
+    /**
+     * Ghi quyền xem cho người tạo (và người được giao nếu có) khi task mới được tạo
+     */
+    void onTaskCreated(Task task);
+
+    /**
+     * Cập nhật quyền xem khi task được giao cho người khác
+     */
+    void onTaskAssigneeChanged(Task task, User oldAssignee, User newAssignee);
+
+    /**
+     * Cập nhật quyền xem khi assignee của một subtask thay đổi
+     * (newAssignee = null khi subtask bị xóa hoặc bỏ giao)
+     */
+    void onSubTaskAssigneeChanged(Task parentTask, User oldAssignee, User newAssignee);
+
+    /**
+     * Đồng bộ lại toàn bộ bảng từ tasks/subtasks: thêm bản ghi thiếu, xóa bản ghi sai
+     *
+     * @return số bản ghi đã thêm hoặc xóa
+     */
+    int rebuild();
+}
@@ -0,0 +1,56 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.pagination.ExportWatermark;
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.entity.User;
+
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Service xuất danh sách task ra file
+ * Ghi thẳng vào output stream của response: bộ nhớ dùng không phụ thuộc số lượng task
+ * Với MySQL điều này chỉ đúng khi JDBC URL có useCursorFetch=true: nếu không, Connector/J bỏ qua
+ * fetch size và nạp toàn bộ kết quả query vào heap trước khi ghi dòng đầu tiên
+ * (JdbcCursorFetchCheck cảnh báo khi khởi động)
+ */
+public interface TaskExportService {
+
+    /**
+     * Chốt mốc trên của export delta (bây giờ trừ độ trễ commit) trước khi ghi file,
+     * để watermark trả cho client (header hoặc trạng thái job) khớp với dữ liệu trong file
+     * Kiểm tra quyền (chỉ ADMIN) và định dạng (CSV/NDJSON) ngay khi nhận yêu cầu
+     *
+     * @return mốc trên, cũng là watermark cho lần export sau; null nếu request không phải export delta
+     */
+    ExportWatermark resolveWatermark(TaskExportRequest request, boolean isAdmin);
+
+    /**
+     * Xuất danh sách task thỏa filter ra file theo định dạng của request (XLSX, CSV, NDJSON)
+     * ADMIN xuất tất cả task chưa xóa, USER xuất task mình được phép xem
+     * Với XLSX, sheet Subtasks/Comments/History được thêm theo các cờ include của request
+     * Export delta (updatedSince/watermark) ghi các task đã thay đổi, task đã xóa mềm ghi thành tombstone
+     * Output stream không bị đóng, người gọi tự đóng
+     */
+    default void exportTasks(TaskExportRequest request, User currentUser, boolean isAdmin, OutputStream out) {
+        exportTasks(request, currentUser, isAdmin, null, out);
+    }
+
+    /**
+     * Như exportTasks, với mốc trên của export delta đã chốt bằng resolveWatermark
+     */
+    default void exportTasks(TaskExportRequest request, User currentUser, boolean isAdmin,
+            ExportWatermark changedBefore, OutputStream out) {
+        exportTasks(request, currentUser, isAdmin, changedBefore, out, rowsWritten -> {
+        });
+    }
+
+    /**
+     * Như exportTasks, kèm callback tiến độ nhận số task đã ghi sau mỗi dòng
+     * Quyền và định dạng của export delta luôn được kiểm tra lại ở đây
+     *
+     * @param changedBefore mốc trên từ resolveWatermark; null thì chốt khi bắt đầu ghi
+     */
+    void exportTasks(TaskExportRequest request, User currentUser, boolean isAdmin, ExportWatermark changedBefore,
+            OutputStream out, LongConsumer progress);
+}
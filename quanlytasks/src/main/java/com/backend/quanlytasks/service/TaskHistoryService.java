@@ -1,5 +1,6 @@
 package com.backend.quanlytasks.service;
 
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
 import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
@@ -20,4 +21,11 @@ public interface TaskHistoryService {
      * Lấy lịch sử thay đổi của task
      */
     List<TaskHistoryResponse> getTaskHistory(Long taskId);
+
+    /**
+     * Lấy một trang lịch sử của task, từ mới đến cũ (phân trang keyset)
+     *
+     * @param cursor null để lấy các thay đổi mới nhất
+     */
+    TaskHistoryListResponse getHistoryPage(Long taskId, String cursor, int size);
 }
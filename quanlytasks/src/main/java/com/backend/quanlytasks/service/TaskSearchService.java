@@ -0,0 +1,21 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.entity.Comment;
+import com.backend.quanlytasks.entity.Task;
+
+/**
+ * Service cập nhật index tìm kiếm full-text của task (bảng task_search_index)
+ * Được gọi trong cùng transaction với thao tác ghi task/comment
+ */
+public interface TaskSearchService {
+
+    /**
+     * Cập nhật tiêu đề/mô tả của task trong index (tạo mới nếu chưa có)
+     */
+    void indexTask(Task task);
+
+    /**
+     * Thêm nội dung comment mới vào index của task
+     */
+    void indexComment(Comment comment);
+}
@@ -1,11 +1,18 @@
 package com.backend.quanlytasks.service;
 
+import com.backend.quanlytasks.common.http.ResourceVersion;
 import com.backend.quanlytasks.dto.request.Task.*;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskStatsResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.User;
 
+import java.util.List;
+
 /**
  * Service interface cho các thao tác với Task
  */
@@ -28,14 +35,48 @@ public interface TaskService {
 
     /**
      * Lấy danh sách task (có filter và phân trang)
+     * Hỗ trợ phân trang offset (page/size) hoặc keyset (cursor)
      */
     TaskListResponse getTaskList(TaskFilterRequest filter, User currentUser, boolean isAdmin);
 
     /**
-     * Lấy chi tiết task (bao gồm subtasks, comments, history)
+     * Validator (ETag) của một trang danh sách task, tính từ chính trang được trả về
+     * (id, thời điểm cập nhật của từng task và thông tin phân trang), không chạy thêm query nào
+     */
+    ResourceVersion getTaskListVersion(TaskListResponse page);
+
+    /**
+     * Lấy chi tiết task (bao gồm subtasks, các comments và history mới nhất kèm cursor)
      */
     TaskDetailResponse getTaskDetail(Long id, User currentUser, boolean isAdmin);
 
+    /**
+     * Lấy một trang comments cũ hơn cursor của task (kiểm tra quyền xem như chi tiết task)
+     */
+    CommentListResponse getTaskComments(Long id, String cursor, Integer size, User currentUser, boolean isAdmin);
+
+    /**
+     * Lấy một trang lịch sử cũ hơn cursor của task (kiểm tra quyền xem như chi tiết task)
+     */
+    TaskHistoryListResponse getTaskHistory(Long id, String cursor, Integer size, User currentUser, boolean isAdmin);
+
+    /**
+     * Lấy toàn bộ lịch sử của task (dạng mảng của API #17 khi không phân trang)
+     */
+    List<TaskHistoryResponse> getTaskHistory(Long id, User currentUser, boolean isAdmin);
+
+    /**
+     * Validator (ETag, Last-Modified) của chi tiết task, không dựng DTO
+     * Kiểm tra quyền xem trước khi trả về
+     */
+    ResourceVersion getTaskDetailVersion(Long id, User currentUser, boolean isAdmin);
+
+    /**
+     * Thống kê số task theo trạng thái
+     * ADMIN đếm tất cả task chưa xóa, USER đếm task mình được xem
+     */
+    TaskStatsResponse getTaskStats(User currentUser, boolean isAdmin);
+
     /**
      * Giao task cho user (chỉ ADMIN)
      */
@@ -46,12 +87,6 @@ public interface TaskService {
      */
     TaskResponse updateTaskStatus(Long id, UpdateTaskStatusRequest request, User currentUser, boolean isAdmin);
 
-    /**
-     * Xuất danh sách task ra file Excel
-     * ADMIN xuất tất cả task, USER xuất task của mình
-     */
-    byte[] exportTasksToExcel(User currentUser, boolean isAdmin);
-
     /**
      * Khôi phục task đã xóa (chỉ ADMIN)
      * Gửi notification cho assignee rằng task được hoàn tác
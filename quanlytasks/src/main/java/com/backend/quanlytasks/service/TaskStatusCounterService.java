@@ -0,0 +1,58 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.entity.Task;
+
+import java.util.Map;
+
+/**
+ * Service duy trì bảng task_status_counters (số task theo status, toàn hệ thống và theo từng user)
+ * Các method ghi được gọi trong cùng transaction với thao tác ghi task/quyền xem
+ */
+public interface TaskStatusCounterService {
+
+    /**
+     * Task mới được tạo: chỉ tăng bộ đếm GLOBAL
+     * (bộ đếm USER tăng qua onAccessGranted khi quyền xem được ghi)
+     */
+    void onTaskCreated(TaskStatus status);
+
+    /**
+     * Task đổi status: chuyển 1 từ status cũ sang status mới cho GLOBAL và mọi user xem được task
+     */
+    void onStatusChanged(Long taskId, TaskStatus oldStatus, TaskStatus newStatus);
+
+    /**
+     * Task bị xóa mềm: giảm GLOBAL và mọi user xem được task
+     */
+    void onTaskDeleted(Long taskId, TaskStatus status);
+
+    /**
+     * Task được khôi phục: tăng GLOBAL và mọi user xem được task
+     */
+    void onTaskRestored(Long taskId, TaskStatus status);
+
+    /**
+     * User bắt đầu xem được task (dòng user_task_access đầu tiên của user với task)
+     */
+    void onAccessGranted(Long userId, Task task);
+
+    /**
+     * User không còn xem được task (dòng user_task_access cuối cùng bị xóa)
+     */
+    void onAccessRevoked(Long userId, Task task);
+
+    /**
+     * Số task theo status, status không có task nào bằng 0
+     *
+     * @param userId null để lấy bộ đếm GLOBAL (ADMIN)
+     */
+    Map<TaskStatus, Long> getCounts(Long userId);
+
+    /**
+     * Đối soát bộ đếm với dữ liệu gốc (tasks, user_task_access) và sửa phần lệch
+     *
+     * @return số bộ đếm (phạm vi, user, status) đã được sửa
+     */
+    int reconcile();
+}
@@ -0,0 +1,141 @@
+package com.backend.quanlytasks.benchmark;
+
+import com.backend.quanlytasks.common.export.ColumnWidthEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * So sánh thời gian ghi file Excel (SXSSF) khi set độ rộng cột bằng autoSizeColumn
+ * và bằng ColumnWidthEstimator, cùng dữ liệu và cùng cửa sổ dòng như export task
+ * Độ rộng ước lượng phải lệch không quá WIDTH_TOLERANCE so với kết quả của autoSizeColumn
+ * Chỉ chạy khi bật: mvn test -Dtest=ExcelColumnWidthBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class ExcelColumnWidthBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int ITERATIONS = 5;
+    private static final int SAMPLE_ROWS = 1000;
+
+    /**
+     * Độ lệch tương đối cho phép giữa độ rộng ước lượng và độ rộng của autoSizeColumn
+     */
+    private static final double WIDTH_TOLERANCE = 0.3;
+
+    private static final String[] HEADERS = { "ID", "Tiêu đề", "Mô tả", "Trạng thái", "Độ ưu tiên",
+            "Người được giao", "Ngày deadline", "Ngày tạo" };
+
+    @Test
+    @DisplayName("Benchmark: autoSizeColumn vs ColumnWidthEstimator")
+    void compareAutoSizeAndEstimator() throws IOException {
+        System.setProperty("java.awt.headless", "true");
+
+        // Warm-up JIT và font cache của AWT
+        write(5_000, true);
+        write(5_000, false);
+
+        long[] autoSize = new long[ITERATIONS];
+        long[] estimator = new long[ITERATIONS];
+        Result autoSized = null;
+        Result estimated = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            autoSized = write(ROWS, true);
+            estimated = write(ROWS, false);
+            autoSize[i] = autoSized.nanos();
+            estimator[i] = estimated.nanos();
+        }
+
+        log.info("autoSizeColumn: median={} ms ({} dòng)", median(autoSize), ROWS);
+        log.info("ColumnWidthEstimator: median={} ms ({} dòng)", median(estimator), ROWS);
+
+        for (int i = 0; i < HEADERS.length; i++) {
+            int expected = autoSized.widths()[i];
+            int actual = estimated.widths()[i];
+            log.info("Cột {}: autoSizeColumn={}, ColumnWidthEstimator={}", HEADERS[i], expected, actual);
+            assertTrue(Math.abs(actual - expected) <= expected * WIDTH_TOLERANCE,
+                    "Độ rộng cột " + HEADERS[i] + " lệch quá nhiều: " + actual + " so với " + expected);
+        }
+    }
+
+    /**
+     * Thời gian ghi (ns) và độ rộng các cột sau khi ghi
+     */
+    private record Result(long nanos, int[] widths) {
+    }
+
+    /**
+     * Ghi một workbook ra stream rỗng, trả về thời gian và độ rộng cột
+     */
+    private static Result write(int rows, boolean autoSize) throws IOException {
+        long start = System.nanoTime();
+        int[] columnWidths = new int[HEADERS.length];
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
+            SXSSFSheet sheet = workbook.createSheet("Tasks");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
+            ColumnWidthEstimator widths = new ColumnWidthEstimator(HEADERS, SAMPLE_ROWS);
+            if (autoSize) {
+                sheet.trackAllColumnsForAutoSizing();
+            }
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < HEADERS.length; i++) {
+                header.createCell(i).setCellValue(HEADERS[i]);
+            }
+            Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(2026, 3, 1, 9, 0));
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(r);
+                row.createCell(1).setCellValue("Task số " + r + " cần hoàn thành trước cuối tuần");
+                row.createCell(2).setCellValue("Mô tả chi tiết cho task " + r + ", gồm các bước kiểm tra và bàn giao");
+                row.createCell(3).setCellValue(r % 3 == 0 ? "IN_PROGRESS" : "TODO");
+                row.createCell(4).setCellValue(r % 2 == 0 ? "HIGH" : "MEDIUM");
+                row.createCell(5).setCellValue("Nguyễn Văn " + (char) ('A' + r % 26));
+                row.createCell(6).setCellValue("Không có");
+                row.createCell(7).setCellValue(createdAt);
+                row.getCell(7).setCellStyle(dateStyle);
+                if (!autoSize) {
+                    widths.measure(row);
+                }
+            }
+
+            if (autoSize) {
+                for (int i = 0; i < HEADERS.length; i++) {
+                    sheet.autoSizeColumn(i);
+                }
+            } else {
+                widths.applyTo(sheet);
+            }
+            for (int i = 0; i < HEADERS.length; i++) {
+                columnWidths[i] = sheet.getColumnWidth(i);
+            }
+            workbook.write(OutputStream.nullOutputStream());
+        } finally {
+            workbook.dispose();
+        }
+        return new Result(System.nanoTime() - start, columnWidths);
+    }
+
+    private static double median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
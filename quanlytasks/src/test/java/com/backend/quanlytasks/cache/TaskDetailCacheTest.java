@@ -0,0 +1,64 @@
+package com.backend.quanlytasks.cache;
+
+import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDetailCacheTest {
+
+    private TaskDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskDetailCache(true, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Cùng version - lấy từ cache, version khác - miss")
+    void get_MatchesVersion() {
+        // Arrange
+        TaskDetailResponse response = TaskDetailResponse.builder().id(1L).build();
+        cache.put(1L, 2L, response);
+
+        // Act & Assert
+        assertSame(response, cache.get(1L, 2L));
+        assertNull(cache.get(1L, 3L));
+        assertNull(cache.get(2L, 2L));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Evict - xóa mọi version của task, giữ task khác")
+    void evict_RemovesAllVersionsOfTask() {
+        // Arrange
+        cache.put(1L, 1L, TaskDetailResponse.builder().id(1L).build());
+        cache.put(1L, 2L, TaskDetailResponse.builder().id(1L).build());
+        TaskDetailResponse other = TaskDetailResponse.builder().id(2L).build();
+        cache.put(2L, 1L, other);
+
+        // Act
+        cache.evict(1L);
+
+        // Assert
+        assertNull(cache.get(1L, 2L));
+        assertSame(other, cache.get(2L, 1L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Cache tắt - không lưu gì")
+    void disabled_NeverCaches() {
+        TaskDetailCache disabled = new TaskDetailCache(false, 0, Duration.ZERO);
+        disabled.put(1L, 1L, TaskDetailResponse.builder().id(1L).build());
+
+        assertNull(disabled.get(1L, 1L));
+        assertNull(disabled.stats());
+        assertEquals(0, disabled.size());
+    }
+}
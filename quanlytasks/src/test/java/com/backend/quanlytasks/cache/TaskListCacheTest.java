@@ -0,0 +1,122 @@
+package com.backend.quanlytasks.cache;
+
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.dto.request.Task.TaskFilterRequest;
+import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskListCacheTest {
+
+    private TaskListCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskListCache(true, 100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<TaskListResponse> loaderOf(Long... taskIds) {
+        return () -> {
+            loads.incrementAndGet();
+            return TaskListResponse.builder()
+                    .tasks(Arrays.stream(taskIds)
+                            .map(id -> TaskResponse.builder().id(id).build())
+                            .toList())
+                    .build();
+        };
+    }
+
+    @Test
+    @DisplayName("Cùng filter và phạm vi - lần 2 lấy từ cache")
+    void get_SameFilter_HitsCache() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setTags(List.of("backend", "api"));
+        TaskFilterRequest equivalent = new TaskFilterRequest();
+        equivalent.setTags(List.of(" api", "backend", "backend"));
+
+        // Act
+        cache.get(filter, 1L, loaderOf(10L));
+        cache.get(equivalent, 1L, loaderOf(10L));
+        cache.get(filter, 2L, loaderOf(10L));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Task thay đổi - xóa trang chứa task, phạm vi ADMIN và của người xem được task")
+    void invalidateTask_EvictsAffectedEntriesOnly() {
+        // Arrange
+        TaskFilterRequest todo = new TaskFilterRequest();
+        todo.setStatus(TaskStatus.TODO);
+        cache.get(todo, 1L, loaderOf(10L));      // chứa task 10
+        cache.get(todo, 2L, loaderOf(20L));      // người xem được task 10 nhưng trang chưa chứa
+        cache.get(todo, 3L, loaderOf(30L));      // không liên quan
+        cache.get(todo, null, loaderOf(30L));    // ADMIN
+        loads.set(0);
+
+        // Act
+        cache.invalidateTask(10L, Set.of(2L));
+        cache.get(todo, 1L, loaderOf(10L));
+        cache.get(todo, 2L, loaderOf(20L));
+        cache.get(todo, 3L, loaderOf(30L));
+        cache.get(todo, null, loaderOf(30L));
+
+        // Assert: chỉ user 3 còn trong cache
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Comment mới - chỉ xóa các trang có từ khóa tìm kiếm")
+    void invalidateSearch_EvictsSearchEntriesOnly() {
+        // Arrange
+        TaskFilterRequest search = new TaskFilterRequest();
+        search.setQ("đăng nhập");
+        TaskFilterRequest plain = new TaskFilterRequest();
+        cache.get(search, 1L, loaderOf(10L));
+        cache.get(plain, 1L, loaderOf(10L));
+        loads.set(0);
+
+        // Act
+        cache.invalidateSearch(Set.of(1L));
+        cache.get(search, 1L, loaderOf(10L));
+        cache.get(plain, 1L, loaderOf(10L));
+
+        // Assert
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Có thay đổi trong lúc nạp - không giữ kết quả cũ")
+    void get_InvalidatedWhileLoading_DoesNotKeepStaleResult() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        Supplier<TaskListResponse> loader = loaderOf(10L);
+
+        // Act
+        cache.get(filter, 1L, () -> {
+            TaskListResponse response = loader.get();
+            cache.invalidateUsers(Set.of(9L));
+            return response;
+        });
+        cache.get(filter, 1L, loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+}
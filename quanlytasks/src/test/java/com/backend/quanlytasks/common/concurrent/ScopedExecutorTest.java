@@ -0,0 +1,119 @@
+package com.backend.quanlytasks.common.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopedExecutorTest {
+
+    private final ScopedExecutor executor = new ScopedExecutor(4, 10, Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Fork nhiều việc - chạy song song và trả đúng kết quả")
+    void fork_RunsConcurrently() {
+        // Arrange: 2 việc chỉ xong được khi cả hai cùng chạy
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (ScopedExecutor.Scope scope = executor.open()) {
+            // Act
+            Future<String> first = scope.fork(() -> awaitOther(bothStarted, "a"));
+            Future<String> second = scope.fork(() -> awaitOther(bothStarted, "b"));
+
+            // Assert
+            assertEquals("a", scope.join(first));
+            assertEquals("b", scope.join(second));
+        }
+    }
+
+    @Test
+    @DisplayName("Việc con ném lỗi - join ném lại đúng lỗi đó")
+    void join_TaskFails_RethrowsCause() {
+        try (ScopedExecutor.Scope scope = executor.open()) {
+            Future<String> failing = scope.fork(() -> {
+                throw new RuntimeException("Không tìm thấy task");
+            });
+
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> scope.join(failing));
+            assertEquals("Không tìm thấy task", exception.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Quá deadline - ném lỗi và hủy việc con")
+    void join_Timeout_CancelsForks() {
+        try (ScopedExecutor.Scope scope = executor.open()) {
+            Future<String> slow = scope.fork(() -> sleep(5_000, "slow"));
+
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> scope.join(slow));
+            assertEquals("Quá thời gian xử lý yêu cầu", exception.getMessage());
+            assertTrue(slow.isCancelled());
+        }
+    }
+
+    @Test
+    @DisplayName("Pool quá tải - từ chối thay vì chạy trên thread của request")
+    void fork_PoolSaturated_Rejects() {
+        // Arrange: 1 thread, hàng đợi 1 chỗ
+        ScopedExecutor saturated = new ScopedExecutor(1, 1, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ScopedExecutor.Scope scope = saturated.open()) {
+            Future<String> running = scope.fork(() -> awaitRelease(release, "running"));
+            Future<String> queued = scope.fork(() -> "queued");
+
+            // Act
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> scope.fork(() -> Thread.currentThread().getName()));
+
+            // Assert
+            assertEquals("Hệ thống đang quá tải, vui lòng thử lại", exception.getMessage());
+            assertTrue(running.isCancelled());
+            assertTrue(queued.isCancelled());
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private static String awaitRelease(CountDownLatch latch, String value) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static String awaitOther(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            if (!latch.await(1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Các việc con không chạy song song");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    private static String sleep(long millis, String value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
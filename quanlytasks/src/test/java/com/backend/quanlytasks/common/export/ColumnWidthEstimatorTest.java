@@ -0,0 +1,82 @@
+package com.backend.quanlytasks.common.export;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnWidthEstimatorTest {
+
+    @Test
+    @DisplayName("Đo dòng - lấy độ dài lớn nhất của mỗi cột, ô ngày theo mẫu định dạng")
+    void measure_TracksLongestValuePerColumn() throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(10)) {
+            // Arrange
+            SXSSFSheet sheet = workbook.createSheet("Tasks");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
+            ColumnWidthEstimator widths = new ColumnWidthEstimator(new String[] { "ID", "Tiêu đề", "Ngày tạo" }, 100);
+
+            // Act
+            for (int i = 1; i <= 3; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(12345);
+                row.createCell(1).setCellValue("x".repeat(i * 10));
+                row.createCell(2).setCellValue(Timestamp.valueOf(LocalDateTime.of(2026, 3, 1, 9, 0)));
+                row.getCell(2).setCellStyle(dateStyle);
+                widths.measure(row);
+            }
+            widths.applyTo(sheet);
+
+            // Assert: độ dài + 2 ký tự lề, đơn vị 1/256 ký tự
+            assertEquals((5 + 2) * 256, sheet.getColumnWidth(0));
+            assertEquals((30 + 2) * 256, sheet.getColumnWidth(1));
+            assertEquals((19 + 2) * 256, sheet.getColumnWidth(2));
+            workbook.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Quá số dòng mẫu - bỏ qua các dòng sau, độ rộng bị giới hạn")
+    void measure_StopsAfterSampleRowsAndCapsWidth() throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(10)) {
+            // Arrange
+            SXSSFSheet sheet = workbook.createSheet("Tasks");
+            ColumnWidthEstimator widths = new ColumnWidthEstimator(new String[] { "Mô tả", "Tiêu đề" }, 2);
+
+            // Act
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("a".repeat(500));
+            first.createCell(1).setCellValue("Ngắn");
+            widths.measure(first);
+            Row second = sheet.createRow(2);
+            second.createCell(1).setCellValue("Trung bình");
+            widths.measure(second);
+            Row third = sheet.createRow(3);
+            third.createCell(1).setCellValue("Dòng thứ ba dài hơn nhiều nhưng không được đo");
+            widths.measure(third);
+
+            // Assert
+            assertEquals(100 * 256, widths.width(0));
+            assertEquals((10 + 2) * 256, widths.width(1));
+            workbook.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Độ dài hiển thị - dòng dài nhất, dấu kết hợp không tính, chữ CJK tính 2")
+    void displayLength_HandlesLinesMarksAndWideChars() {
+        assertEquals(5, ColumnWidthEstimator.displayLength("ab\r\nvwxyz\nc"));
+        // "Việt" viết dạng tổ hợp: e + dấu mũ + dấu nặng
+        assertEquals(4, ColumnWidthEstimator.displayLength("Vie\u0302\u0323t"));
+        assertEquals(4, ColumnWidthEstimator.displayLength("任务"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.cache.TaskDetailCache;
+import com.backend.quanlytasks.cache.TaskListCache;
+import com.backend.quanlytasks.config.HibernateCacheConfig;
+import com.backend.quanlytasks.dto.response.Cache.CacheRegionStatsResponse;
+import com.backend.quanlytasks.dto.response.Cache.CacheStatsResponse;
+import com.backend.quanlytasks.service.Impl.CacheStatsServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatsServiceImplTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private CacheRegionStatistics usersStats;
+
+    @Mock
+    private TaskListCache taskListCache;
+
+    @Mock
+    private TaskDetailCache taskDetailCache;
+
+    private CacheStatsServiceImpl cacheStatsService;
+
+    @BeforeEach
+    void setUp() {
+        // Tạo thủ công: SessionFactory cũng là EntityManagerFactory nên @InjectMocks có thể tiêm nhầm mock
+        cacheStatsService = new CacheStatsServiceImpl(entityManagerFactory, taskListCache, taskDetailCache);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+    }
+
+    @Test
+    @DisplayName("Lấy thống kê cache - tính hit ratio và bỏ qua region chưa được tạo")
+    void getStats_MapsRegionStatistics() {
+        // Arrange
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(30L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(10L);
+        when(statistics.getCacheRegionStatistics(anyString())).thenReturn(null);
+        when(statistics.getCacheRegionStatistics(HibernateCacheConfig.USERS)).thenReturn(usersStats);
+        when(usersStats.getHitCount()).thenReturn(30L);
+        when(usersStats.getMissCount()).thenReturn(10L);
+        when(usersStats.getPutCount()).thenReturn(10L);
+        when(usersStats.getElementCountInMemory()).thenReturn(8L);
+
+        // Act
+        CacheStatsResponse response = cacheStatsService.getStats();
+
+        // Assert
+        assertTrue(response.getStatisticsEnabled());
+        assertEquals(30L, response.getSecondLevelCacheHitCount());
+        assertEquals(10L, response.getSecondLevelCacheMissCount());
+        assertEquals(1, response.getRegions().size());
+
+        CacheRegionStatsResponse users = response.getRegions().get(0);
+        assertEquals(HibernateCacheConfig.USERS, users.getRegion());
+        assertEquals(0.75, users.getHitRatio());
+        assertEquals(8L, users.getElementCount());
+    }
+
+    @Test
+    @DisplayName("Lấy thống kê cache - region chưa có lượt đọc thì hit ratio là null")
+    void getStats_NoReads_NullHitRatio() {
+        // Arrange
+        when(statistics.getCacheRegionStatistics(anyString())).thenReturn(null);
+        when(statistics.getCacheRegionStatistics(HibernateCacheConfig.USERS)).thenReturn(usersStats);
+
+        // Act
+        CacheStatsResponse response = cacheStatsService.getStats();
+
+        // Assert
+        assertNull(response.getRegions().get(0).getHitRatio());
+    }
+}
@@ -1,13 +1,16 @@
 package com.backend.quanlytasks.service;
 
+import com.backend.quanlytasks.common.pagination.TimelineCursor;
 import com.backend.quanlytasks.common.enums.Priority;
 import com.backend.quanlytasks.common.enums.TaskStatus;
 import com.backend.quanlytasks.dto.request.Comment.CreateCommentRequest;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Comment.CommentResponse;
 import com.backend.quanlytasks.entity.Comment;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
 import com.backend.quanlytasks.repository.CommentRepository;
+import com.backend.quanlytasks.repository.SubTaskRepository;
 import com.backend.quanlytasks.repository.TaskRepository;
 import com.backend.quanlytasks.service.Impl.CommentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +20,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -36,9 +41,18 @@ class CommentServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private SubTaskRepository subTaskRepository;
+
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -113,6 +127,8 @@ class CommentServiceImplTest {
         // Verify notifications sent to creator and assignee
         verify(notificationService).publishTaskNotification(eq(creator), anyString(), anyString(), eq(task), any());
         verify(notificationService).publishTaskNotification(eq(assignee), anyString(), anyString(), eq(task), any());
+        verify(taskSearchService).indexComment(any(Comment.class));
+        verify(taskRepository).bumpVersion(task);
     }
 
     @Test
@@ -245,4 +261,44 @@ class CommentServiceImplTest {
         assertEquals(comment.getAuthor().getId(), response.getAuthorId());
         assertEquals(comment.getAuthor().getFullName(), response.getAuthorName());
     }
+
+    @Test
+    @DisplayName("Get Comment Page - Còn comment cũ hơn - Trả cursor và hiển thị cũ trước mới sau")
+    void getCommentPage_HasOlder_ReturnsCursor() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        Comment newest = Comment.builder().id(3L).content("c3").task(task).author(commenter).createdAt(now).build();
+        Comment middle = Comment.builder().id(2L).content("c2").task(task).author(commenter)
+                .createdAt(now.minusMinutes(1)).build();
+        Comment oldest = Comment.builder().id(1L).content("c1").task(task).author(commenter)
+                .createdAt(now.minusMinutes(2)).build();
+        when(commentRepository.findLatestByTaskId(1L, Limit.of(3))).thenReturn(List.of(newest, middle, oldest));
+
+        // Act
+        CommentListResponse response = commentService.getCommentPage(1L, null, 2);
+
+        // Assert
+        assertTrue(response.getHasNext());
+        assertEquals(List.of(2L, 3L), response.getComments().stream().map(CommentResponse::getId).toList());
+        TimelineCursor cursor = TimelineCursor.decode(response.getNextCursor());
+        assertEquals(2L, cursor.getId());
+        assertEquals(middle.getCreatedAt(), cursor.getTime());
+    }
+
+    @Test
+    @DisplayName("Get Comment Page - Có cursor - Lấy comment cũ hơn cursor")
+    void getCommentPage_WithCursor_QueriesBefore() {
+        // Arrange
+        LocalDateTime time = LocalDateTime.now();
+        String cursor = new TimelineCursor(time, 5L).encode();
+        when(commentRepository.findByTaskIdBefore(1L, time, 5L, Limit.of(3))).thenReturn(List.of(comment));
+
+        // Act
+        CommentListResponse response = commentService.getCommentPage(1L, cursor, 2);
+
+        // Assert
+        assertFalse(response.getHasNext());
+        assertNull(response.getNextCursor());
+        assertEquals(1, response.getComments().size());
+    }
 }
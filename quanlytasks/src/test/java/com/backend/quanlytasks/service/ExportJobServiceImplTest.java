@@ -0,0 +1,170 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.enums.ExportFormat;
+import com.backend.quanlytasks.common.enums.ExportJobStatus;
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.dto.response.Export.ExportJobResponse;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.service.Impl.ExportJobServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceImplTest {
+
+    @Mock
+    private TaskExportService taskExportService;
+
+    @TempDir
+    private Path spoolDir;
+
+    private ExportJobServiceImpl exportJobService;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        exportJobService = new ExportJobServiceImpl(taskExportService, spoolDir.toString(), 1, 1, Duration.ofHours(1));
+        owner = new User();
+        owner.setId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Submit - Writes Artifact To Spool And Reports Progress")
+    void submit_WritesArtifactAndReportsProgress() throws IOException {
+        // Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            LongConsumer progress = invocation.getArgument(5);
+            out.write("xlsx".getBytes(StandardCharsets.UTF_8));
+            progress.accept(3);
+            return null;
+        }).when(taskExportService).exportTasks(any(TaskExportRequest.class), eq(owner), eq(true), isNull(), any(OutputStream.class), any());
+
+        // Act
+        ExportJobResponse submitted = exportJobService.submit(new TaskExportRequest(), owner, true);
+        ExportJobResponse finished = awaitFinished(submitted.getId());
+
+        // Assert
+        assertEquals(ExportJobStatus.DONE, finished.getStatus());
+        assertEquals(3L, finished.getRowsWritten());
+        assertEquals(4L, finished.getFileSize());
+        Resource artifact = exportJobService.getArtifact(submitted.getId(), owner);
+        assertEquals("xlsx", artifact.getContentAsString(StandardCharsets.UTF_8));
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Submit - Export Fails - Marks FAILED And Removes Partial File")
+    void submit_ExportFails_MarksFailed() throws IOException {
+        // Arrange
+        doThrow(new RuntimeException("Lỗi khi xuất file Excel: disk full"))
+                .when(taskExportService).exportTasks(any(TaskExportRequest.class), eq(owner), eq(false), isNull(), any(OutputStream.class), any());
+
+        // Act
+        ExportJobResponse finished = awaitFinished(exportJobService.submit(new TaskExportRequest(), owner, false).getId());
+
+        // Assert
+        assertEquals(ExportJobStatus.FAILED, finished.getStatus());
+        assertEquals("Lỗi khi xuất file Excel: disk full", finished.getError());
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> exportJobService.getArtifact(finished.getId(), owner));
+        assertEquals("File export chưa sẵn sàng", exception.getMessage());
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Submit - CSV Gzip - Names Artifact And Download By Format")
+    void submit_CsvGzip_NamesArtifactByFormat() {
+        // Arrange
+        TaskExportRequest request = new TaskExportRequest();
+        request.setFormat(ExportFormat.CSV);
+        request.setGzip(true);
+
+        // Act
+        ExportJobResponse finished = awaitFinished(exportJobService.submit(request, owner, true).getId());
+
+        // Assert
+        assertEquals(ExportJobStatus.DONE, finished.getStatus());
+        assertTrue(finished.getFileName().endsWith(".csv.gz"));
+        assertEquals("application/gzip", finished.getContentType());
+        Resource artifact = exportJobService.getArtifact(finished.getId(), owner);
+        assertEquals(finished.getId() + ".csv.gz", artifact.getFilename());
+    }
+
+    @Test
+    @DisplayName("Get Job - Other User - Not Found")
+    void getJob_OtherUser_NotFound() {
+        // Arrange
+        ExportJobResponse submitted = exportJobService.submit(new TaskExportRequest(), owner, true);
+        User other = new User();
+        other.setId(2L);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> exportJobService.getJob(submitted.getId(), other));
+        assertEquals("Không tìm thấy yêu cầu export", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Sweep - Deletes Orphan Files Older Than TTL Only")
+    void sweepExpired_DeletesOldOrphans() throws IOException {
+        // Arrange
+        Path old = Files.writeString(spoolDir.resolve("old.xlsx"), "x");
+        Files.setLastModifiedTime(old, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path recent = Files.writeString(spoolDir.resolve("recent.xlsx"), "x");
+
+        // Act
+        int deleted = exportJobService.sweepExpired();
+
+        // Assert
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(old));
+        assertTrue(Files.exists(recent));
+    }
+
+    /**
+     * Helper: Chờ worker xử lý xong job (tối đa 5 giây)
+     */
+    private ExportJobResponse awaitFinished(String id) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            ExportJobResponse job = exportJobService.getJob(id, owner);
+            if (job.getStatus() == ExportJobStatus.DONE || job.getStatus() == ExportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.onSpinWait();
+        }
+        return fail("Export chưa xong sau 5 giây");
+    }
+}
@@ -96,6 +96,8 @@ class NotificationServiceImplTest {
         assertEquals(recipient, capturedEvent.getRecipient());
         assertEquals("Test Title", capturedEvent.getTitle());
         assertEquals("Test Message", capturedEvent.getMessage());
+        assertEquals(relatedTask.getId(), capturedEvent.getRelatedTaskId());
+        assertEquals(relatedTask.getTitle(), capturedEvent.getRelatedTaskTitle());
         assertEquals(NotificationType.TASK_ASSIGNED, capturedEvent.getType());
     }
 
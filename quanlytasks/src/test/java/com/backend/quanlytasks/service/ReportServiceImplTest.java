@@ -0,0 +1,187 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.dto.response.Report.CycleTimeReportResponse;
+import com.backend.quanlytasks.dto.response.Report.ThroughputReportResponse;
+import com.backend.quanlytasks.entity.ReportWatermark;
+import com.backend.quanlytasks.entity.TaskDailyRollup;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.ReportWatermarkRepository;
+import com.backend.quanlytasks.repository.TaskDailyRollupRepository;
+import com.backend.quanlytasks.repository.TaskHistoryRepository;
+import com.backend.quanlytasks.repository.projection.StatusTransitionRow;
+import com.backend.quanlytasks.service.Impl.ReportServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportServiceImplTest {
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private TaskDailyRollupRepository taskDailyRollupRepository;
+
+    @Mock
+    private ReportWatermarkRepository reportWatermarkRepository;
+
+    @InjectMocks
+    private ReportServiceImpl reportService;
+
+    @Test
+    @DisplayName("Rollup Completions - Aggregates Per Day And Assignee From Watermark")
+    void rollupCompletions_AggregatesAndAdvancesWatermark() {
+        // Arrange
+        ReportWatermark watermark = ReportWatermark.builder().name("task_done_rollup").lastId(5L).build();
+        when(reportWatermarkRepository.findById("task_done_rollup")).thenReturn(Optional.of(watermark));
+        LocalDateTime day1 = LocalDateTime.of(2026, 3, 2, 10, 0);
+        LocalDateTime day2 = LocalDateTime.of(2026, 3, 3, 9, 0);
+        when(taskHistoryRepository.streamDoneTransitionsAfter(eq(5L), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(Stream.of(
+                        // Hoàn thành sau 2 giờ, trước deadline
+                        new StatusTransitionRow(6L, 2L, "IN_PROGRESS", false, day1, day1.minusHours(2), day1.plusDays(1)),
+                        // Hoàn thành sau 4 giờ, trễ deadline
+                        new StatusTransitionRow(7L, 2L, "TODO", false, day1.plusHours(1), day1.minusHours(3), day1),
+                        // Chưa assign
+                        new StatusTransitionRow(9L, null, "IN_PROGRESS", false, day2, day2.minusHours(1), null)));
+
+        // Act
+        int processed = reportService.rollupCompletions();
+
+        // Assert
+        assertEquals(3, processed);
+        verify(taskDailyRollupRepository).addCompletions(LocalDate.of(2026, 3, 2), 2L, 2L, 360L, 1L);
+        verify(taskDailyRollupRepository).addCompletions(LocalDate.of(2026, 3, 3), 0L, 1L, 60L, 0L);
+        ArgumentCaptor<ReportWatermark> captor = ArgumentCaptor.forClass(ReportWatermark.class);
+        verify(reportWatermarkRepository).save(captor.capture());
+        assertEquals(9L, captor.getValue().getLastId());
+    }
+
+    @Test
+    @DisplayName("Rollup Completions - DONE To DONE And Reopened Task - Counted Once")
+    void rollupCompletions_RepeatedCompletions_CountedOnce() {
+        // Arrange
+        ReportWatermark watermark = ReportWatermark.builder().name("task_done_rollup").lastId(5L).build();
+        when(reportWatermarkRepository.findById("task_done_rollup")).thenReturn(Optional.of(watermark));
+        LocalDateTime created = LocalDateTime.of(2026, 3, 2, 8, 0);
+        LocalDateTime done = LocalDateTime.of(2026, 3, 2, 10, 0);
+        when(taskHistoryRepository.streamDoneTransitionsAfter(eq(5L), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(Stream.of(
+                        // Lần hoàn thành đầu tiên: được tính
+                        new StatusTransitionRow(6L, 2L, "IN_PROGRESS", false, done, created, null),
+                        // Bấm DONE lần nữa khi task đã DONE
+                        new StatusTransitionRow(7L, 2L, "DONE", true, done.plusMinutes(1), created, null),
+                        // DONE -> IN_PROGRESS -> DONE: hoàn thành lại sau khi mở lại
+                        new StatusTransitionRow(9L, 2L, "IN_PROGRESS", true, done.plusDays(1), created, null)));
+
+        // Act
+        int processed = reportService.rollupCompletions();
+
+        // Assert: chỉ 1 task, cycle time 2 giờ; mốc vẫn tiến qua các bản ghi bị bỏ qua
+        assertEquals(3, processed);
+        verify(taskDailyRollupRepository).addCompletions(LocalDate.of(2026, 3, 2), 2L, 1L, 120L, 0L);
+        verifyNoMoreInteractions(taskDailyRollupRepository);
+        ArgumentCaptor<ReportWatermark> captor = ArgumentCaptor.forClass(ReportWatermark.class);
+        verify(reportWatermarkRepository).save(captor.capture());
+        assertEquals(9L, captor.getValue().getLastId());
+    }
+
+    @Test
+    @DisplayName("Rollup Completions - Nothing New - Keeps Watermark")
+    void rollupCompletions_NothingNew_KeepsWatermark() {
+        // Arrange
+        when(reportWatermarkRepository.findById("task_done_rollup")).thenReturn(Optional.empty());
+        when(taskHistoryRepository.streamDoneTransitionsAfter(eq(0L), any(LocalDateTime.class), any(Limit.class)))
+                .thenReturn(Stream.empty());
+
+        // Act & Assert
+        assertEquals(0, reportService.rollupCompletions());
+        verifyNoInteractions(taskDailyRollupRepository);
+        verify(reportWatermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Throughput - Groups Daily Rollups By Week")
+    void getThroughput_GroupsByWeek() {
+        // Arrange
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 14);
+        when(taskDailyRollupRepository.findByRollupDateBetweenOrderByRollupDate(from, to)).thenReturn(List.of(
+                rollup(LocalDate.of(2026, 3, 1), 2L, 1L, 60L),
+                rollup(LocalDate.of(2026, 3, 2), 2L, 2L, 120L),
+                rollup(LocalDate.of(2026, 3, 4), 2L, 3L, 180L),
+                rollup(LocalDate.of(2026, 3, 4), 3L, 0L, 0L)));
+
+        // Act
+        List<ThroughputReportResponse> report = reportService.getThroughput(from, to, new User(), true);
+
+        // Assert: 1/3 (Chủ nhật) thuộc tuần bắt đầu 23/2, 2/3 và 4/3 thuộc tuần bắt đầu 2/3
+        assertEquals(2, report.size());
+        assertEquals(LocalDate.of(2026, 2, 23), report.get(0).getWeekStart());
+        assertEquals(1L, report.get(0).getCompletedCount());
+        assertEquals(LocalDate.of(2026, 3, 2), report.get(1).getWeekStart());
+        assertEquals(5L, report.get(1).getCompletedCount());
+    }
+
+    @Test
+    @DisplayName("Cycle Time - USER - Reads Own Rollups Only")
+    void getCycleTime_User_ReadsOwnRollups() {
+        // Arrange
+        User user = new User();
+        user.setId(2L);
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 14);
+        when(taskDailyRollupRepository.findByAssigneeIdAndRollupDateBetweenOrderByRollupDate(2L, from, to))
+                .thenReturn(List.of(
+                        rollup(LocalDate.of(2026, 3, 2), 2L, 2L, 180L),
+                        rollup(LocalDate.of(2026, 3, 3), 2L, 1L, 30L)));
+
+        // Act
+        List<CycleTimeReportResponse> report = reportService.getCycleTime(from, to, user, false);
+
+        // Assert: 210 phút / 3 task = 70 phút
+        assertEquals(1, report.size());
+        assertEquals(3L, report.get(0).getCompletedCount());
+        assertEquals(1.2, report.get(0).getAverageCycleTimeHours());
+        verify(taskDailyRollupRepository, never()).findByRollupDateBetweenOrderByRollupDate(any(), any());
+    }
+
+    @Test
+    @DisplayName("Report - Range Too Long - Throws Exception")
+    void getOverdue_RangeTooLong_ThrowsException() {
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reportService.getOverdue(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 3, 1), new User(), true));
+        assertEquals("Khoảng thời gian báo cáo tối đa 366 ngày", exception.getMessage());
+    }
+
+    /**
+     * Helper: Dòng rollup chỉ có số liệu hoàn thành
+     */
+    private TaskDailyRollup rollup(LocalDate day, Long assigneeId, long completed, long cycleTimeMinutes) {
+        return TaskDailyRollup.builder()
+                .rollupDate(day)
+                .assigneeId(assigneeId)
+                .completedCount(completed)
+                .cycleTimeMinutes(cycleTimeMinutes)
+                .completedLateCount(0L)
+                .overdueOpenCount(0L)
+                .build();
+    }
+}
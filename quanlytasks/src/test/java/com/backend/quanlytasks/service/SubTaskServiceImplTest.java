@@ -19,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -47,6 +48,12 @@ class SubTaskServiceImplTest {
     @Mock
     private TaskHistoryService taskHistoryService;
 
+    @Mock
+    private TaskAccessService taskAccessService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SubTaskServiceImpl subTaskService;
 
@@ -117,6 +124,8 @@ class SubTaskServiceImplTest {
         assertNotNull(response);
         assertEquals("New SubTask", response.getTitle());
         verify(taskHistoryService).logChange(eq(parentTask), eq(creator), eq("subtask_created"), isNull(), anyString());
+        verify(taskAccessService).onSubTaskAssigneeChanged(parentTask, null, assignee);
+        verify(taskRepository).bumpVersion(parentTask);
     }
 
     @Test
@@ -232,6 +241,7 @@ class SubTaskServiceImplTest {
         // Act & Assert
         assertDoesNotThrow(() -> subTaskService.softDeleteSubTask(1L, creator, false));
         verify(subTaskRepository).save(any(SubTask.class));
+        verify(taskAccessService).onSubTaskAssigneeChanged(parentTask, assignee, null);
     }
 
     @Test
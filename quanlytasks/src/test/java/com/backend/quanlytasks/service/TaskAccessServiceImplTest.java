@@ -0,0 +1,189 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TaskAccessReason;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.SubTaskRepository;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import com.backend.quanlytasks.service.Impl.TaskAccessServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskAccessServiceImplTest {
+
+    @Mock
+    private UserTaskAccessRepository userTaskAccessRepository;
+
+    @Mock
+    private SubTaskRepository subTaskRepository;
+
+    @Mock
+    private TaskStatusCounterService taskStatusCounterService;
+
+    @InjectMocks
+    private TaskAccessServiceImpl taskAccessService;
+
+    private User creator;
+    private User assignee;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        creator = new User();
+        creator.setId(1L);
+        creator.setFullName("Creator User");
+
+        assignee = new User();
+        assignee.setId(2L);
+        assignee.setFullName("Assignee User");
+
+        task = Task.builder()
+                .id(10L)
+                .title("Test Task")
+                .status(TaskStatus.TODO)
+                .priority(Priority.MEDIUM)
+                .createdBy(creator)
+                .tags(new HashSet<>())
+                .isDelete(0)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Task Created - Grants Creator Access")
+    void onTaskCreated_GrantsCreatorAccess() {
+        // Arrange
+        when(userTaskAccessRepository.insertIgnore(1L, 10L, "CREATOR")).thenReturn(1);
+        when(userTaskAccessRepository.countByUserIdAndTaskId(1L, 10L)).thenReturn(1L);
+
+        // Act
+        taskAccessService.onTaskCreated(task);
+
+        // Assert
+        verify(userTaskAccessRepository).insertIgnore(1L, 10L, TaskAccessReason.CREATOR.name());
+        verify(taskStatusCounterService).onAccessGranted(1L, task);
+    }
+
+    @Test
+    @DisplayName("Grant - User Already Sees Task - Does Not Count Twice")
+    void onTaskAssigneeChanged_AlreadyHasOtherAccess_DoesNotCountTwice() {
+        // Arrange: creator tự assign cho mình
+        when(userTaskAccessRepository.insertIgnore(1L, 10L, "ASSIGNEE")).thenReturn(1);
+        when(userTaskAccessRepository.countByUserIdAndTaskId(1L, 10L)).thenReturn(2L);
+
+        // Act
+        taskAccessService.onTaskAssigneeChanged(task, null, creator);
+
+        // Assert
+        verify(taskStatusCounterService, never()).onAccessGranted(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Grant - Row Inserted By Concurrent Request - Does Not Count")
+    void onTaskAssigneeChanged_DuplicateRowIgnored_DoesNotCount() {
+        // Arrange: request đồng thời đã thêm cùng dòng, INSERT IGNORE không thêm gì
+        when(userTaskAccessRepository.insertIgnore(2L, 10L, "ASSIGNEE")).thenReturn(0);
+
+        // Act
+        taskAccessService.onTaskAssigneeChanged(task, null, assignee);
+
+        // Assert
+        verify(userTaskAccessRepository, never()).countByUserIdAndTaskId(anyLong(), anyLong());
+        verify(taskStatusCounterService, never()).onAccessGranted(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Assignee Changed - Moves Assignee Access")
+    void onTaskAssigneeChanged_MovesAccess() {
+        // Arrange
+        User newAssignee = new User();
+        newAssignee.setId(3L);
+
+        // Act
+        taskAccessService.onTaskAssigneeChanged(task, assignee, newAssignee);
+
+        // Assert
+        verify(userTaskAccessRepository).deleteAccess(2L, 10L, TaskAccessReason.ASSIGNEE);
+        verify(userTaskAccessRepository).insertIgnore(3L, 10L, TaskAccessReason.ASSIGNEE.name());
+    }
+
+    @Test
+    @DisplayName("Assignee Changed - Last Access Revoked - Decrements Counter")
+    void onTaskAssigneeChanged_LastAccessRevoked_DecrementsCounter() {
+        // Arrange
+        when(userTaskAccessRepository.deleteAccess(2L, 10L, TaskAccessReason.ASSIGNEE)).thenReturn(1);
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(2L, 10L)).thenReturn(false);
+
+        // Act
+        taskAccessService.onTaskAssigneeChanged(task, assignee, null);
+
+        // Assert
+        verify(taskStatusCounterService).onAccessRevoked(2L, task);
+    }
+
+    @Test
+    @DisplayName("Assignee Changed - Other Access Remains - Keeps Counter")
+    void onTaskAssigneeChanged_OtherAccessRemains_KeepsCounter() {
+        // Arrange: người được assign cũ vẫn còn subtask trong task
+        when(userTaskAccessRepository.deleteAccess(2L, 10L, TaskAccessReason.ASSIGNEE)).thenReturn(1);
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(2L, 10L)).thenReturn(true);
+
+        // Act
+        taskAccessService.onTaskAssigneeChanged(task, assignee, null);
+
+        // Assert
+        verify(taskStatusCounterService, never()).onAccessRevoked(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("SubTask Removed - Keeps Access While Other SubTask Assigned")
+    void onSubTaskAssigneeChanged_OtherSubTaskRemains_KeepsAccess() {
+        // Arrange
+        when(subTaskRepository.existsByParentTaskIdAndAssigneeIdAndIsDelete(10L, 2L, 0)).thenReturn(true);
+
+        // Act
+        taskAccessService.onSubTaskAssigneeChanged(task, assignee, null);
+
+        // Assert
+        verify(userTaskAccessRepository, never()).deleteAccess(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("SubTask Removed - Revokes Access When Last SubTask")
+    void onSubTaskAssigneeChanged_LastSubTask_RevokesAccess() {
+        // Arrange
+        when(subTaskRepository.existsByParentTaskIdAndAssigneeIdAndIsDelete(10L, 2L, 0)).thenReturn(false);
+
+        // Act
+        taskAccessService.onSubTaskAssigneeChanged(task, assignee, null);
+
+        // Assert
+        verify(userTaskAccessRepository).deleteAccess(2L, 10L, TaskAccessReason.SUBTASK_ASSIGNEE);
+    }
+
+    @Test
+    @DisplayName("Rebuild - Sums Changed Rows")
+    void rebuild_ReturnsChangedRows() {
+        // Arrange
+        when(userTaskAccessRepository.deleteStaleAccess()).thenReturn(1);
+        when(userTaskAccessRepository.insertMissingCreatorAccess()).thenReturn(2);
+        when(userTaskAccessRepository.insertMissingAssigneeAccess()).thenReturn(3);
+        when(userTaskAccessRepository.insertMissingSubTaskAssigneeAccess()).thenReturn(4);
+
+        // Act & Assert
+        assertEquals(10, taskAccessService.rebuild());
+    }
+}
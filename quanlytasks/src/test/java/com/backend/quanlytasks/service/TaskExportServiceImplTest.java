@@ -0,0 +1,329 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.enums.ExportFormat;
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.common.pagination.ExportWatermark;
+import com.backend.quanlytasks.dto.request.Task.TaskExportRequest;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.CommentRepository;
+import com.backend.quanlytasks.repository.SubTaskRepository;
+import com.backend.quanlytasks.repository.TaskHistoryRepository;
+import com.backend.quanlytasks.repository.TaskRepository;
+import com.backend.quanlytasks.repository.projection.CommentExportRow;
+import com.backend.quanlytasks.repository.projection.HistoryExportRow;
+import com.backend.quanlytasks.repository.projection.SubTaskExportRow;
+import com.backend.quanlytasks.repository.projection.TaskExportRow;
+import com.backend.quanlytasks.service.Impl.TaskExportServiceImpl;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceImplTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private SubTaskRepository subTaskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @InjectMocks
+    private TaskExportServiceImpl taskExportService;
+
+    @Test
+    @DisplayName("Export Excel - ADMIN - Streams All Rows Past The Row Window And Closes Cursor")
+    void exportTasksToExcel_Admin_StreamsAllRows() throws IOException {
+        // Arrange: nhiều dòng hơn cửa sổ 100 dòng giữ trong heap
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(taskRepository.streamExportRows(any(TaskExportRequest.class), isNull())).thenReturn(IntStream.rangeClosed(1, 250)
+                .mapToObj(i -> row((long) i, i % 2 == 0 ? "Assignee " + i : null))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskExportService.exportTasks(new TaskExportRequest(), new User(), true, out);
+
+        // Assert
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Tasks");
+            assertEquals(250, sheet.getLastRowNum());
+            assertEquals("ID", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(1, sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("Chưa giao", sheet.getRow(1).getCell(5).getStringCellValue());
+            assertEquals("Assignee 250", sheet.getRow(250).getCell(5).getStringCellValue());
+            assertEquals("Không có", sheet.getRow(250).getCell(6).getStringCellValue());
+        }
+        assertTrue(closed.get());
+        verifyNoInteractions(subTaskRepository, commentRepository, taskHistoryRepository);
+    }
+
+    @Test
+    @DisplayName("Export Excel - Over Sheet Row Limit - Continues On Next Sheet")
+    void exportTasksToExcel_OverRowLimit_RollsOverToNextSheet() throws IOException {
+        // Arrange: giới hạn 100 dòng mỗi sheet thay cho 1.048.575
+        ReflectionTestUtils.setField(taskExportService, "maxRowsPerSheet", 100);
+        TaskExportRequest request = new TaskExportRequest();
+        request.setIncludeSubtasks(true);
+        when(taskRepository.streamExportRows(request, null)).thenReturn(IntStream.rangeClosed(1, 250)
+                .mapToObj(i -> row((long) i, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskExportService.exportTasks(request, new User(), true, out);
+
+        // Assert: các sheet tiếp nối nằm ngay sau sheet gốc, mỗi sheet có dòng tiêu đề
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("Tasks", workbook.getSheetName(0));
+            assertEquals("Tasks (2)", workbook.getSheetName(1));
+            assertEquals("Tasks (3)", workbook.getSheetName(2));
+            assertEquals("Subtasks", workbook.getSheetName(3));
+            assertEquals(100, workbook.getSheet("Tasks").getLastRowNum());
+            Sheet last = workbook.getSheet("Tasks (3)");
+            assertEquals(50, last.getLastRowNum());
+            assertEquals("ID", last.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(250, last.getRow(50).getCell(0).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Export Excel - History Over Sheet Row Limit - Continues On Next History Sheet")
+    void exportTasksToExcel_HistoryOverRowLimit_RollsOverChildSheet() throws IOException {
+        // Arrange: 10 task, mỗi task 30 dòng lịch sử, giới hạn 100 dòng mỗi sheet
+        ReflectionTestUtils.setField(taskExportService, "maxRowsPerSheet", 100);
+        TaskExportRequest request = new TaskExportRequest();
+        request.setIncludeHistory(true);
+        when(taskRepository.streamExportRows(request, null)).thenReturn(IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> row((long) i, null)));
+        when(taskHistoryRepository.findExportRowsByTaskIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .flatMap(id -> IntStream.rangeClosed(1, 30).mapToObj(n -> new HistoryExportRow(id, id * 100 + n,
+                            "Admin", "status", "TODO", "DONE", LocalDateTime.of(2026, 3, 2, 9, 0))))
+                    .toList();
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskExportService.exportTasks(request, new User(), true, out);
+
+        // Assert: 300 dòng lịch sử -> History, History (2), History (3)
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(10, workbook.getSheet("Tasks").getLastRowNum());
+            assertEquals(100, workbook.getSheet("History").getLastRowNum());
+            assertEquals(100, workbook.getSheet("History (2)").getLastRowNum());
+            Sheet last = workbook.getSheet("History (3)");
+            assertEquals(100, last.getLastRowNum());
+            assertEquals("Task ID", last.getRow(0).getCell(0).getStringCellValue());
+            assertNull(workbook.getSheet("History (4)"));
+        }
+    }
+
+    @Test
+    @DisplayName("Export Excel - USER - Streams Visible Rows With The Request Filter")
+    void exportTasksToExcel_User_StreamsVisibleRows() {
+        // Arrange
+        User user = new User();
+        user.setId(2L);
+        TaskExportRequest request = new TaskExportRequest();
+        request.setStatus(TaskStatus.TODO);
+        when(taskRepository.streamExportRows(request, 2L)).thenReturn(Stream.of(row(1L, null)));
+
+        // Act
+        taskExportService.exportTasks(request, user, false, new ByteArrayOutputStream());
+
+        // Assert
+        verify(taskRepository).streamExportRows(request, 2L);
+    }
+
+    @Test
+    @DisplayName("Export Excel - Include Sheets - Loads Child Rows Once Per Chunk Of Task Ids")
+    void exportTasksToExcel_IncludeSheets_LoadsChildRowsPerChunk() throws IOException {
+        // Arrange: 1200 task, chunk mặc định 500 -> 3 lần nạp cho mỗi sheet con
+        TaskExportRequest request = new TaskExportRequest();
+        request.setIncludeSubtasks(true);
+        request.setIncludeComments(true);
+        when(taskRepository.streamExportRows(request, null)).thenReturn(IntStream.rangeClosed(1, 1200)
+                .mapToObj(i -> row((long) i, null)));
+        when(subTaskRepository.findExportRowsByTaskIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(id -> new SubTaskExportRow(id, id * 10, "Subtask " + id, TaskStatus.DONE, null, null))
+                    .toList();
+        });
+        when(commentRepository.findExportRowsByTaskIdIn(anyCollection())).thenReturn(List.of(
+                new CommentExportRow(1L, 7L, "Author", "Nội dung", LocalDateTime.of(2026, 3, 2, 9, 0))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskExportService.exportTasks(request, new User(), true, out);
+
+        // Assert
+        verify(subTaskRepository, times(3)).findExportRowsByTaskIdIn(anyCollection());
+        verify(commentRepository, times(3)).findExportRowsByTaskIdIn(anyCollection());
+        verifyNoInteractions(taskHistoryRepository);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(1200, workbook.getSheet("Tasks").getLastRowNum());
+            Sheet subtasks = workbook.getSheet("Subtasks");
+            assertEquals(1200, subtasks.getLastRowNum());
+            assertEquals(1200, subtasks.getRow(1200).getCell(0).getNumericCellValue());
+            assertEquals("Chưa giao", subtasks.getRow(1).getCell(4).getStringCellValue());
+            assertEquals(3, workbook.getSheet("Comments").getLastRowNum());
+            assertNull(workbook.getSheet("History"));
+        }
+    }
+
+    @Test
+    @DisplayName("Export CSV - Escapes Values And Leaves Nulls Empty")
+    void exportTasks_Csv_EscapesValues() {
+        // Arrange
+        TaskExportRequest request = new TaskExportRequest();
+        request.setFormat(ExportFormat.CSV);
+        TaskExportRow quoted = new TaskExportRow(2L, "Sửa lỗi \"login\", gấp", "Dòng 1\nDòng 2", TaskStatus.DONE,
+                Priority.HIGH, "An", LocalDateTime.of(2026, 3, 5, 17, 30), LocalDateTime.of(2026, 3, 1, 9, 0),
+                null, 0);
+        when(taskRepository.streamExportRows(request, null)).thenReturn(Stream.of(row(1L, null), quoted));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskExportService.exportTasks(request, new User(), true, out);
+
+        // Assert
+        assertEquals("id,title,description,status,priority,assigneeName,dueDate,createdAt\n"
+                + "1,Task 1,,TODO,MEDIUM,,,2026-03-01T09:00:00\n"
+                + "2,\"Sửa lỗi \"\"login\"\", gấp\",\"Dòng 1\nDòng 2\",DONE,HIGH,An,2026-03-05T17:30:00,2026-03-01T09:00:00\n",
+                out.toString(StandardCharsets.UTF_8));
+        verifyNoInteractions(subTaskRepository, commentRepository, taskHistoryRepository);
+    }
+
+    @Test
+    @DisplayName("Export NDJSON - Gzip - Writes One JSON Object Per Line")
+    void exportTasks_NdjsonGzip_WritesOneObjectPerLine() throws IOException {
+        // Arrange
+        TaskExportRequest request = new TaskExportRequest();
+        request.setFormat(ExportFormat.NDJSON);
+        request.setGzip(true);
+        TaskExportRow escaped = new TaskExportRow(2L, "Tab\there \"quoted\" \\", null, TaskStatus.IN_PROGRESS,
+                Priority.LOW, "An", null, null, null, 0);
+        when(taskRepository.streamExportRows(request, null)).thenReturn(Stream.of(row(1L, null), escaped));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskExportService.exportTasks(request, new User(), true, out);
+
+        // Assert
+        String content;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals("{\"id\":1,\"title\":\"Task 1\",\"description\":null,\"status\":\"TODO\",\"priority\":\"MEDIUM\","
+                + "\"assigneeName\":null,\"dueDate\":null,\"createdAt\":\"2026-03-01T09:00:00\"}\n"
+                + "{\"id\":2,\"title\":\"Tab\\there \\\"quoted\\\" \\\\\",\"description\":null,\"status\":\"IN_PROGRESS\","
+                + "\"priority\":\"LOW\",\"assigneeName\":\"An\",\"dueDate\":null,\"createdAt\":null}\n",
+                content);
+    }
+
+    @Test
+    @DisplayName("Export Delta - NDJSON - Reads Changed Window And Writes Tombstones")
+    void exportTasks_Delta_WritesTombstones() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 0, 0);
+        TaskExportRequest request = new TaskExportRequest();
+        request.setFormat(ExportFormat.NDJSON);
+        request.setWatermark(new ExportWatermark(since).encode());
+        TaskExportRow deleted = new TaskExportRow(2L, "Task 2", null, TaskStatus.TODO, Priority.LOW, null,
+                null, LocalDateTime.of(2026, 2, 1, 9, 0), LocalDateTime.of(2026, 3, 2, 10, 0), 1);
+        when(taskRepository.streamChangedBetween(eq(since), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(row(1L, null), deleted));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        ExportWatermark changedBefore = taskExportService.resolveWatermark(request, true);
+        taskExportService.exportTasks(request, new User(), true, changedBefore, out);
+
+        // Assert
+        verify(taskRepository).streamChangedBetween(since, changedBefore.getUpdatedAt());
+        verify(taskRepository, never()).streamExportRows(any(), any());
+        assertEquals("{\"id\":1,\"title\":\"Task 1\",\"description\":null,\"status\":\"TODO\",\"priority\":\"MEDIUM\","
+                + "\"assigneeName\":null,\"dueDate\":null,\"createdAt\":\"2026-03-01T09:00:00\","
+                + "\"updatedAt\":\"2026-03-02T09:00:00\",\"deleted\":false}\n"
+                + "{\"id\":2,\"updatedAt\":\"2026-03-02T10:00:00\",\"deleted\":true}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Resolve Watermark - USER Or XLSX - Rejected Before Writing")
+    void resolveWatermark_UserOrXlsx_Rejected() {
+        // Arrange
+        TaskExportRequest userRequest = new TaskExportRequest();
+        userRequest.setFormat(ExportFormat.CSV);
+        userRequest.setUpdatedSince(LocalDateTime.of(2026, 3, 1, 0, 0));
+        TaskExportRequest xlsxRequest = new TaskExportRequest();
+        xlsxRequest.setUpdatedSince(LocalDateTime.of(2026, 3, 1, 0, 0));
+
+        // Act & Assert
+        RuntimeException userException = assertThrows(RuntimeException.class,
+                () -> taskExportService.resolveWatermark(userRequest, false));
+        assertEquals("Chỉ ADMIN được export thay đổi theo watermark", userException.getMessage());
+        RuntimeException xlsxException = assertThrows(RuntimeException.class,
+                () -> taskExportService.resolveWatermark(xlsxRequest, true));
+        assertEquals("Export thay đổi theo watermark chỉ hỗ trợ định dạng CSV, NDJSON", xlsxException.getMessage());
+        assertNull(taskExportService.resolveWatermark(new TaskExportRequest(), false));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Export Delta - USER Or XLSX - Rejected Without Resolve Watermark")
+    void exportTasks_DeltaUserOrXlsx_Rejected() {
+        // Arrange: gọi thẳng exportTasks, không qua resolveWatermark
+        TaskExportRequest userRequest = new TaskExportRequest();
+        userRequest.setFormat(ExportFormat.CSV);
+        userRequest.setUpdatedSince(LocalDateTime.of(2026, 3, 1, 0, 0));
+        TaskExportRequest xlsxRequest = new TaskExportRequest();
+        xlsxRequest.setUpdatedSince(LocalDateTime.of(2026, 3, 1, 0, 0));
+        ExportWatermark changedBefore = new ExportWatermark(LocalDateTime.of(2026, 3, 2, 0, 0));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> taskExportService.exportTasks(userRequest, new User(), false,
+                changedBefore, new ByteArrayOutputStream()));
+        assertThrows(RuntimeException.class, () -> taskExportService.exportTasks(xlsxRequest, new User(), true,
+                new ByteArrayOutputStream()));
+        verifyNoInteractions(taskRepository);
+    }
+
+    /**
+     * Helper: Dòng export không có deadline
+     */
+    private TaskExportRow row(Long id, String assigneeName) {
+        return new TaskExportRow(id, "Task " + id, null, TaskStatus.TODO, Priority.MEDIUM, assigneeName,
+                null, LocalDateTime.of(2026, 3, 1, 9, 0), LocalDateTime.of(2026, 3, 2, 9, 0), 0);
+    }
+}
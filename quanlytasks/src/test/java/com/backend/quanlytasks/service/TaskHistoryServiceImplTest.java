@@ -2,6 +2,8 @@ package com.backend.quanlytasks.service;
 
 import com.backend.quanlytasks.common.enums.Priority;
 import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.common.pagination.TimelineCursor;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
 import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.TaskHistory;
@@ -16,6 +18,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -214,4 +217,37 @@ class TaskHistoryServiceImplTest {
         // Assert
         verify(taskHistoryRepository).save(any(TaskHistory.class));
     }
+
+    @Test
+    @DisplayName("Get History Page - Còn thay đổi cũ hơn - Trả cursor của dòng cũ nhất")
+    void getHistoryPage_HasOlder_ReturnsCursor() {
+        // Arrange
+        TaskHistory older = TaskHistory.builder()
+                .id(2L)
+                .task(task)
+                .changedBy(user)
+                .fieldName("title")
+                .changedAt(taskHistory.getChangedAt().minusMinutes(1))
+                .build();
+        when(taskHistoryRepository.findLatestByTaskId(1L, Limit.of(2))).thenReturn(List.of(taskHistory, older));
+
+        // Act
+        TaskHistoryListResponse response = taskHistoryService.getHistoryPage(1L, null, 1);
+
+        // Assert
+        assertTrue(response.getHasNext());
+        assertEquals(1, response.getHistory().size());
+        assertEquals(1L, response.getHistory().get(0).getId());
+        TimelineCursor cursor = TimelineCursor.decode(response.getNextCursor());
+        assertEquals(1L, cursor.getId());
+        assertEquals(taskHistory.getChangedAt(), cursor.getTime());
+    }
+
+    @Test
+    @DisplayName("Get History Page - Cursor không hợp lệ - Throws Exception")
+    void getHistoryPage_InvalidCursor_ThrowsException() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskHistoryService.getHistoryPage(1L, "khong-hop-le", 10));
+        assertEquals("Cursor không hợp lệ", exception.getMessage());
+    }
 }
@@ -0,0 +1,125 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.entity.Comment;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.repository.CommentRepository;
+import com.backend.quanlytasks.repository.TaskSearchIndexRepository;
+import com.backend.quanlytasks.service.Impl.TaskSearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchServiceImplTest {
+
+    @Mock
+    private TaskSearchIndexRepository taskSearchIndexRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private TaskSearchServiceImpl taskSearchService;
+
+    private User author;
+    private Task task;
+    private Comment comment;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setId(1L);
+        author.setFullName("Author User");
+
+        task = Task.builder()
+                .id(1L)
+                .title("Sửa lỗi đăng nhập")
+                .description("Lỗi khi nhập sai mật khẩu")
+                .status(TaskStatus.TODO)
+                .priority(Priority.HIGH)
+                .createdBy(author)
+                .tags(new HashSet<>())
+                .isDelete(0)
+                .build();
+
+        comment = Comment.builder()
+                .id(1L)
+                .content("Đã tái hiện được")
+                .task(task)
+                .author(author)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Index Task - Updates Existing Document")
+    void indexTask_ExistingDocument_UpdatesTaskText() {
+        // Arrange
+        when(taskSearchIndexRepository.updateTaskText(1L, "Sửa lỗi đăng nhập Lỗi khi nhập sai mật khẩu"))
+                .thenReturn(1);
+
+        // Act
+        taskSearchService.indexTask(task);
+
+        // Assert
+        verify(taskSearchIndexRepository, never()).upsert(anyLong(), anyString(), anyString());
+        verify(commentRepository, never()).findByTaskIdOrderByCreatedAtAsc(anyLong());
+    }
+
+    @Test
+    @DisplayName("Index Task - Missing Document - Upserts With Comments")
+    void indexTask_MissingDocument_Upserts() {
+        // Arrange
+        when(taskSearchIndexRepository.updateTaskText(1L, "Sửa lỗi đăng nhập Lỗi khi nhập sai mật khẩu"))
+                .thenReturn(0);
+        when(commentRepository.findByTaskIdOrderByCreatedAtAsc(1L)).thenReturn(List.of(comment));
+
+        // Act
+        taskSearchService.indexTask(task);
+
+        // Assert
+        verify(taskSearchIndexRepository).upsert(1L, "Sửa lỗi đăng nhập Lỗi khi nhập sai mật khẩu",
+                "Đã tái hiện được");
+    }
+
+    @Test
+    @DisplayName("Index Comment - Appends To Existing Document")
+    void indexComment_Appends() {
+        // Arrange
+        when(taskSearchIndexRepository.appendComment(1L, "Đã tái hiện được")).thenReturn(1);
+
+        // Act
+        taskSearchService.indexComment(comment);
+
+        // Assert
+        verify(taskSearchIndexRepository, never()).updateTaskText(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("Index Comment - Missing Document - Builds Full Document")
+    void indexComment_MissingDocument_BuildsDocument() {
+        // Arrange
+        when(taskSearchIndexRepository.appendComment(1L, "Đã tái hiện được")).thenReturn(0);
+        when(taskSearchIndexRepository.updateTaskText(eq(1L), anyString())).thenReturn(0);
+        when(commentRepository.findByTaskIdOrderByCreatedAtAsc(1L)).thenReturn(List.of(comment));
+
+        // Act
+        taskSearchService.indexComment(comment);
+
+        // Assert
+        verify(taskSearchIndexRepository).upsert(eq(1L), anyString(), eq("Đã tái hiện được"));
+    }
+}
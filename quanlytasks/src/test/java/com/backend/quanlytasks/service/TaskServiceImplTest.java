@@ -1,32 +1,62 @@
 package com.backend.quanlytasks.service;
 
+import com.backend.quanlytasks.cache.TaskDetailCache;
+import com.backend.quanlytasks.cache.TaskListCache;
+import com.backend.quanlytasks.common.concurrent.ScopedExecutor;
+import com.backend.quanlytasks.common.enums.PageMode;
 import com.backend.quanlytasks.common.enums.Priority;
 import com.backend.quanlytasks.common.enums.RoleName;
+import com.backend.quanlytasks.common.enums.SortDirection;
+import com.backend.quanlytasks.common.enums.TaskSortField;
 import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.common.exception.ConflictException;
+import com.backend.quanlytasks.common.http.ResourceVersion;
+import com.backend.quanlytasks.common.pagination.TaskCursor;
 import com.backend.quanlytasks.dto.request.Task.*;
+import com.backend.quanlytasks.dto.response.Comment.CommentListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskDetailResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskListResponse;
 import com.backend.quanlytasks.dto.response.Task.TaskResponse;
+import com.backend.quanlytasks.dto.response.Task.TaskStatsResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryListResponse;
+import com.backend.quanlytasks.dto.response.TaskHistory.TaskHistoryResponse;
 import com.backend.quanlytasks.entity.Role;
 import com.backend.quanlytasks.entity.Tag;
 import com.backend.quanlytasks.entity.Task;
 import com.backend.quanlytasks.entity.User;
+import com.backend.quanlytasks.event.TaskChangedEvent;
+import com.backend.quanlytasks.event.TaskChangedEvent.ChangeType;
+import com.backend.quanlytasks.event.TaskNotificationEvent.NotificationType;
+import com.backend.quanlytasks.repository.SubTaskRepository;
 import com.backend.quanlytasks.repository.TagRepository;
+import com.backend.quanlytasks.repository.TaskHistoryRepository;
 import com.backend.quanlytasks.repository.TaskRepository;
 import com.backend.quanlytasks.repository.UserRepository;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import com.backend.quanlytasks.repository.projection.TaskDetailVersionRow;
+import com.backend.quanlytasks.repository.projection.TaskListRow;
+import com.backend.quanlytasks.repository.projection.TaskStatusRow;
+import com.backend.quanlytasks.repository.projection.TaskTagRow;
 import com.backend.quanlytasks.service.Impl.TaskServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,9 +75,15 @@ class TaskServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SubTaskRepository subTaskRepository;
+
     @Mock
     private TaskHistoryService taskHistoryService;
 
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
     @Mock
     private SubTaskService subTaskService;
 
@@ -57,6 +93,31 @@ class TaskServiceImplTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private TaskAccessService taskAccessService;
+
+    @Mock
+    private TaskStatusCounterService taskStatusCounterService;
+
+    @Mock
+    private TaskSearchService taskSearchService;
+
+    @Mock
+    private UserTaskAccessRepository userTaskAccessRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Cache tắt: mọi lời gọi getTaskList đi thẳng xuống repository
+    @Spy
+    private TaskListCache taskListCache = new TaskListCache(false, 0, Duration.ZERO);
+
+    @Spy
+    private TaskDetailCache taskDetailCache = new TaskDetailCache(true, 100, Duration.ofMinutes(10));
+
+    @Spy
+    private ScopedExecutor scopedExecutor = new ScopedExecutor(2, 10, Duration.ofSeconds(5));
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -147,6 +208,8 @@ class TaskServiceImplTest {
         assertEquals("New Task", response.getTitle());
         assertEquals(TaskStatus.TODO, response.getStatus());
         verify(taskHistoryService).logChange(any(Task.class), eq(creator), eq("created"), isNull(), anyString());
+        verify(taskAccessService).onTaskCreated(any(Task.class));
+        verify(taskStatusCounterService).onTaskCreated(TaskStatus.TODO);
     }
 
     @Test
@@ -175,6 +238,7 @@ class TaskServiceImplTest {
         assertNotNull(response);
         verify(taskHistoryService, atLeastOnce()).logChange(any(Task.class), eq(creator), anyString(), anyString(),
                 anyString());
+        verify(taskSearchService).indexTask(task);
     }
 
     @Test
@@ -214,6 +278,7 @@ class TaskServiceImplTest {
         // Act & Assert
         assertDoesNotThrow(() -> taskService.softDeleteTask(1L, creator, false));
         verify(taskRepository).save(any(Task.class));
+        verify(taskStatusCounterService).onTaskDeleted(1L, TaskStatus.TODO);
     }
 
     @Test
@@ -246,6 +311,34 @@ class TaskServiceImplTest {
         assertNotNull(response);
         verify(notificationService).publishTaskNotification(eq(assignee), anyString(), anyString(), any(Task.class),
                 any());
+        verify(taskAccessService).onTaskAssigneeChanged(eq(task), any(), eq(assignee));
+    }
+
+    @Test
+    @DisplayName("Assign Task - Đổi người được giao - Publish TaskChangedEvent kèm người được giao cũ")
+    void assignTask_Reassign_PublishesTaskChangedEvent() {
+        // Arrange
+        User oldAssignee = new User();
+        oldAssignee.setId(4L);
+        oldAssignee.setFullName("Old Assignee");
+        task.setAssignee(oldAssignee);
+
+        AssignTaskRequest request = new AssignTaskRequest();
+        request.setAssigneeId(2L);
+
+        when(taskRepository.findByIdAndIsDelete(1L, 0)).thenReturn(Optional.of(task));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(assignee));
+        when(taskRepository.save(any(Task.class))).thenReturn(task);
+
+        // Act
+        taskService.assignTask(1L, request, creator);
+
+        // Assert
+        ArgumentCaptor<TaskChangedEvent> captor = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(1L, captor.getValue().getTaskId());
+        assertEquals(ChangeType.TASK_UPDATED, captor.getValue().getType());
+        assertEquals(Set.of(4L), captor.getValue().getUserIds());
     }
 
     @Test
@@ -269,16 +362,23 @@ class TaskServiceImplTest {
         // Arrange
         UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
         request.setStatus(TaskStatus.IN_PROGRESS);
+        request.setExpectedStatus(TaskStatus.TODO);
 
-        when(taskRepository.findByIdAndIsDelete(1L, 0)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
+        when(taskRepository.updateStatusIfCurrent(eq(1L), eq(TaskStatus.TODO), eq(TaskStatus.IN_PROGRESS),
+                any(LocalDateTime.class))).thenReturn(1);
+        stubListRows(task);
 
         // Act
         TaskResponse response = taskService.updateTaskStatus(1L, request, creator, false);
 
         // Assert
         assertNotNull(response);
-        verify(taskHistoryService).logChange(any(Task.class), eq(creator), eq("status"), anyString(), anyString());
+        verify(taskHistoryRepository).insertStatusChange(eq(1L), eq(creator.getId()), eq("TODO"),
+                eq("IN_PROGRESS"), any(LocalDateTime.class));
+        verify(taskStatusCounterService).onStatusChanged(1L, TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        verify(taskRepository, never()).save(any(Task.class));
+        verifyNoInteractions(taskHistoryService, notificationService);
     }
 
     @Test
@@ -288,15 +388,21 @@ class TaskServiceImplTest {
         task.setAssignee(assignee);
         UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
         request.setStatus(TaskStatus.DONE);
+        request.setExpectedStatus(TaskStatus.TODO);
 
-        when(taskRepository.findByIdAndIsDelete(1L, 0)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
+        when(taskRepository.updateStatusIfCurrent(eq(1L), eq(TaskStatus.TODO), eq(TaskStatus.DONE),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(userRepository.findById(creator.getId())).thenReturn(Optional.of(creator));
+        stubListRows(task);
 
         // Act
         TaskResponse response = taskService.updateTaskStatus(1L, request, assignee, false);
 
         // Assert
         assertNotNull(response);
+        verify(notificationService).publishTaskNotification(eq(creator), anyString(), anyString(),
+                eq(1L), eq(task.getTitle()), eq(NotificationType.TASK_STATUS_CHANGED));
     }
 
     @Test
@@ -308,13 +414,92 @@ class TaskServiceImplTest {
 
         UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
         request.setStatus(TaskStatus.IN_PROGRESS);
+        request.setExpectedStatus(TaskStatus.TODO);
 
-        when(taskRepository.findByIdAndIsDelete(1L, 0)).thenReturn(Optional.of(task));
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> taskService.updateTaskStatus(1L, request, otherUser, false));
         assertEquals("Bạn không có quyền cập nhật trạng thái task này", exception.getMessage());
+        verify(taskRepository, never()).updateStatusIfCurrent(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Update Task Status - Missing Expected Status - Uses Current Status")
+    void updateTaskStatus_MissingExpectedStatus_UsesCurrentStatus() {
+        // Arrange: client cũ không gửi expectedStatus
+        UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
+        request.setStatus(TaskStatus.DONE);
+
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
+        when(taskRepository.updateStatusIfCurrent(eq(1L), eq(TaskStatus.TODO), eq(TaskStatus.DONE),
+                any(LocalDateTime.class))).thenReturn(1);
+        stubListRows(task);
+
+        // Act
+        taskService.updateTaskStatus(1L, request, creator, false);
+
+        // Assert
+        verify(taskHistoryRepository).insertStatusChange(eq(1L), eq(creator.getId()), eq("TODO"),
+                eq("DONE"), any(LocalDateTime.class));
+        verify(taskStatusCounterService).onStatusChanged(1L, TaskStatus.TODO, TaskStatus.DONE);
+    }
+
+    @Test
+    @DisplayName("Update Task Status - Same Status - Writes Nothing")
+    void updateTaskStatus_SameStatus_WritesNothing() {
+        // Arrange
+        UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
+        request.setStatus(TaskStatus.TODO);
+        request.setExpectedStatus(TaskStatus.TODO);
+
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
+        stubListRows(task);
+
+        // Act
+        TaskResponse response = taskService.updateTaskStatus(1L, request, creator, false);
+
+        // Assert
+        assertNotNull(response);
+        verify(taskRepository, never()).updateStatusIfCurrent(any(), any(), any(), any());
+        verifyNoInteractions(taskHistoryRepository, notificationService, eventPublisher, taskStatusCounterService);
+    }
+
+    @Test
+    @DisplayName("Update Task Status - Trạng thái client thấy đã cũ - Throws ConflictException")
+    void updateTaskStatus_StaleExpectedStatus_ThrowsConflict() {
+        // Arrange
+        UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
+        request.setStatus(TaskStatus.DONE);
+        request.setExpectedStatus(TaskStatus.IN_PROGRESS);
+
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
+
+        // Act & Assert
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> taskService.updateTaskStatus(1L, request, creator, false));
+        assertEquals("Trạng thái task đã được người khác cập nhật, vui lòng tải lại", exception.getMessage());
+        verify(taskRepository, never()).updateStatusIfCurrent(any(), any(), any(), any());
+        verifyNoInteractions(taskHistoryRepository, notificationService, eventPublisher, taskStatusCounterService);
+    }
+
+    @Test
+    @DisplayName("Update Task Status - Đổi đồng thời trong lúc xử lý - Throws ConflictException")
+    void updateTaskStatus_ConcurrentChange_ThrowsConflict() {
+        // Arrange: đọc thấy TODO nhưng request khác đã đổi trước khi UPDATE chạy
+        UpdateTaskStatusRequest request = new UpdateTaskStatusRequest();
+        request.setStatus(TaskStatus.DONE);
+        request.setExpectedStatus(TaskStatus.TODO);
+
+        when(taskRepository.findStatusRowById(1L)).thenReturn(Optional.of(statusRow(task)));
+        when(taskRepository.updateStatusIfCurrent(eq(1L), eq(TaskStatus.TODO), eq(TaskStatus.DONE),
+                any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(ConflictException.class,
+                () -> taskService.updateTaskStatus(1L, request, creator, false));
+        verifyNoInteractions(taskHistoryRepository, notificationService, eventPublisher, taskStatusCounterService);
     }
 
     @Test
@@ -325,9 +510,10 @@ class TaskServiceImplTest {
         filter.setPage(0);
         filter.setSize(10);
 
-        Page<Task> taskPage = new PageImpl<>(List.of(task));
-        when(taskRepository.findAllWithFilters(any(), any(), any(), any(), any(), any(), any(Pageable.class)))
-                .thenReturn(taskPage);
+        Page<Long> idPage = new PageImpl<>(List.of(task.getId()));
+        when(taskRepository.findTaskIds(eq(filter), isNull(), any(Pageable.class)))
+                .thenReturn(idPage);
+        stubListRows(task);
 
         // Act
         TaskListResponse response = taskService.getTaskList(filter, admin, true);
@@ -337,6 +523,31 @@ class TaskServiceImplTest {
         assertEquals(1, response.getTasks().size());
     }
 
+    @Test
+    @DisplayName("Get Task List - Slice Mode Skips Count")
+    void getTaskList_SliceMode_SkipsCount() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setMode(PageMode.SLICE);
+        filter.setPage(0);
+        filter.setSize(1);
+
+        when(taskRepository.findTaskIdSlice(eq(filter), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(task.getId()), PageRequest.of(0, 1), true));
+        stubListRows(task);
+
+        // Act
+        TaskListResponse response = taskService.getTaskList(filter, admin, true);
+
+        // Assert
+        assertEquals(1, response.getTasks().size());
+        assertEquals(0, response.getCurrentPage());
+        assertTrue(response.getHasNext());
+        assertNull(response.getTotalElements());
+        assertNull(response.getTotalPages());
+        verify(taskRepository, never()).findTaskIds(any(), any(), any());
+    }
+
     @Test
     @DisplayName("Get Task List - User Sees Own Tasks")
     void getTaskList_UserSeesOwn() {
@@ -345,10 +556,10 @@ class TaskServiceImplTest {
         filter.setPage(0);
         filter.setSize(10);
 
-        Page<Task> taskPage = new PageImpl<>(List.of(task));
-        when(taskRepository.findByUserWithFilters(eq(creator.getId()), any(), any(), any(), any(), any(),
-                any(Pageable.class)))
-                .thenReturn(taskPage);
+        Page<Long> idPage = new PageImpl<>(List.of(task.getId()));
+        when(taskRepository.findTaskIds(eq(filter), eq(creator.getId()), any(Pageable.class)))
+                .thenReturn(idPage);
+        stubListRows(task);
 
         // Act
         TaskListResponse response = taskService.getTaskList(filter, creator, false);
@@ -358,14 +569,232 @@ class TaskServiceImplTest {
         assertEquals(1, response.getTasks().size());
     }
 
+    @Test
+    @DisplayName("Get Task List - Cursor Mode Returns Next Cursor Without Count")
+    void getTaskList_CursorMode_ReturnsNextCursor() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setMode(PageMode.CURSOR);
+        filter.setSize(1);
+
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 2, 10, 0));
+
+        // Repository trả về size + 1 dòng => còn trang sau
+        when(taskRepository.findTaskIdsAfterCursor(eq(filter), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(task.getId(), 2L));
+        stubListRows(task);
+
+        // Act
+        TaskListResponse response = taskService.getTaskList(filter, admin, true);
+
+        // Assert
+        assertEquals(1, response.getTasks().size());
+        assertTrue(response.getHasNext());
+        assertNull(response.getTotalElements());
+        TaskCursor cursor = TaskCursor.decode(response.getNextCursor());
+        assertEquals(task.getId(), cursor.getId());
+        assertEquals(TaskSortField.CREATED_AT, cursor.getSort());
+        assertEquals(task.getCreatedAt(), cursor.getValue());
+    }
+
+    @Test
+    @DisplayName("Get Task List - Cursor Keeps Priority Sort By Business Rank")
+    void getTaskList_CursorSortedByPriority_EncodesRank() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setMode(PageMode.CURSOR);
+        filter.setSort(TaskSortField.PRIORITY);
+        filter.setDirection(SortDirection.ASC);
+        filter.setSize(1);
+
+        when(taskRepository.findTaskIdsAfterCursor(eq(filter), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(task.getId(), 2L));
+        stubListRows(task);
+
+        // Act
+        TaskListResponse response = taskService.getTaskList(filter, admin, true);
+
+        // Assert
+        TaskCursor cursor = TaskCursor.decode(response.getNextCursor());
+        assertEquals(TaskSortField.PRIORITY, cursor.getSort());
+        assertEquals(SortDirection.ASC, cursor.getDirection());
+        assertEquals(Priority.MEDIUM.getRank(), cursor.getValue());
+    }
+
+    @Test
+    @DisplayName("Get Task List - Cursor From Another Sort - Throws Exception")
+    void getTaskList_CursorSortMismatch_ThrowsException() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setSort(TaskSortField.DUE_DATE);
+        filter.setCursor(new TaskCursor(TaskSortField.CREATED_AT, SortDirection.DESC,
+                LocalDateTime.of(2025, 1, 2, 10, 0), 5L).encode());
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.getTaskList(filter, creator, false));
+        assertEquals("Cursor không khớp với cách sắp xếp", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Get Task List - Loads Names And Tags In Batched Queries")
+    void getTaskList_UsesReadModel() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        task.setAssignee(assignee);
+        when(taskRepository.findTaskIds(eq(filter), isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(task.getId())));
+        stubListRows(task);
+        when(taskRepository.findTagRowsByTaskIdIn(List.of(1L)))
+                .thenReturn(List.of(new TaskTagRow(1L, "backend"), new TaskTagRow(1L, "urgent")));
+
+        // Act
+        TaskListResponse response = taskService.getTaskList(filter, admin, true);
+
+        // Assert
+        TaskResponse row = response.getTasks().get(0);
+        assertEquals("Creator User", row.getCreatedByName());
+        assertEquals("Assignee User", row.getAssigneeName());
+        assertEquals(List.of("backend", "urgent"), row.getTags());
+        verify(taskRepository, times(1)).findListRowsByIdIn(anyCollection());
+        verify(taskRepository, times(1)).findTagRowsByTaskIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Get Task List - Invalid Cursor - Throws Exception")
+    void getTaskList_InvalidCursor_ThrowsException() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setCursor("not-a-cursor");
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.getTaskList(filter, creator, false));
+        assertEquals("Cursor không hợp lệ", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Get Task List Version - Changes When Served Page Changes")
+    void getTaskListVersion_ChangesWithServedPage() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 2, 10, 0);
+        TaskListResponse page = listPage(updatedAt);
+        TaskListResponse samePage = listPage(updatedAt);
+        TaskListResponse updatedPage = listPage(updatedAt.plusMinutes(1));
+
+        // Act
+        ResourceVersion first = taskService.getTaskListVersion(page);
+        ResourceVersion same = taskService.getTaskListVersion(samePage);
+        ResourceVersion afterUpdate = taskService.getTaskListVersion(updatedPage);
+
+        // Assert
+        assertEquals(first.getEtag(), same.getEtag());
+        assertNotEquals(first.getEtag(), afterUpdate.getEtag());
+        assertEquals(-1, first.getLastModified());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Get Task List Version - Cursor Mode - Issues No Count")
+    void getTaskListVersion_CursorMode_IssuesNoCount() {
+        // Arrange
+        TaskFilterRequest filter = new TaskFilterRequest();
+        filter.setMode(PageMode.CURSOR);
+        filter.setSize(1);
+        when(taskRepository.findTaskIdsAfterCursor(eq(filter), eq(creator.getId()), isNull(), eq(2)))
+                .thenReturn(List.of(task.getId()));
+        stubListRows(task);
+
+        // Act
+        ResourceVersion version = taskService.getTaskListVersion(taskService.getTaskList(filter, creator, false));
+
+        // Assert: chỉ truy vấn trang id và dữ liệu hiển thị, không có COUNT/MAX trên toàn bộ tập
+        assertNotNull(version.getEtag());
+        verify(taskRepository).findTaskIdsAfterCursor(eq(filter), eq(creator.getId()), isNull(), eq(2));
+        verify(taskRepository).findListRowsByIdIn(anyCollection());
+        verify(taskRepository).findTagRowsByTaskIdIn(anyCollection());
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Get Task Detail Version - Uses Latest Timestamp")
+    void getTaskDetailVersion_UsesLatestTimestamp() {
+        // Arrange
+        LocalDateTime latestComment = LocalDateTime.of(2025, 1, 3, 9, 0);
+        when(taskRepository.findDetailVersionRow(1L)).thenReturn(Optional.of(new TaskDetailVersionRow(
+                1L, 0, LocalDateTime.of(2025, 1, 2, 10, 0), latestComment, null, null)));
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(creator.getId(), 1L)).thenReturn(true);
+
+        // Act
+        ResourceVersion version = taskService.getTaskDetailVersion(1L, creator, false);
+
+        // Assert
+        assertNotNull(version.getEtag());
+        assertEquals(latestComment.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                version.getLastModified());
+    }
+
+    @Test
+    @DisplayName("Get Task Detail Version - No Permission - Throws Exception")
+    void getTaskDetailVersion_NoPermission_ThrowsException() {
+        // Arrange
+        User otherUser = new User();
+        otherUser.setId(99L);
+        when(taskRepository.findDetailVersionRow(1L)).thenReturn(Optional.of(new TaskDetailVersionRow(
+                1L, 0, LocalDateTime.now(), null, null, null)));
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(99L, 1L)).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.getTaskDetailVersion(1L, otherUser, false));
+        assertEquals("Không có quyền xem task này", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Get Task Stats - ADMIN - Đọc bộ đếm GLOBAL")
+    void getTaskStats_Admin_ReadsGlobalCounters() {
+        // Arrange
+        when(taskStatusCounterService.getCounts(null)).thenReturn(counts(5L, 0L, 2L, 0L));
+
+        // Act
+        TaskStatsResponse stats = taskService.getTaskStats(admin, true);
+
+        // Assert
+        assertEquals(5L, stats.getTodo());
+        assertEquals(0L, stats.getInProgress());
+        assertEquals(2L, stats.getDone());
+        assertEquals(0L, stats.getCancelled());
+        assertEquals(7L, stats.getTotal());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    @DisplayName("Get Task Stats - USER - Đọc bộ đếm của user")
+    void getTaskStats_User_ReadsUserCounters() {
+        // Arrange
+        when(taskStatusCounterService.getCounts(creator.getId())).thenReturn(counts(0L, 3L, 0L, 0L));
+
+        // Act
+        TaskStatsResponse stats = taskService.getTaskStats(creator, false);
+
+        // Assert
+        assertEquals(0L, stats.getTodo());
+        assertEquals(3L, stats.getInProgress());
+        assertEquals(3L, stats.getTotal());
+        verifyNoInteractions(taskRepository);
+    }
+
     @Test
     @DisplayName("Get Task Detail - Success")
     void getTaskDetail_Success() {
         // Arrange
-        when(taskRepository.findByIdAndIsDelete(1L, 0)).thenReturn(Optional.of(task));
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(0L));
+        when(taskRepository.findDetailById(1L)).thenReturn(Optional.of(task));
         when(subTaskService.getSubTasksByTaskId(1L)).thenReturn(List.of());
-        when(commentService.getCommentsByTaskId(1L)).thenReturn(List.of());
-        when(taskHistoryService.getTaskHistory(1L)).thenReturn(List.of());
+        when(commentService.getCommentPage(1L, null, 20)).thenReturn(CommentListResponse.builder()
+                .comments(List.of()).hasNext(true).nextCursor("older-comments").build());
+        when(taskHistoryService.getHistoryPage(1L, null, 20)).thenReturn(TaskHistoryListResponse.builder()
+                .history(List.of()).hasNext(false).build());
 
         // Act
         TaskDetailResponse response = taskService.getTaskDetail(1L, creator, false);
@@ -373,6 +802,9 @@ class TaskServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals("Test Task", response.getTitle());
+        assertTrue(response.getHasMoreComments());
+        assertEquals("older-comments", response.getCommentsNextCursor());
+        assertFalse(response.getHasMoreHistory());
     }
 
     @Test
@@ -382,13 +814,129 @@ class TaskServiceImplTest {
         User otherUser = new User();
         otherUser.setId(99L);
 
-        when(taskRepository.findByIdAndIsDelete(1L, 0)).thenReturn(Optional.of(task));
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(0L));
+        when(taskRepository.findDetailById(1L)).thenReturn(Optional.of(task));
         when(subTaskService.getSubTasksByTaskId(1L)).thenReturn(List.of());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> taskService.getTaskDetail(1L, otherUser, false));
         assertEquals("Không có quyền xem task này", exception.getMessage());
+        assertEquals(0, taskDetailCache.size());
+    }
+
+    @Test
+    @DisplayName("Get Task Detail - Cùng version - Lần 2 lấy từ cache, vẫn kiểm tra quyền từng user")
+    void getTaskDetail_SameVersion_ServedFromCache() {
+        // Arrange
+        User otherUser = new User();
+        otherUser.setId(99L);
+        // Lần đọc thứ hai do assignee thực hiện, phải qua được kiểm tra quyền trên bản cache
+        task.setAssignee(assignee);
+
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+        when(taskRepository.findDetailById(1L)).thenReturn(Optional.of(task));
+        when(subTaskService.getSubTasksByTaskId(1L)).thenReturn(List.of());
+        when(commentService.getCommentPage(1L, null, 20)).thenReturn(CommentListResponse.builder()
+                .comments(List.of()).hasNext(false).build());
+        when(taskHistoryService.getHistoryPage(1L, null, 20)).thenReturn(TaskHistoryListResponse.builder()
+                .history(List.of()).hasNext(false).build());
+
+        // Act
+        TaskDetailResponse first = taskService.getTaskDetail(1L, creator, false);
+        TaskDetailResponse second = taskService.getTaskDetail(1L, assignee, false);
+
+        // Assert
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findDetailById(1L);
+        verify(subTaskService, times(1)).getSubTasksByTaskId(1L);
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.getTaskDetail(1L, otherUser, false));
+        assertEquals("Không có quyền xem task này", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Get Task Detail - Version đổi - Nạp lại từ database")
+    void getTaskDetail_VersionChanged_Reloads() {
+        // Arrange
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        when(taskRepository.findDetailById(1L)).thenReturn(Optional.of(task));
+        when(subTaskService.getSubTasksByTaskId(1L)).thenReturn(List.of());
+        when(commentService.getCommentPage(1L, null, 20)).thenReturn(CommentListResponse.builder()
+                .comments(List.of()).hasNext(false).build());
+        when(taskHistoryService.getHistoryPage(1L, null, 20)).thenReturn(TaskHistoryListResponse.builder()
+                .history(List.of()).hasNext(false).build());
+
+        // Act
+        taskService.getTaskDetail(1L, creator, false);
+        taskService.getTaskDetail(1L, creator, false);
+
+        // Assert
+        verify(taskRepository, times(2)).findDetailById(1L);
+    }
+
+    @Test
+    @DisplayName("Get Task Comments - USER có quyền - Giới hạn kích thước trang")
+    void getTaskComments_WithAccess_ClampsSize() {
+        // Arrange
+        CommentListResponse page = CommentListResponse.builder().comments(List.of()).hasNext(false).build();
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(assignee.getId(), 1L)).thenReturn(true);
+        when(commentService.getCommentPage(1L, "cursor", 100)).thenReturn(page);
+
+        // Act
+        CommentListResponse response = taskService.getTaskComments(1L, "cursor", 1000, assignee, false);
+
+        // Assert
+        assertSame(page, response);
+    }
+
+    @Test
+    @DisplayName("Get Task History - USER không liên quan - Throws Exception")
+    void getTaskHistory_NoPermission_ThrowsException() {
+        // Arrange
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(99L, 1L)).thenReturn(false);
+        User otherUser = new User();
+        otherUser.setId(99L);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.getTaskHistory(1L, null, null, otherUser, false));
+        assertEquals("Không có quyền xem task này", exception.getMessage());
+        verifyNoInteractions(taskHistoryService);
+    }
+
+    @Test
+    @DisplayName("Get Task History - Không phân trang - Trả toàn bộ lịch sử")
+    void getTaskHistory_Unpaged_ReturnsFullList() {
+        // Arrange
+        List<TaskHistoryResponse> history = List.of(TaskHistoryResponse.builder().id(1L).taskId(1L).build());
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(userTaskAccessRepository.existsByUserIdAndTaskId(assignee.getId(), 1L)).thenReturn(true);
+        when(taskHistoryService.getTaskHistory(1L)).thenReturn(history);
+
+        // Act
+        List<TaskHistoryResponse> response = taskService.getTaskHistory(1L, assignee, false);
+
+        // Assert
+        assertSame(history, response);
+        verify(taskHistoryService, never()).getHistoryPage(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Get Task Detail - Task đã xóa - USER không xem được")
+    void getTaskDetail_DeletedTask_UserNotFound() {
+        // Arrange
+        task.setIsDelete(1);
+        when(taskRepository.findVersionById(1L)).thenReturn(Optional.of(0L));
+        when(taskRepository.findDetailById(1L)).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> taskService.getTaskDetail(1L, creator, false));
+        assertEquals("Không tìm thấy task", exception.getMessage());
+        verifyNoInteractions(subTaskService, commentService, taskHistoryService);
     }
 
     @Test
@@ -402,6 +950,7 @@ class TaskServiceImplTest {
         // Act & Assert
         assertDoesNotThrow(() -> taskService.restoreTask(1L, admin));
         verify(taskHistoryService).logChange(any(Task.class), eq(admin), eq("restored"), anyString(), anyString());
+        verify(taskStatusCounterService).onTaskRestored(1L, TaskStatus.TODO);
     }
 
     @Test
@@ -415,4 +964,48 @@ class TaskServiceImplTest {
                 () -> taskService.restoreTask(1L, admin));
         assertEquals("Task này chưa bị xóa", exception.getMessage());
     }
+
+    /**
+     * Helper: Dòng trạng thái (findStatusRowById) tương ứng với entity trong test
+     */
+    private TaskStatusRow statusRow(Task t) {
+        return new TaskStatusRow(t.getId(), t.getTitle(), t.getStatus(), t.getCreatedBy().getId(),
+                t.getAssignee() != null ? t.getAssignee().getId() : null);
+    }
+
+    /**
+     * Helper: Kết quả bộ đếm theo status (getCounts) theo thứ tự TODO, IN_PROGRESS, DONE, CANCELLED
+     */
+    private Map<TaskStatus, Long> counts(long todo, long inProgress, long done, long cancelled) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        counts.put(TaskStatus.TODO, todo);
+        counts.put(TaskStatus.IN_PROGRESS, inProgress);
+        counts.put(TaskStatus.DONE, done);
+        counts.put(TaskStatus.CANCELLED, cancelled);
+        return counts;
+    }
+
+    /**
+     * Helper: Stub read model của danh sách task từ các entity trong test
+     */
+    private TaskListResponse listPage(LocalDateTime updatedAt) {
+        return TaskListResponse.builder()
+                .tasks(List.of(TaskResponse.builder().id(1L).updatedAt(updatedAt).tags(List.of()).build()))
+                .currentPage(0)
+                .pageSize(8)
+                .hasNext(false)
+                .hasPrevious(false)
+                .build();
+    }
+
+    private void stubListRows(Task... tasks) {
+        List<TaskListRow> rows = Arrays.stream(tasks)
+                .map(t -> new TaskListRow(t.getId(), t.getTitle(), t.getDescription(), t.getStatus(),
+                        t.getPriority(), t.getDueDate(), t.getCreatedBy().getId(), t.getCreatedBy().getFullName(),
+                        t.getAssignee() != null ? t.getAssignee().getId() : null,
+                        t.getAssignee() != null ? t.getAssignee().getFullName() : null,
+                        t.getCreatedAt(), t.getUpdatedAt(), t.getIsDelete()))
+                .toList();
+        when(taskRepository.findListRowsByIdIn(anyCollection())).thenReturn(rows);
+    }
 }
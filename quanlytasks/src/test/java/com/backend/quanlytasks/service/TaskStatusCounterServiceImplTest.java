@@ -0,0 +1,130 @@
+package com.backend.quanlytasks.service;
+
+import com.backend.quanlytasks.common.enums.Priority;
+import com.backend.quanlytasks.common.enums.TaskCounterScope;
+import com.backend.quanlytasks.common.enums.TaskStatus;
+import com.backend.quanlytasks.entity.Task;
+import com.backend.quanlytasks.repository.TaskRepository;
+import com.backend.quanlytasks.repository.TaskStatusCounterRepository;
+import com.backend.quanlytasks.repository.UserTaskAccessRepository;
+import com.backend.quanlytasks.repository.projection.TaskStatusCountRow;
+import com.backend.quanlytasks.repository.projection.UserStatusCountRow;
+import com.backend.quanlytasks.service.Impl.TaskStatusCounterServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatusCounterServiceImplTest {
+
+    @Mock
+    private TaskStatusCounterRepository counterRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserTaskAccessRepository userTaskAccessRepository;
+
+    @InjectMocks
+    private TaskStatusCounterServiceImpl taskStatusCounterService;
+
+    @Test
+    @DisplayName("Status Changed - Moves One From Old To New For Global And Every Viewer")
+    void onStatusChanged_MovesCountForGlobalAndViewers() {
+        // Arrange
+        when(userTaskAccessRepository.findUserIdsByTaskId(10L)).thenReturn(List.of(1L, 2L));
+
+        // Act
+        taskStatusCounterService.onStatusChanged(10L, TaskStatus.TODO, TaskStatus.DONE);
+
+        // Assert
+        verify(counterRepository).addToCounter(eq("GLOBAL"), eq(0L), eq("TODO"), anyInt(), eq(-1L));
+        verify(counterRepository).addToCounter(eq("GLOBAL"), eq(0L), eq("DONE"), anyInt(), eq(1L));
+        verify(counterRepository).addToCounter("USER", 1L, "TODO", 0, -1L);
+        verify(counterRepository).addToCounter("USER", 1L, "DONE", 0, 1L);
+        verify(counterRepository).addToCounter("USER", 2L, "TODO", 0, -1L);
+        verify(counterRepository).addToCounter("USER", 2L, "DONE", 0, 1L);
+    }
+
+    @Test
+    @DisplayName("Status Changed - Same Status - No Write")
+    void onStatusChanged_SameStatus_NoWrite() {
+        // Act
+        taskStatusCounterService.onStatusChanged(10L, TaskStatus.TODO, TaskStatus.TODO);
+
+        // Assert
+        verifyNoInteractions(counterRepository, userTaskAccessRepository);
+    }
+
+    @Test
+    @DisplayName("Access Granted - Deleted Task - Not Counted")
+    void onAccessGranted_DeletedTask_NotCounted() {
+        // Arrange
+        Task task = Task.builder()
+                .id(10L)
+                .status(TaskStatus.TODO)
+                .priority(Priority.LOW)
+                .isDelete(1)
+                .build();
+
+        // Act
+        taskStatusCounterService.onAccessGranted(1L, task);
+
+        // Assert
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    @DisplayName("Get Counts - Missing Statuses Default To Zero")
+    void getCounts_User_FillsMissingStatuses() {
+        // Arrange
+        when(counterRepository.sumByStatus(TaskCounterScope.USER, 1L)).thenReturn(List.of(
+                new TaskStatusCountRow(TaskStatus.IN_PROGRESS, 3L)));
+
+        // Act
+        Map<TaskStatus, Long> counts = taskStatusCounterService.getCounts(1L);
+
+        // Assert
+        assertEquals(0L, counts.get(TaskStatus.TODO));
+        assertEquals(3L, counts.get(TaskStatus.IN_PROGRESS));
+        assertEquals(0L, counts.get(TaskStatus.DONE));
+        assertEquals(0L, counts.get(TaskStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Reconcile - Applies Only The Drift")
+    void reconcile_AppliesOnlyDrift() {
+        // Arrange
+        when(taskRepository.countGroupByStatus()).thenReturn(List.of(
+                new TaskStatusCountRow(TaskStatus.TODO, 5L),
+                new TaskStatusCountRow(TaskStatus.DONE, 2L)));
+        when(taskRepository.countGroupByUserAndStatus()).thenReturn(List.of(
+                new UserStatusCountRow(1L, TaskStatus.TODO, 4L)));
+        when(counterRepository.sumByStatus(TaskCounterScope.GLOBAL, 0L)).thenReturn(List.of(
+                new TaskStatusCountRow(TaskStatus.TODO, 5L),
+                new TaskStatusCountRow(TaskStatus.DONE, 3L)));
+        when(counterRepository.sumUserCounters()).thenReturn(List.of(
+                new UserStatusCountRow(1L, TaskStatus.TODO, 4L),
+                new UserStatusCountRow(2L, TaskStatus.CANCELLED, 1L)));
+
+        // Act
+        int repaired = taskStatusCounterService.reconcile();
+
+        // Assert
+        assertEquals(2, repaired);
+        verify(counterRepository).addToCounter(eq("GLOBAL"), eq(0L), eq("DONE"), anyInt(), eq(-1L));
+        verify(counterRepository).addToCounter("USER", 2L, "CANCELLED", 0, -1L);
+        verifyNoMoreInteractions(counterRepository);
+    }
+}